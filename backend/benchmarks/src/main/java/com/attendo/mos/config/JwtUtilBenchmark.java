@@ -0,0 +1,76 @@
+package com.attendo.mos.config;
+
+import com.attendo.mos.dto.UserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. {@code getUserIdFromToken} is the per-request path; it is
+ * measured with the verified-token cache (repeat requests with one token) and without it
+ * (a full HMAC check, as for the first request with a token).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "mySecretKeyThatIsAtLeast64CharactersLongForJWT512AlgorithmSecurityRequirements";
+
+    private final UUID userId = UUID.fromString("550e8400-e29b-41d4-a716-446655440004");
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtUtil(Duration.ofMinutes(5));
+        uncached = jwtUtil(Duration.ZERO);
+        token = cached.generateToken(userId, "resident1@mos.test", UserType.RESIDENT);
+    }
+
+    static JwtUtil jwtUtil(Duration cacheTtl) {
+        JwtUtil jwtUtil = new JwtUtil();
+        set(jwtUtil, "secret", SECRET);
+        set(jwtUtil, "expiration", 900);
+        set(jwtUtil, "cacheTtl", cacheTtl);
+        return jwtUtil;
+    }
+
+    private static void set(Object target, String field, Object value) {
+        var f = ReflectionUtils.findField(target.getClass(), field);
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, target, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(userId, "resident1@mos.test", UserType.RESIDENT);
+    }
+
+    @Benchmark
+    public UUID getUserIdFromToken_Cached() {
+        return cached.getUserIdFromToken(token);
+    }
+
+    @Benchmark
+    public UUID getUserIdFromToken_Verified() {
+        return uncached.getUserIdFromToken(token);
+    }
+}
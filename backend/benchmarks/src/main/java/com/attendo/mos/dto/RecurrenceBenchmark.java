@@ -0,0 +1,72 @@
+package com.attendo.mos.dto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recurrence handling: parsing day/time lists on create, rendering labels for responses, and
+ * expanding a reminder into occurrences for the agenda (one week, and the 62-day maximum).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark {
+
+    private static final List<String> DAYS = List.of("Mån", "Tis", "Ons", "Tor", "Fre", "Lör", "Sön");
+    private static final List<String> TIMES = List.of("08:00", "12:00", "17:30", "21:00");
+
+    private final ZoneId zone = ZoneId.of("Europe/Stockholm");
+    private final Instant from = Instant.parse("2025-03-24T00:00:00Z"); // spans the DST change
+    private RecurrenceRule rule;
+    private ScheduledReminder reminder;
+
+    @Setup
+    public void setUp() {
+        rule = RecurrenceRule.parseStrict(DAYS, TIMES);
+        reminder = new ScheduledReminder(UUID.randomUUID(), UUID.randomUUID(), "recurring", "MEDICATION",
+            "Alvedon", null, rule);
+    }
+
+    @Benchmark
+    public RecurrenceRule parseStrict() {
+        return RecurrenceRule.parseStrict(DAYS, TIMES);
+    }
+
+    @Benchmark
+    public Recurrence labels() {
+        return Recurrence.of(rule);
+    }
+
+    @Benchmark
+    public List<ReminderOccurrence> expand_Week() {
+        List<ReminderOccurrence> out = new ArrayList<>();
+        reminder.expand(from, from.plus(Duration.ofDays(7)), zone, out);
+        return out;
+    }
+
+    @Benchmark
+    public List<ReminderOccurrence> expand_62Days() {
+        List<ReminderOccurrence> out = new ArrayList<>();
+        reminder.expand(from, from.plus(Duration.ofDays(62)), zone, out);
+        return out;
+    }
+}
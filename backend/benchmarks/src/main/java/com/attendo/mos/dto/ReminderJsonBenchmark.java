@@ -0,0 +1,65 @@
+package com.attendo.mos.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing a page of reminders as the listing endpoint returns it, with an ObjectMapper
+ * configured like Spring Boot's (ISO dates, java.time module). Every third reminder is
+ * recurring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderJsonBenchmark {
+
+    @Param({ "10", "100", "10000" })
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<ReminderResponse> reminders;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        OffsetDateTime start = OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+        reminders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean recurring = i % 3 == 0;
+            reminders.add(new ReminderResponse(UUID.randomUUID(),
+                recurring ? "recurring" : "once",
+                recurring ? "MEAL" : "MEDICATION",
+                "Reminder " + i,
+                recurring ? null : start.plusMinutes(15L * i),
+                recurring ? List.of("Mån", "Ons", "Fre") : null,
+                recurring ? List.of("08:00", "12:00") : null,
+                start.minusDays(1)));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws Exception {
+        return mapper.writeValueAsBytes(reminders);
+    }
+}
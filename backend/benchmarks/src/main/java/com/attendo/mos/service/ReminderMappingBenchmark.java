@@ -0,0 +1,74 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.RecurrenceRule;
+import com.attendo.mos.dto.ReminderResponse;
+import com.attendo.mos.entity.Reminder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReminderService's per-item mapping: request categories (Swedish and English, any case) to
+ * {@link Category} on create, and entities to {@link ReminderResponse} on every listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderMappingBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Måltider", "medicin", "MEDICATION", "Vila/sömn", "dusch", "städning", "meeting", "Övrigt", "unknown"
+    };
+
+    private Reminder once;
+    private Reminder recurring;
+
+    @Setup
+    public void setUp() {
+        once = new Reminder();
+        once.setCategory(Category.MEDICATION);
+        once.setTime(OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC));
+        once.setNote("Alvedon 500 mg");
+
+        recurring = new Reminder();
+        recurring.setType("recurring");
+        recurring.setCategory(Category.MEAL);
+        recurring.setNote("Lunch");
+        recurring.setRecurrence(RecurrenceRule.parseStrict(
+            List.of("Mån", "Tis", "Ons", "Tor", "Fre"), List.of("08:00", "12:00", "17:30")));
+    }
+
+    @Benchmark
+    public void mapCategory(Blackhole bh) {
+        for (String category : CATEGORIES) {
+            bh.consume(ReminderService.mapCategory(category));
+        }
+    }
+
+    @Benchmark
+    public ReminderResponse toResponse_Once() {
+        return ReminderService.toResponse(once);
+    }
+
+    @Benchmark
+    public ReminderResponse toResponse_Recurring() {
+        return ReminderService.toResponse(recurring);
+    }
+}
@@ -0,0 +1,98 @@
+package com.attendo.mos.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public call into a service, {@link JwtUtil} and the Spring Data repositories.
+ * <p>
+ * Services and JwtUtil are recorded as {@code mos.service} (tags {@code class}, {@code method},
+ * {@code exception}), repositories as {@code mos.repository} (tags {@code repository},
+ * {@code method}, {@code exception}). Controller endpoints are already timed by Spring MVC as
+ * {@code http.server.requests}; percentile histograms for all three are switched on in
+ * application.properties. Lifecycle callbacks are left out. Only calls through the Spring proxy
+ * are seen, so a bean calling its own methods is timed once, at the outer call.
+ * </p>
+ */
+@Aspect
+@Component
+public class HotPathTimingAspect {
+
+    private record Key(Class<?> type, Method method) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    // Timers of successful calls; failures are rare enough to look up each time
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+
+    public HotPathTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("(execution(public * com.attendo.mos.service..*(..)) || execution(public * com.attendo.mos.config.JwtUtil.*(..))) "
+        + "&& !execution(* org.springframework.context.SmartLifecycle.*(..))")
+    public Object timeService(ProceedingJoinPoint call) throws Throwable {
+        return time(call, false);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint call) throws Throwable {
+        return time(call, true);
+    }
+
+    private Object time(ProceedingJoinPoint call, boolean repository) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call.proceed();
+        } catch (Throwable e) {
+            timer(call, repository, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Key key = new Key(call.getTarget().getClass(), ((MethodSignature) call.getSignature()).getMethod());
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> timer(call, repository, "none"));
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer timer(ProceedingJoinPoint call, boolean repository, String exception) {
+        String method = call.getSignature().getName();
+        if (repository) {
+            return Timer.builder("mos.repository")
+                .tag("repository", repositoryName(call.getTarget().getClass()))
+                .tag("method", method)
+                .tag("exception", exception)
+                .register(meterRegistry);
+        }
+        return Timer.builder("mos.service")
+            .tag("class", ClassUtils.getUserClass(call.getTarget()).getSimpleName())
+            .tag("method", method)
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+
+    // Repositories are JDK proxies; name them after the application interface they implement
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -1,5 +1,8 @@
 package com.attendo.mos.config;
 
+import com.attendo.mos.service.TokenRevocationService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,20 +10,23 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
-import java.util.UUID;
 
-@Component
+// Created by JwtSecurityConfig for the security chain only. Not a @Component: Boot would also
+// register it as a servlet filter, running it (and its failure metrics) twice per request.
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocations;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenRevocationService revocations, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.revocations = revocations;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -33,26 +39,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                if (jwtUtil.validateToken(token)) {
-                    UUID userId = jwtUtil.getUserIdFromToken(token);
-                    String userType = jwtUtil.getUserTypeFromToken(token).toString();
-                    
-                    // Create authentication object
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(
-                            userId.toString(), 
-                            null, 
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + userType))
-                        );
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Single verification per request; controllers read the principal via @AuthenticationPrincipal
+                JwtPrincipal principal = jwtUtil.parse(token);
+                if (revocations.isRevoked(principal.tokenId())) {
+                    // Logged out or rotated; continue unauthenticated
+                    failed("revoked");
+                    filterChain.doFilter(request, response);
+                    return;
                 }
+                UsernamePasswordAuthenticationToken authentication = 
+                    new UsernamePasswordAuthenticationToken(
+                        principal, 
+                        null, 
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.userType()))
+                    );
+                
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (Exception e) {
                 // Token is invalid, continue without authentication
+                failed(e instanceof ExpiredJwtException ? "expired" : "invalid");
                 logger.debug("Invalid JWT token: " + e.getMessage());
             }
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private void failed(String reason) {
+        meterRegistry.counter("auth.jwt.failures", "reason", reason).increment();
+    }
 }
@@ -0,0 +1,25 @@
+package com.attendo.mos.config;
+
+import com.attendo.mos.dto.UserType;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Verified contents of an access token. Placed in the SecurityContext by
+ * {@link JwtAuthenticationFilter}; controllers receive it via {@code @AuthenticationPrincipal}.
+ * {@code tokenId} is the token's {@code jti}, used for revocation; null for tokens issued before it existed.
+ */
+public record JwtPrincipal(
+        UUID userId,
+        UserType userType,
+        String email,
+        Instant expiresAt,
+        UUID tokenId) implements Principal {
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
@@ -3,6 +3,10 @@ package com.attendo.mos.config;
 import java.util.List;
 import java.util.Arrays;
 
+import com.attendo.mos.service.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -23,12 +27,16 @@ import org.springframework.beans.factory.annotation.Value;
 public class JwtSecurityConfig {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocations;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.cors.allowed-origins:http://localhost:5173,http://localhost:3000}")
     private String allowedOriginsCsv;
 
-    public JwtSecurityConfig(JwtUtil jwtUtil) {
+    public JwtSecurityConfig(JwtUtil jwtUtil, TokenRevocationService revocations, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.revocations = revocations;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -45,12 +53,16 @@ public class JwtSecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // allow preflight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // streamed responses (exports) finish on an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // public endpoints
-                        .requestMatchers("/api/auth/login", "/api/auth/logout").permitAll()
+                        .requestMatchers("/api/auth/login", "/api/auth/refresh", "/api/auth/logout").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                        // scraped by Prometheus without a user token; matches only on the management port
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         // everything else
                         .anyRequest().authenticated())
-                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil),
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, revocations, meterRegistry),
                         UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -63,6 +75,8 @@ public class JwtSecurityConfig {
         cfg.setAllowedOrigins(origins);
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
+        // Pagination cursors travel in a response header
+        cfg.setExposedHeaders(List.of("X-Next-Cursor"));
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
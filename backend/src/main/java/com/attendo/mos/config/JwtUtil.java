@@ -2,6 +2,8 @@ package com.attendo.mos.config;
 
 import com.attendo.mos.dto.UserType;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 import io.jsonwebtoken.security.Keys;
@@ -9,10 +11,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -20,64 +31,149 @@ public class JwtUtil {
     @Value("${jwt.secret:mySecretKey}")
     private String secret;
 
-    @Value("${jwt.expiration:86400}") // 24 hours in seconds
+    @Value("${jwt.expiration:900}") // access token lifetime, 15 minutes in seconds
     private int expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.refresh-expiration:1209600}") // 14 days in seconds
+    private int refreshExpiration = 1209600;
+
+    private static final String TOKEN_TYPE = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    // Recently verified tokens, keyed by SHA-256 of the compact token
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+
+    @Value("${jwt.cache.ttl:PT5M}")
+    private Duration cacheTtl = Duration.ofMinutes(5);
+
+    private record Verifier(String secret, SecretKey key, JwtParser parser) {
+    }
+
+    private record Verified(JwtPrincipal principal, Instant cachedUntil) {
+    }
+
+    private final Map<ByteBuffer, Verified> verified = new ConcurrentHashMap<>();
+    private final Clock clock = Clock.systemUTC();
+    private volatile Verifier verifier;
+
+    // Key and parser are built once; rebuilt only if the secret changes (tests set it reflectively)
+    private Verifier verifier() {
+        Verifier current = verifier;
+        if (current == null || current.secret() != secret) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
+            current = new Verifier(secret, key, Jwts.parser().verifyWith(key).build());
+            verifier = current;
+            verified.clear();
+        }
+        return current;
     }
 
     public String generateToken(UUID userId, String email, UserType userType) {
+        return buildToken(userId, email, userType, ACCESS, expiration);
+    }
+
+    /**
+     * Long-lived token accepted only by the refresh endpoint, never as a bearer token.
+     */
+    public String generateRefreshToken(UUID userId, String email, UserType userType) {
+        return buildToken(userId, email, userType, REFRESH, refreshExpiration);
+    }
+
+    private String buildToken(UUID userId, String email, UserType userType, String type, int lifetimeSeconds) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + expiration * 1000L);
+        Date expiryDate = new Date(now.getTime() + lifetimeSeconds * 1000L);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
                 .claim("email", email)
                 .claim("userType", userType.toString())
+                .claim(TOKEN_TYPE, type)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(verifier().key())
                 .compact();
     }
 
+    /**
+     * Verify {@code token} and return its principal. A token verified within the last
+     * {@code jwt.cache.ttl} is served from cache without repeating the signature check.
+     * Refresh tokens are rejected.
+     *
+     * @throws JwtException if the token is malformed, forged, expired or not an access token
+     */
+    public JwtPrincipal parse(String token) {
+        JwtParser parser = verifier().parser();
+        ByteBuffer key = digest(token);
+        Instant now = clock.instant();
+        Verified hit = verified.get(key);
+        if (hit != null) {
+            if (now.isBefore(hit.cachedUntil())) {
+                return hit.principal();
+            }
+            verified.remove(key, hit);
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (REFRESH.equals(claims.get(TOKEN_TYPE, String.class))) {
+            throw new JwtException("Refresh token used as access token");
+        }
+        JwtPrincipal principal = toPrincipal(claims);
+
+        Instant until = now.plus(cacheTtl);
+        if (principal.expiresAt().isBefore(until)) {
+            until = principal.expiresAt();
+        }
+        if (verified.size() >= cacheMaxEntries) {
+            verified.values().removeIf(v -> !now.isBefore(v.cachedUntil()));
+            if (verified.size() >= cacheMaxEntries) {
+                verified.clear();
+            }
+        }
+        verified.put(key, new Verified(principal, until));
+        return principal;
+    }
+
+    /**
+     * Verify a refresh token. Not cached: refreshes are rare and each one rotates the token.
+     *
+     * @throws JwtException if the token is malformed, forged, expired or not a refresh token
+     */
+    public JwtPrincipal parseRefreshToken(String token) {
+        Claims claims = verifier().parser().parseSignedClaims(token).getPayload();
+        if (!REFRESH.equals(claims.get(TOKEN_TYPE, String.class))) {
+            throw new JwtException("Not a refresh token");
+        }
+        return toPrincipal(claims);
+    }
+
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        String jti = claims.getId();
+        return new JwtPrincipal(
+                UUID.fromString(claims.getSubject()),
+                UserType.valueOf(claims.get("userType", String.class)),
+                claims.get("email", String.class),
+                claims.getExpiration().toInstant(),
+                jti != null ? UUID.fromString(jti) : null);
+    }
+
     public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return UUID.fromString(claims.getSubject());
+        return parse(token).userId();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("email", String.class);
+        return parse(token).email();
     }
 
     public UserType getUserTypeFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        String userTypeStr = claims.get("userType", String.class);
-        return UserType.valueOf(userTypeStr);
+        return parse(token).userType();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+            parse(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -85,13 +181,14 @@ public class JwtUtil {
     }
 
     public OffsetDateTime getExpirationFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        
-        return OffsetDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneOffset.UTC);
+        return OffsetDateTime.ofInstant(parse(token).expiresAt(), ZoneOffset.UTC);
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
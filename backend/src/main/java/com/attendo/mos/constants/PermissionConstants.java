@@ -1,5 +1,9 @@
 package com.attendo.mos.constants;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public class PermissionConstants {
     
     // Reminder permissions
@@ -9,10 +13,48 @@ public class PermissionConstants {
     // Meal requirements permission
     public static final String MEAL_REQUIREMENTS = "MEAL_REQUIREMENTS";
     
-    // Future permissions (not implemented yet)
+    // Meal suggestions permission
     public static final String MEAL_SUGGESTIONS = "MEAL_SUGGESTIONS";
+    
+    // Statistics permission
     public static final String STATISTICS = "STATISTICS";
     
+    // Bit positions used by the in-memory authorization cache; append only
+    private static final List<String> ALL = List.of(
+        CREATE_REMINDERS, VIEW_REMINDERS, MEAL_REQUIREMENTS, MEAL_SUGGESTIONS, STATISTICS);
+    
+    /**
+     * Bit for the given permission, or 0 for an unknown name.
+     */
+    public static long bit(String permissionName) {
+        int index = ALL.indexOf(permissionName);
+        return index < 0 ? 0L : 1L << index;
+    }
+    
+    /**
+     * Bitmask of the given permission names; unknown names are ignored.
+     */
+    public static long mask(Collection<String> permissionNames) {
+        long mask = 0L;
+        for (String name : permissionNames) {
+            mask |= bit(name);
+        }
+        return mask;
+    }
+    
+    /**
+     * Permission names whose bits are set in {@code mask}, in bit order.
+     */
+    public static List<String> names(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (int i = 0; i < ALL.size(); i++) {
+            if ((mask & (1L << i)) != 0) {
+                names.add(ALL.get(i));
+            }
+        }
+        return names;
+    }
+    
     private PermissionConstants() {
         // Utility class
     }
@@ -2,17 +2,21 @@ package com.attendo.mos.controller;
 
 import com.attendo.mos.dto.LoginRequest;
 import com.attendo.mos.dto.LoginResponse;
+import com.attendo.mos.dto.RefreshTokenRequest;
 import com.attendo.mos.dto.UserInfoResponse;
 import com.attendo.mos.service.AuthenticationService;
 import com.attendo.mos.service.UserService;
-import com.attendo.mos.config.JwtUtil;
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.errors.LoginThrottledException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
@@ -25,14 +29,11 @@ public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
     private final UserService userService;
-    private final JwtUtil jwtUtil;
 
     public AuthenticationController(AuthenticationService authenticationService, 
-                                  UserService userService, 
-                                  JwtUtil jwtUtil) {
+                                  UserService userService) {
         this.authenticationService = authenticationService;
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
     }
 
     @PostMapping("/login")
@@ -40,6 +41,7 @@ public class AuthenticationController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Login successful"),
         @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+        @ApiResponse(responseCode = "429", description = "Too many concurrent logins, retry shortly"),
         @ApiResponse(responseCode = "400", description = "Invalid request")
     })
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
@@ -49,6 +51,10 @@ public class AuthenticationController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body("Invalid email or password");
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Login failed: " + e.getMessage());
@@ -61,24 +67,15 @@ public class AuthenticationController {
         @ApiResponse(responseCode = "200", description = "User info retrieved successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            // The filter has already verified the token; no principal means it was missing or invalid
+            if (principal == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Missing or invalid authorization header");
             }
 
-            // Extract token from Authorization header
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            
-            // Validate token
-            if (!jwtUtil.validateToken(token)) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Invalid or expired token");
-            }
-
-            // Extract user ID from token
-            UUID userId = jwtUtil.getUserIdFromToken(token);
+            UUID userId = principal.userId();
             
             // Get user info from service
             UserInfoResponse userInfo = userService.getUserById(userId);
@@ -91,14 +88,29 @@ public class AuthenticationController {
         }
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchange a refresh token for a new access token and refresh token. Each refresh token can be used once.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens refreshed"),
+        @ApiResponse(responseCode = "401", description = "Invalid, expired or revoked refresh token")
+    })
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(authenticationService.refresh(request.refreshToken()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(e.getMessage());
+        }
+    }
+
     @PostMapping("/logout")
-    @Operation(summary = "User logout", description = "Logout user (client-side token removal)")
+    @Operation(summary = "User logout", description = "Revoke the current access token and, if supplied, the refresh token")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Logout successful")
     })
-    public ResponseEntity<String> logout() {
-        // For JWT, logout is handled client-side by removing the token
-        // Server-side logout would require token blacklisting (not implemented here)
+    public ResponseEntity<String> logout(@AuthenticationPrincipal JwtPrincipal principal,
+                                         @RequestBody(required = false) RefreshTokenRequest request) {
+        authenticationService.logout(principal, request != null ? request.refreshToken() : null);
         return ResponseEntity.ok("Logout successful");
     }
 }
@@ -0,0 +1,55 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.dto.CaretakerReminders;
+import com.attendo.mos.service.CaregiverDashboardService;
+import com.attendo.mos.service.ReminderOccurrenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/caregivers")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Caregivers", description = "Caregiver overview endpoints")
+public class CaregiverController {
+
+    private final CaregiverDashboardService dashboardService;
+    private final ReminderOccurrenceService occurrenceService;
+
+    public CaregiverController(CaregiverDashboardService dashboardService,
+                               ReminderOccurrenceService occurrenceService) {
+        this.dashboardService = dashboardService;
+        this.occurrenceService = occurrenceService;
+    }
+
+    @Operation(summary = "Get assigned residents' reminders", description = "Reminder occurrences within [from, to) for every caretaker assigned to the current caregiver, grouped by caretaker. Defaults to the coming 7 days; the range may not exceed 62 days.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reminders retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/me/reminders")
+    public ResponseEntity<List<CaretakerReminders>> getMyCaretakersReminders(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        // Scope is the caller's own assignments, so no per-caretaker permission check is needed
+        UUID caregiverId = principal.userId();
+        OffsetDateTime start = from != null ? from : OffsetDateTime.now(occurrenceService.getZone());
+        OffsetDateTime end = to != null ? to : start.plusDays(7);
+        return ResponseEntity.ok(dashboardService.getReminders(caregiverId, start, end));
+    }
+}
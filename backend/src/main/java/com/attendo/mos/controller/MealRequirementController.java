@@ -4,14 +4,15 @@ import com.attendo.mos.constants.PermissionConstants;
 import com.attendo.mos.dto.MealRequirementsRequest;
 import com.attendo.mos.dto.MealRequirementsResponse;
 import com.attendo.mos.service.MealRequirementService;
-import com.attendo.mos.service.UserPermissionService;
-import com.attendo.mos.config.JwtUtil;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.config.JwtPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,29 +27,26 @@ import java.util.UUID;
 public class MealRequirementController {
     
     private final MealRequirementService mealRequirementService;
-    private final UserPermissionService userPermissionService;
-    private final JwtUtil jwtUtil;
+    private final AuthorizationService authorizationService;
     
     public MealRequirementController(MealRequirementService mealRequirementService,
-                                   UserPermissionService userPermissionService,
-                                   JwtUtil jwtUtil) {
+                                   AuthorizationService authorizationService) {
         this.mealRequirementService = mealRequirementService;
-        this.userPermissionService = userPermissionService;
-        this.jwtUtil = jwtUtil;
+        this.authorizationService = authorizationService;
     }
     
-    @Operation(summary = "Set meal requirements", description = "Set meal requirements for a user. Replaces all existing requirements.")
+    @Operation(summary = "Set meal requirements", description = "Set meal requirements for a user. Replaces all existing requirements; only the difference is written and reported in `changes`.")
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Meal requirements set successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PostMapping
     public ResponseEntity<?> setMealRequirements(
-            @RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable UUID userId,
             @RequestBody MealRequirementsRequest request) {
         
-        UUID currentUserId = getCurrentUserId(authHeader);
+        UUID currentUserId = principal.userId();
         if (!hasPermission(currentUserId, PermissionConstants.MEAL_REQUIREMENTS)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                 "error", "Forbidden",
@@ -66,9 +64,9 @@ public class MealRequirementController {
         @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
     })
     @GetMapping
-    public ResponseEntity<?> getMealRequirements(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> getMealRequirements(@AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable UUID userId) {
-        UUID currentUserId = getCurrentUserId(authHeader);
+        UUID currentUserId = principal.userId();
         if (!hasPermission(currentUserId, PermissionConstants.MEAL_REQUIREMENTS)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                 "error", "Forbidden",
@@ -80,12 +78,7 @@ public class MealRequirementController {
         return ResponseEntity.ok(response);
     }
     
-    private UUID getCurrentUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer "
-        return jwtUtil.getUserIdFromToken(token);
-    }
-    
     private boolean hasPermission(UUID userId, String permission) {
-        return userPermissionService.hasPermission(userId, permission);
+        return authorizationService.hasPermission(userId, permission);
     }
 }
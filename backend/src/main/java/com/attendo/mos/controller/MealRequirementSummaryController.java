@@ -0,0 +1,82 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.MealRequirementSummary;
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.ResidentDiet;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.MealRequirementRollup;
+import com.attendo.mos.service.ResidentDietService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/meal-requirements")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Meal Requirements", description = "Meal requirement management endpoints")
+public class MealRequirementSummaryController {
+    
+    private final MealRequirementRollup mealRequirementRollup;
+    private final ResidentDietService residentDietService;
+    private final AuthorizationService authorizationService;
+    
+    public MealRequirementSummaryController(MealRequirementRollup mealRequirementRollup,
+                                            ResidentDietService residentDietService,
+                                            AuthorizationService authorizationService) {
+        this.mealRequirementRollup = mealRequirementRollup;
+        this.residentDietService = residentDietService;
+        this.authorizationService = authorizationService;
+    }
+    
+    @Operation(summary = "Kitchen summary", description = "Number of active residents per meal requirement, with the residents, across the whole facility")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Summary retrieved successfully", content = @Content(schema = @Schema(implementation = MealRequirementSummary.class))),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (!authorizationService.hasPermission(principal.userId(), PermissionConstants.MEAL_REQUIREMENTS)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view meal requirements"
+            ));
+        }
+        
+        return ResponseEntity.ok(mealRequirementRollup.summary());
+    }
+    
+    @Operation(summary = "Residents by diet", description = "Active residents with at least one of `any`, all of `all` and none of `none` (comma-separated diet codes), with their codes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Residents retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown or unfilterable diet code"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/residents")
+    public ResponseEntity<?> findResidents(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) Set<MealRequirementType> any,
+            @RequestParam(required = false) Set<MealRequirementType> all,
+            @RequestParam(required = false) Set<MealRequirementType> none) {
+        if (!authorizationService.hasPermission(principal.userId(), PermissionConstants.MEAL_REQUIREMENTS)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view meal requirements"
+            ));
+        }
+        
+        List<ResidentDiet> residents = residentDietService.find(any, all, none);
+        return ResponseEntity.ok(residents);
+    }
+}
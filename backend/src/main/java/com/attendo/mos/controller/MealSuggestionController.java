@@ -0,0 +1,63 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.MealSuggestions;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.MealSuggestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/users/{userId}/meal-suggestions")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Meal Suggestions", description = "Recipe suggestions that respect a user's meal requirements")
+public class MealSuggestionController {
+    
+    private final MealSuggestionService mealSuggestionService;
+    private final AuthorizationService authorizationService;
+    
+    public MealSuggestionController(MealSuggestionService mealSuggestionService,
+                                    AuthorizationService authorizationService) {
+        this.mealSuggestionService = mealSuggestionService;
+        this.authorizationService = authorizationService;
+    }
+    
+    @Operation(summary = "Suggest meals", description = "Recipes from the catalog that none of the user's meal requirements rule out, quickest first. Available for oneself, an assigned caretaker, or anyone for admins. `query` narrows them to recipes whose title or ingredients match every word.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully", content = @Content(schema = @Schema(implementation = MealSuggestions.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping
+    public ResponseEntity<?> getSuggestions(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) Integer limit) {
+        if (!authorizationService.hasPermission(principal.userId(), PermissionConstants.MEAL_SUGGESTIONS)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view meal suggestions"
+            ));
+        }
+        if (!authorizationService.canViewUser(principal.userId(), userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view meal suggestions for this user"
+            ));
+        }
+        
+        return ResponseEntity.ok(mealSuggestionService.suggest(userId, query, limit));
+    }
+}
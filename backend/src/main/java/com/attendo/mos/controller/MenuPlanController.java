@@ -0,0 +1,56 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.WeeklyMenu;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.MenuPlannerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/menu-plans")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Meal Suggestions", description = "Recipe suggestions that respect a user's meal requirements")
+public class MenuPlanController {
+    
+    private final MenuPlannerService menuPlannerService;
+    private final AuthorizationService authorizationService;
+    
+    public MenuPlanController(MenuPlannerService menuPlannerService, AuthorizationService authorizationService) {
+        this.menuPlannerService = menuPlannerService;
+        this.authorizationService = authorizationService;
+    }
+    
+    @Operation(summary = "Weekly menu", description = "A week of meals for all active residents, each meal offering at most `maxDishes` dishes (default 3) so that every resident can eat at least one. `weekStart` defaults to next Monday.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Menu planned successfully", content = @Content(schema = @Schema(implementation = WeeklyMenu.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid maxDishes"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/weekly")
+    public ResponseEntity<?> getWeeklyMenu(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart,
+            @RequestParam(required = false) Integer maxDishes) {
+        if (!authorizationService.hasPermission(principal.userId(), PermissionConstants.MEAL_SUGGESTIONS)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view meal suggestions"
+            ));
+        }
+        
+        return ResponseEntity.ok(menuPlannerService.plan(weekStart, maxDishes));
+    }
+}
@@ -8,12 +8,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,40 +24,39 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.BulkReminderResponse;
 import com.attendo.mos.dto.CreateReminderRequest;
 import com.attendo.mos.dto.ReminderDto;
-import com.attendo.mos.dto.ReminderResponse;
+import com.attendo.mos.dto.ReminderOccurrence;
+import com.attendo.mos.dto.ReminderPage;
 import com.attendo.mos.dto.UpdateReminderRequest;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.ReminderOccurrenceService;
 import com.attendo.mos.service.ReminderService;
-import com.attendo.mos.service.UserPermissionService;
-import com.attendo.mos.service.UserManagementService;
-import com.attendo.mos.entity.User;
-import com.attendo.mos.dto.UserType;
-import com.attendo.mos.config.JwtUtil;
+import com.attendo.mos.config.JwtPrincipal;
 
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/users/{userId}/reminders")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = ReminderController.NEXT_CURSOR_HEADER)
 @Tag(name = "Reminders", description = "Reminder management endpoints")
 public class ReminderController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ReminderService service;
-    private final UserPermissionService userPermissionService;
-    private final UserManagementService userManagementService;
-    private final JwtUtil jwtUtil;
+    private final ReminderOccurrenceService occurrenceService;
+    private final AuthorizationService authorizationService;
     
-    public ReminderController(ReminderService service, UserPermissionService userPermissionService, 
-                            UserManagementService userManagementService, JwtUtil jwtUtil) {
+    public ReminderController(ReminderService service, ReminderOccurrenceService occurrenceService,
+                            AuthorizationService authorizationService) {
         this.service = service;
-        this.userPermissionService = userPermissionService;
-        this.userManagementService = userManagementService;
-        this.jwtUtil = jwtUtil;
+        this.occurrenceService = occurrenceService;
+        this.authorizationService = authorizationService;
     }
     // Swagger annotations
     @Operation(summary = "Create a reminder", description = "Create a new reminder with time, category, and optional note.")
@@ -71,11 +73,11 @@ public class ReminderController {
     })
 
     @PostMapping
-    public ResponseEntity<?> create(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> create(@AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable UUID userId,
             @RequestBody @Valid CreateReminderRequest req) {
         try {
-            UUID currentUserId = getCurrentUserId(authHeader);
+            UUID currentUserId = principal.userId();
             if (!canManageRemindersForUser(currentUserId, userId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                     "error", "Forbidden",
@@ -97,15 +99,57 @@ public class ReminderController {
             ));
         }
     }
-    @Operation(summary = "Get reminders", description = "Get all reminders for a user")
+    @Operation(summary = "Create reminders in bulk", description = "Create up to " + ReminderService.MAX_BULK_SIZE
+            + " reminders for a user in one request, e.g. when setting up a care plan. Each item is validated "
+            + "independently; valid items are created and invalid ones are reported in the per-item results.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import processed; see per-item results", content = @Content(schema = @Schema(implementation = BulkReminderResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request, or unknown user"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createBulk(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestBody List<CreateReminderRequest> reqs) {
+        try {
+            UUID currentUserId = principal.userId();
+            if (!canManageRemindersForUser(currentUserId, userId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "error", "Forbidden",
+                    "message", "You don't have permission to create reminders for this user"
+                ));
+            }
+
+            BulkReminderResponse result = service.addReminders(userId, reqs);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Bad Request",
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "error", "Internal Server Error",
+                "message", "Failed to create reminders"
+            ));
+        }
+    }
+
+    @Operation(summary = "Get reminders", description = "Get a page of reminders for a user, ordered by time. "
+            + "When more remain, the cursor for the next page is returned in the " + NEXT_CURSOR_HEADER
+            + " header; pass it back as 'after'. Page size defaults to " + ReminderService.DEFAULT_PAGE_SIZE
+            + " and may not exceed " + ReminderService.MAX_PAGE_SIZE + ".")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Reminders retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
         @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
     })
     @GetMapping
-    public ResponseEntity<?> get(@RequestHeader("Authorization") String authHeader,
-            @PathVariable UUID userId) {
-        UUID currentUserId = getCurrentUserId(authHeader);
+    public ResponseEntity<?> get(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        UUID currentUserId = principal.userId();
         if (!canManageRemindersForUser(currentUserId, userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                 "error", "Forbidden",
@@ -113,8 +157,37 @@ public class ReminderController {
             ));
         }
         
-        List<ReminderResponse> reminders = service.getReminders(userId);
-        return ResponseEntity.ok(reminders);
+        ReminderPage page = service.getReminders(userId, after, limit);
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @Operation(summary = "Get reminder occurrences", description = "Expand once and recurring reminders into concrete fire times within [from, to). Defaults to the coming 7 days; the range may not exceed 62 days.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Occurrences retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid range"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/occurrences")
+    public ResponseEntity<?> occurrences(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        UUID currentUserId = principal.userId();
+        if (!canManageRemindersForUser(currentUserId, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view reminders for this user"
+            ));
+        }
+
+        OffsetDateTime start = from != null ? from : OffsetDateTime.now(occurrenceService.getZone());
+        OffsetDateTime end = to != null ? to : start.plusDays(7);
+        List<ReminderOccurrence> occurrences = occurrenceService.getOccurrences(userId, start, end);
+        return ResponseEntity.ok(occurrences);
     }
 
     @Operation(summary = "Delete a reminder", description = "Delete an existing reminder")
@@ -124,9 +197,9 @@ public class ReminderController {
         @ApiResponse(responseCode = "404", description = "Reminder not found")
     })
     @DeleteMapping("/{reminderId}")
-    public ResponseEntity<?> delete(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> delete(@AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable UUID userId, @PathVariable UUID reminderId) {
-        UUID currentUserId = getCurrentUserId(authHeader);
+        UUID currentUserId = principal.userId();
         if (!canManageRemindersForUser(currentUserId, userId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                 "error", "Forbidden",
@@ -152,11 +225,11 @@ public class ReminderController {
             @ApiResponse(responseCode = "404", description = "Reminder not found")
     })
     @PutMapping("/{reminderId}")
-    public ResponseEntity<?> update(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> update(@AuthenticationPrincipal JwtPrincipal principal,
             @PathVariable UUID userId, @PathVariable UUID reminderId,
             @RequestBody @Valid UpdateReminderRequest req) {
         try {
-            UUID currentUserId = getCurrentUserId(authHeader);
+            UUID currentUserId = principal.userId();
             if (!canManageRemindersForUser(currentUserId, userId)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
                     "error", "Forbidden",
@@ -178,50 +251,13 @@ public class ReminderController {
             ));
         }
     }
-    
-    private UUID getCurrentUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer "
-        return jwtUtil.getUserIdFromToken(token);
-    }
-    
-    private boolean hasPermission(UUID userId, String permission) {
-        return userPermissionService.hasPermission(userId, permission);
-    }
-    
+
     /**
      * Check if the current user can manage reminders for the target user.
-     * Authorization rules:
-     * - Admins can manage anyone's reminders
-     * - Users can manage their own reminders (if they have permission)
-     * - Caregivers can manage their assigned caretakers' reminders (override)
+     * See {@link AuthorizationService#canManageReminders} for the rules.
      */
     private boolean canManageRemindersForUser(UUID currentUserId, UUID targetUserId) {
-        try {
-            // Get current user info
-            User currentUser = userManagementService.findUserById(currentUserId);
-            
-            // Admins can manage anyone's reminders
-            if (currentUser.getUserType() == UserType.ADMIN) {
-                return true;
-            }
-            
-            // Users can manage their own reminders (if they have permission)
-            if (currentUserId.equals(targetUserId)) {
-                return hasPermission(currentUserId, PermissionConstants.CREATE_REMINDERS);
-            }
-            
-            // Caregivers can manage their assigned caretakers' reminders (override)
-            if (currentUser.getUserType() == UserType.CAREGIVER) {
-                List<User> assignedCaretakers = userManagementService.getCaretakersByCaregiver(currentUserId);
-                return assignedCaretakers.stream()
-                    .anyMatch(caretaker -> caretaker.getId().equals(targetUserId));
-            }
-            
-            return false;
-        } catch (Exception e) {
-            // If we can't determine authorization, deny access
-            return false;
-        }
+        return authorizationService.canManageReminders(currentUserId, targetUserId);
     }
 
 }
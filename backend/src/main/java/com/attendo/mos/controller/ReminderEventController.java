@@ -0,0 +1,126 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.dto.ReminderAdherence;
+import com.attendo.mos.dto.ReminderEventRequest;
+import com.attendo.mos.dto.ReminderEventsResponse;
+import com.attendo.mos.errors.ReminderEventsThrottledException;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.ReminderEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/users/{userId}/reminders")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Reminder events", description = "Acknowledging, snoozing and missing reminder occurrences, and adherence")
+public class ReminderEventController {
+
+    private final ReminderEventService service;
+    private final AuthorizationService authorizationService;
+    private final ZoneId zone;
+
+    public ReminderEventController(ReminderEventService service, AuthorizationService authorizationService,
+                                   @Value("${app.timezone:Europe/Stockholm}") String timezone) {
+        this.service = service;
+        this.authorizationService = authorizationService;
+        this.zone = ZoneId.of(timezone);
+    }
+
+    @Operation(summary = "Record a reminder event", description = "Acknowledge, snooze or miss one occurrence of a reminder. "
+            + "occurrenceAt is the fire time as listed by /occurrences; at defaults to now. An occurrence keeps the first "
+            + "ACKNOWLEDGED or MISSED recorded for it; later ones are counted as duplicates.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Event processed", content = @Content(schema = @Schema(implementation = ReminderEventsResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid event, or the reminder does not fire at occurrenceAt"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "429", description = "Too many events queued, retry shortly")
+    })
+    @PostMapping("/{reminderId}/events")
+    public ResponseEntity<?> record(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId, @PathVariable UUID reminderId,
+            @RequestBody ReminderEventRequest req) {
+        ReminderEventRequest event = new ReminderEventRequest(reminderId, req.occurrenceAt(), req.action(), req.at());
+        return respond(principal, userId, () -> {
+            ReminderEventsResponse result = service.record(userId, principal.userId(), List.of(event));
+            if (result.failed() > 0) {
+                throw new IllegalArgumentException(result.errors().get(0).message());
+            }
+            return result;
+        });
+    }
+
+    @Operation(summary = "Record reminder events in bulk", description = "Record up to " + ReminderEventService.MAX_BATCH_SIZE
+            + " events for a user's reminders in one request, e.g. when a device comes back online. Each event is validated "
+            + "independently; valid events are recorded and invalid ones are reported by index.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Events processed; see errors", content = @Content(schema = @Schema(implementation = ReminderEventsResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions"),
+        @ApiResponse(responseCode = "429", description = "Too many events queued, retry shortly")
+    })
+    @PostMapping("/events")
+    public ResponseEntity<?> recordBulk(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestBody List<ReminderEventRequest> reqs) {
+        return respond(principal, userId, () -> service.record(userId, principal.userId(), reqs));
+    }
+
+    @Operation(summary = "Get reminder adherence", description = "Acknowledged (and how many on time), snoozed and missed "
+            + "occurrences per category for one month, defaulting to the current one.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Adherence retrieved successfully", content = @Content(schema = @Schema(implementation = ReminderAdherence.class))),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/adherence")
+    public ResponseEntity<?> adherence(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return respond(principal, userId, () -> service.getAdherence(userId, month != null ? month : YearMonth.now(zone)));
+    }
+
+    // Residents may always record and read their own; otherwise the reminder management rules apply
+    private ResponseEntity<?> respond(JwtPrincipal principal, UUID userId, Supplier<?> action) {
+        UUID currentUserId = principal.userId();
+        if (!currentUserId.equals(userId) && !authorizationService.canManageReminders(currentUserId, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to record reminder events for this user"
+            ));
+        }
+
+        try {
+            return ResponseEntity.ok(action.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Bad Request",
+                "message", e.getMessage()
+            ));
+        } catch (ReminderEventsThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(
+                    "error", "Too Many Requests",
+                    "message", e.getMessage()
+                ));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.ReminderStatistics;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.ReminderStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/statistics/reminders")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Statistics", description = "Reminder statistics for dashboards")
+public class StatisticsController {
+    
+    private final ReminderStats reminderStats;
+    private final AuthorizationService authorizationService;
+    
+    public StatisticsController(ReminderStats reminderStats, AuthorizationService authorizationService) {
+        this.reminderStats = reminderStats;
+        this.authorizationService = authorizationService;
+    }
+    
+    @Operation(summary = "Facility reminder statistics", description = "Reminders of all active users by category, type and day, optionally limited to the days `from` to `to` (inclusive). Admins only.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully", content = @Content(schema = @Schema(implementation = ReminderStatistics.class))),
+        @ApiResponse(responseCode = "400", description = "from is after to"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping
+    public ResponseEntity<?> getFacilityStatistics(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID currentUserId = principal.userId();
+        return respond(currentUserId, () -> authorizationService.isAdmin(currentUserId),
+            () -> reminderStats.forFacility(from, to));
+    }
+    
+    @Operation(summary = "User reminder statistics", description = "One user's reminders by category, type and day. Available for oneself, an assigned caretaker, or anyone for admins.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully", content = @Content(schema = @Schema(implementation = ReminderStatistics.class))),
+        @ApiResponse(responseCode = "400", description = "from is after to"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<?> getUserStatistics(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID currentUserId = principal.userId();
+        return respond(currentUserId, () -> authorizationService.canViewUser(currentUserId, userId),
+            () -> reminderStats.forUser(userId, from, to));
+    }
+    
+    @Operation(summary = "Caregiver reminder statistics", description = "Reminders of all of a caregiver's caretakers by category, type and day. Available to that caregiver and admins.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully", content = @Content(schema = @Schema(implementation = ReminderStatistics.class))),
+        @ApiResponse(responseCode = "400", description = "from is after to"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+    })
+    @GetMapping("/caregivers/{caregiverId}")
+    public ResponseEntity<?> getCaregiverStatistics(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable UUID caregiverId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID currentUserId = principal.userId();
+        return respond(currentUserId,
+            () -> currentUserId.equals(caregiverId) || authorizationService.isAdmin(currentUserId),
+            () -> reminderStats.forCaregiver(caregiverId, from, to));
+    }
+    
+    // STATISTICS grants the feature; inScope decides whose statistics the caller may see
+    private ResponseEntity<?> respond(UUID currentUserId, BooleanSupplier inScope, Supplier<ReminderStatistics> statistics) {
+        if (!authorizationService.hasPermission(currentUserId, PermissionConstants.STATISTICS)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view statistics"
+            ));
+        }
+        if (!inScope.getAsBoolean()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "error", "Forbidden",
+                "message", "You don't have permission to view these statistics"
+            ));
+        }
+        
+        return ResponseEntity.ok(statistics.get());
+    }
+}
@@ -1,38 +1,51 @@
 package com.attendo.mos.controller;
 
 import com.attendo.mos.entity.User;
+import com.attendo.mos.dto.UserPage;
+import com.attendo.mos.dto.UserPurgeStatus;
 import com.attendo.mos.dto.UserType;
+import com.attendo.mos.service.UserDirectoryService;
 import com.attendo.mos.service.UserManagementService;
 import com.attendo.mos.service.UserPermissionService;
-import com.attendo.mos.config.JwtUtil;
+import com.attendo.mos.service.UserPurgeService;
+import com.attendo.mos.config.JwtPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/user-management")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = ReminderController.NEXT_CURSOR_HEADER)
 @Tag(name = "User Management", description = "User and caretaker management endpoints")
 public class UserManagementController {
     
     private final UserManagementService userManagementService;
     private final UserPermissionService userPermissionService;
-    private final JwtUtil jwtUtil;
+    private final UserDirectoryService userDirectoryService;
+    private final UserPurgeService userPurgeService;
     
     public UserManagementController(UserManagementService userManagementService,
                                   UserPermissionService userPermissionService,
-                                  JwtUtil jwtUtil) {
+                                  UserDirectoryService userDirectoryService,
+                                  UserPurgeService userPurgeService) {
         this.userManagementService = userManagementService;
         this.userPermissionService = userPermissionService;
-        this.jwtUtil = jwtUtil;
+        this.userDirectoryService = userDirectoryService;
+        this.userPurgeService = userPurgeService;
     }
     
     @Operation(summary = "Create a caretaker", description = "Create a new caretaker assigned to the current caregiver")
@@ -41,9 +54,9 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PostMapping("/caretakers")
-    public ResponseEntity<User> createCaretaker(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<User> createCaretaker(@AuthenticationPrincipal JwtPrincipal principal,
                                                   @RequestBody CreateCaretakerRequest request) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+        UUID caregiverId = principal.userId();
         User caretaker = userManagementService.createCaretaker(
             request.getName(), 
             request.getEmail(), 
@@ -59,8 +72,8 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/caretakers")
-    public ResponseEntity<List<User>> getCaretakers(@RequestHeader("Authorization") String authHeader) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+    public ResponseEntity<List<User>> getCaretakers(@AuthenticationPrincipal JwtPrincipal principal) {
+        UUID caregiverId = principal.userId();
         List<User> caretakers = userManagementService.getCaretakersByCaregiver(caregiverId);
         return ResponseEntity.ok(caretakers);
     }
@@ -72,13 +85,12 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/caretakers/{caretakerId}/permissions")
-    public ResponseEntity<List<String>> getCaretakerPermissions(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<List<String>> getCaretakerPermissions(@AuthenticationPrincipal JwtPrincipal principal,
                                                                @PathVariable UUID caretakerId) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+        UUID caregiverId = principal.userId();
         
         // Verify the caregiver manages this caretaker
-        if (!userManagementService.getCaretakersByCaregiver(caregiverId).stream()
-            .anyMatch(caretaker -> caretaker.getId().equals(caretakerId))) {
+        if (!userManagementService.isCaretakerOf(caregiverId, caretakerId)) {
             return ResponseEntity.status(403).build();
         }
         
@@ -93,14 +105,13 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PutMapping("/caretakers/{caretakerId}/permissions")
-    public ResponseEntity<Void> setCaretakerPermissions(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<Void> setCaretakerPermissions(@AuthenticationPrincipal JwtPrincipal principal,
                                                        @PathVariable UUID caretakerId,
                                                        @RequestBody SetPermissionsRequest request) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+        UUID caregiverId = principal.userId();
         
         // Verify the caregiver manages this caretaker
-        if (!userManagementService.getCaretakersByCaregiver(caregiverId).stream()
-            .anyMatch(caretaker -> caretaker.getId().equals(caretakerId))) {
+        if (!userManagementService.isCaretakerOf(caregiverId, caretakerId)) {
             return ResponseEntity.status(403).build();
         }
         
@@ -108,25 +119,25 @@ public class UserManagementController {
         return ResponseEntity.ok().build();
     }
     
-    @Operation(summary = "Delete a caretaker", description = "Delete a caretaker assigned to the current caregiver")
+    @Operation(summary = "Delete a caretaker", description = "Delete a caretaker assigned to the current caregiver. "
+            + "The caretaker is deactivated and unassigned at once; their reminders and meal requirements are removed in the background.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Caretaker deleted successfully"),
+        @ApiResponse(responseCode = "202", description = "Caretaker deleted; data purge started"),
         @ApiResponse(responseCode = "403", description = "Forbidden - caretaker not managed by current user"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @DeleteMapping("/caretakers/{caretakerId}")
-    public ResponseEntity<Void> deleteCaretaker(@RequestHeader("Authorization") String authHeader,
-                                               @PathVariable UUID caretakerId) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+    public ResponseEntity<UserPurgeStatus> deleteCaretaker(@AuthenticationPrincipal JwtPrincipal principal,
+                                                          @PathVariable UUID caretakerId) {
+        UUID caregiverId = principal.userId();
         
         // Verify the caregiver manages this caretaker
-        if (!userManagementService.getCaretakersByCaregiver(caregiverId).stream()
-            .anyMatch(caretaker -> caretaker.getId().equals(caretakerId))) {
+        if (!userManagementService.isCaretakerOf(caregiverId, caretakerId)) {
             return ResponseEntity.status(403).build();
         }
         
-        userManagementService.deleteCaretaker(caretakerId);
-        return ResponseEntity.ok().build();
+        UserPurgeStatus purge = userManagementService.deleteCaretaker(caretakerId, caregiverId);
+        return ResponseEntity.accepted().body(purge);
     }
     
     @Operation(summary = "Get current user permissions", description = "Get all permissions for the currently authenticated user")
@@ -135,21 +146,59 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/permissions")
-    public ResponseEntity<List<String>> getCurrentUserPermissions(@RequestHeader("Authorization") String authHeader) {
-        UUID userId = getCurrentUserId(authHeader);
+    public ResponseEntity<List<String>> getCurrentUserPermissions(@AuthenticationPrincipal JwtPrincipal principal) {
+        UUID userId = principal.userId();
         List<String> permissions = userPermissionService.getUserPermissions(userId);
         return ResponseEntity.ok(permissions);
     }
     
-    @Operation(summary = "Get all users (Admin only)", description = "Get a list of all users in the system. Requires admin role.")
+    @Operation(summary = "Get users (Admin only)", description = "Get a page of users, optionally filtered by userType and isActive. "
+            + "sort is displayName, email or createdAt, optionally followed by ',asc' or ',desc' (default displayName,asc). "
+            + "When more remain, the cursor for the next page is returned in the " + ReminderController.NEXT_CURSOR_HEADER
+            + " header; pass it back as 'after' with the same filters and sort. Page size defaults to "
+            + UserDirectoryService.DEFAULT_PAGE_SIZE + " and may not exceed " + UserDirectoryService.MAX_PAGE_SIZE + ". Requires admin role.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or limit"),
         @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping("/admin/users")
-    public ResponseEntity<List<com.attendo.mos.dto.UserInfoResponse>> getAllUsers(@RequestHeader("Authorization") String authHeader) {
-        UUID adminId = getCurrentUserId(authHeader);
+    public ResponseEntity<List<com.attendo.mos.dto.UserInfoResponse>> getAllUsers(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) UserType userType,
+            @RequestParam(name = "isActive", required = false) Boolean active,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        UUID adminId = principal.userId();
+        
+        // Verify the user is an admin
+        com.attendo.mos.entity.User admin = userManagementService.findUserById(adminId);
+        if (admin.getUserType() != com.attendo.mos.dto.UserType.ADMIN) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        UserPage page = userDirectoryService.getUsers(userType, active, sort, after, limit);
+        var response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(ReminderController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+    
+    @Operation(summary = "Export users (Admin only)", description = "Stream all users matching the filters as NDJSON (one JSON object per line) or CSV, ordered by display name. Requires admin role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown format"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/admin/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) UserType userType,
+            @RequestParam(name = "isActive", required = false) Boolean active) {
+        UUID adminId = principal.userId();
         
         // Verify the user is an admin
         com.attendo.mos.entity.User admin = userManagementService.findUserById(adminId);
@@ -157,8 +206,55 @@ public class UserManagementController {
             return ResponseEntity.status(403).build();
         }
         
-        List<com.attendo.mos.dto.UserInfoResponse> users = userManagementService.getAllUsers();
-        return ResponseEntity.ok(users);
+        UserDirectoryService.ExportFormat exportFormat = UserDirectoryService.ExportFormat.fromParam(format);
+        boolean csv = exportFormat == UserDirectoryService.ExportFormat.CSV;
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"")
+            .body(out -> userDirectoryService.export(exportFormat, userType, active, out));
+    }
+    
+    @Operation(summary = "Get role permissions (Admin only)", description = "Get the permissions every user of the given type has unless overridden per user. Requires admin role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Permissions retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/admin/roles/{userType}/permissions")
+    public ResponseEntity<List<String>> getRolePermissions(@AuthenticationPrincipal JwtPrincipal principal,
+                                                          @PathVariable UserType userType) {
+        UUID adminId = principal.userId();
+        
+        // Verify the user is an admin
+        com.attendo.mos.entity.User admin = userManagementService.findUserById(adminId);
+        if (admin.getUserType() != com.attendo.mos.dto.UserType.ADMIN) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        return ResponseEntity.ok(userPermissionService.getRolePermissions(userType));
+    }
+    
+    @Operation(summary = "Set role permissions (Admin only)", description = "Replace the permissions every user of the given type has unless overridden per user. Takes effect for all such users at once. Requires admin role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Permissions updated successfully"),
+        @ApiResponse(responseCode = "400", description = "Unknown permission"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @PutMapping("/admin/roles/{userType}/permissions")
+    public ResponseEntity<Void> setRolePermissions(@AuthenticationPrincipal JwtPrincipal principal,
+                                                   @PathVariable UserType userType,
+                                                   @RequestBody SetPermissionsRequest request) {
+        UUID adminId = principal.userId();
+        
+        // Verify the user is an admin
+        com.attendo.mos.entity.User admin = userManagementService.findUserById(adminId);
+        if (admin.getUserType() != com.attendo.mos.dto.UserType.ADMIN) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        userPermissionService.setRolePermissions(userType, request.getPermissions());
+        return ResponseEntity.ok().build();
     }
     
     @Operation(summary = "Create a user (Admin only)", description = "Create a new user of any type. Requires admin role.")
@@ -168,9 +264,9 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PostMapping("/admin/users")
-    public ResponseEntity<User> createUser(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<User> createUser(@AuthenticationPrincipal JwtPrincipal principal,
                                          @RequestBody CreateUserRequest request) {
-        UUID adminId = getCurrentUserId(authHeader);
+        UUID adminId = principal.userId();
         
         try {
             User newUser = userManagementService.createUser(
@@ -186,22 +282,26 @@ public class UserManagementController {
         }
     }
     
-    @Operation(summary = "Delete a user (Admin only)", description = "Delete a user from the system. Requires admin role. Cannot delete users with dependencies.")
+    @Operation(summary = "Delete a user (Admin only)", description = "Delete a user from the system. The user is deactivated and unassigned at once; "
+            + "their reminders and meal requirements are removed in the background, with progress at the returned Location. "
+            + "Requires admin role. Cannot delete users with dependencies.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "User deleted successfully"),
+        @ApiResponse(responseCode = "202", description = "User deleted; data purge started"),
         @ApiResponse(responseCode = "400", description = "Bad Request - user has dependencies"),
         @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @DeleteMapping("/admin/users/{userId}")
-    public ResponseEntity<Map<String, String>> deleteUser(@RequestHeader("Authorization") String authHeader,
-                                                         @PathVariable UUID userId) {
-        UUID adminId = getCurrentUserId(authHeader);
+    public ResponseEntity<?> deleteUser(@AuthenticationPrincipal JwtPrincipal principal,
+                                        @PathVariable UUID userId) {
+        UUID adminId = principal.userId();
         
         try {
-            userManagementService.deleteUser(userId, adminId);
-            return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+            UserPurgeStatus purge = userManagementService.deleteUser(userId, adminId);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/user-management/admin/users/" + userId + "/purge"))
+                .body(purge);
         } catch (RuntimeException e) {
             if (e.getMessage().contains("Only admins can delete users")) {
                 return ResponseEntity.status(403).body(Map.of("error", "Only admins can delete users"));
@@ -215,6 +315,27 @@ public class UserManagementController {
         }
     }
     
+    @Operation(summary = "Get user deletion progress (Admin only)", description = "Progress of the background purge started by deleting the user. Requires admin role.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Purge status retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - admin role required"),
+        @ApiResponse(responseCode = "404", description = "User has not been deleted"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/admin/users/{userId}/purge")
+    public ResponseEntity<UserPurgeStatus> getPurgeStatus(@AuthenticationPrincipal JwtPrincipal principal,
+                                                          @PathVariable UUID userId) {
+        UUID adminId = principal.userId();
+        
+        // Verify the user is an admin
+        com.attendo.mos.entity.User admin = userManagementService.findUserById(adminId);
+        if (admin.getUserType() != com.attendo.mos.dto.UserType.ADMIN) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        return ResponseEntity.of(userPurgeService.getStatus(userId));
+    }
+    
     @Operation(summary = "Update a user (Admin only)", description = "Update user information. Requires admin role.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
@@ -223,10 +344,10 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PutMapping("/admin/users/{userId}")
-    public ResponseEntity<User> updateUser(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<User> updateUser(@AuthenticationPrincipal JwtPrincipal principal,
                                          @PathVariable UUID userId,
                                          @RequestBody UpdateUserRequest request) {
-        UUID adminId = getCurrentUserId(authHeader);
+        UUID adminId = principal.userId();
         
         try {
             User updatedUser = userManagementService.updateUser(
@@ -256,10 +377,10 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PutMapping("/caretakers/{caretakerId}")
-    public ResponseEntity<User> updateCaretaker(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<User> updateCaretaker(@AuthenticationPrincipal JwtPrincipal principal,
                                               @PathVariable UUID caretakerId,
                                               @RequestBody UpdateCaretakerRequest request) {
-        UUID caregiverId = getCurrentUserId(authHeader);
+        UUID caregiverId = principal.userId();
         
         try {
             User updatedCaretaker = userManagementService.updateCaretaker(
@@ -288,9 +409,9 @@ public class UserManagementController {
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PutMapping("/profile")
-    public ResponseEntity<User> updateProfile(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<User> updateProfile(@AuthenticationPrincipal JwtPrincipal principal,
                                             @RequestBody UpdateProfileRequest request) {
-        UUID userId = getCurrentUserId(authHeader);
+        UUID userId = principal.userId();
         
         try {
             User updatedUser = userManagementService.updateProfile(
@@ -309,11 +430,6 @@ public class UserManagementController {
         }
     }
     
-    private UUID getCurrentUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer "
-        return jwtUtil.getUserIdFromToken(token);
-    }
-    
     // DTOs
     public static class CreateCaretakerRequest {
         private String name;
@@ -0,0 +1,20 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk reminder import. {@code results} has one entry per submitted
+ * reminder, in request order.
+ */
+public record BulkReminderResponse(
+        int created,
+        int failed,
+        List<Item> results) {
+
+    public record Item(
+            int index,
+            UUID id, // set when created
+            String error) { // set when rejected
+    }
+}
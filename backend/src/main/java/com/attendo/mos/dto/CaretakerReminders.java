@@ -0,0 +1,13 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One caretaker's reminder occurrences on the caregiver dashboard.
+ */
+public record CaretakerReminders(
+        UUID userId,
+        String displayName,
+        List<ReminderOccurrence> occurrences) { // ordered by time
+}
@@ -10,11 +10,18 @@ public record LoginResponse(
     String email,
     String displayName,
     UserType userType,
-    OffsetDateTime expiresAt
+    OffsetDateTime expiresAt,
+    String refreshToken
 ) {
     public static LoginResponse of(String token, String tokenType, UUID userId, 
                                  String email, String displayName, UserType userType, 
                                  OffsetDateTime expiresAt) {
-        return new LoginResponse(token, tokenType, userId, email, displayName, userType, expiresAt);
+        return of(token, tokenType, userId, email, displayName, userType, expiresAt, null);
+    }
+
+    public static LoginResponse of(String token, String tokenType, UUID userId, 
+                                 String email, String displayName, UserType userType, 
+                                 OffsetDateTime expiresAt, String refreshToken) {
+        return new LoginResponse(token, tokenType, userId, email, displayName, userType, expiresAt, refreshToken);
     }
 }
@@ -0,0 +1,23 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Meal requirements across all active residents, most common first. Requirements that differ
+ * only in case or spacing are counted as one.
+ */
+public record MealRequirementSummary(
+        List<Entry> requirements) {
+
+    public record Entry(
+            String requirement,
+            int residentCount,
+            List<Resident> residents) { // by display name
+    }
+
+    public record Resident(
+            UUID id,
+            String displayName) {
+    }
+}
@@ -1,5 +1,96 @@
 package com.attendo.mos.dto;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical diet and allergen codes. Free-text requirements are classified with
+ * {@link #fromText}; anything unrecognized is {@link #OTHER}.
+ * <p>
+ * Each code except {@code OTHER} owns one bit of a resident's {@code app_user.diet_mask} (V22).
+ * Bits are stored, so they are fixed per code: add new codes with the next free bit, never
+ * renumber.
+ * </p>
+ */
 public enum MealRequirementType {
-    VEGETARIAN, VEGAN, GLUTEN_FREE, LACTOSE_FREE, NUT_ALLERGY, OTHER
+    VEGETARIAN(0, "vegetarisk", "vegetariskt", "vegetarian"),
+    VEGAN(1, "vegansk", "veganskt", "vegan"),
+    GLUTEN_FREE(2, "glutenfri", "glutenfritt", "gluten free", "celiaki", "glutenintolerans"),
+    LACTOSE_FREE(3, "laktosfri", "laktosfritt", "lactose free", "laktosintolerans"),
+    NUT_ALLERGY(4, "nötfri", "nötallergi", "nut free", "nut allergy"),
+    OTHER(-1, "annat", "other"),
+    PESCETARIAN(5, "pescetarian", "prescetarian", "pescetarisk"),
+    HALAL(6, "halal"),
+    KOSHER(7, "kosher"),
+    EGG_FREE(8, "äggfri", "äggallergi", "egg free"),
+    DIABETIC(9, "diabetesanpassad", "diabetes", "diabetic"),
+    LOW_FODMAP(10, "fodmap", "låg fodmap", "low fodmap");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_-]+");
+    private static final Map<String, MealRequirementType> BY_ALIAS = new HashMap<>();
+
+    static {
+        for (MealRequirementType type : values()) {
+            BY_ALIAS.put(normalize(type.name()), type);
+            for (String alias : type.aliases) {
+                BY_ALIAS.put(alias, type);
+            }
+        }
+    }
+
+    private final int bit;
+    private final String[] aliases;
+
+    MealRequirementType(int bit, String... aliases) {
+        this.bit = bit;
+        this.aliases = aliases;
+    }
+
+    /**
+     * This code's bit in a diet mask; 0 for {@code OTHER}.
+     */
+    public long bit() {
+        return bit < 0 ? 0L : 1L << bit;
+    }
+
+    /**
+     * Code for a free-text requirement, ignoring case, spacing, hyphens and underscores;
+     * {@code OTHER} if unknown.
+     */
+    public static MealRequirementType fromText(String text) {
+        if (text == null) {
+            return OTHER;
+        }
+        return BY_ALIAS.getOrDefault(normalize(text), OTHER);
+    }
+
+    public static long mask(Collection<MealRequirementType> types) {
+        long mask = 0L;
+        for (MealRequirementType type : types) {
+            mask |= type.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Codes whose bits are set in {@code mask}, in declaration order.
+     */
+    public static List<MealRequirementType> fromMask(long mask) {
+        List<MealRequirementType> types = new ArrayList<>(Long.bitCount(mask));
+        for (MealRequirementType type : values()) {
+            if ((mask & type.bit()) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private static String normalize(String text) {
+        return SEPARATORS.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -1,16 +1,33 @@
 package com.attendo.mos.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public record MealRequirementsResponse(
-        List<MealRequirementDto> requirements
+        List<MealRequirementDto> requirements,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Changes changes // set when the requirements were just replaced
 ) {
     
+    public MealRequirementsResponse(List<MealRequirementDto> requirements) {
+        this(requirements, null);
+    }
+    
     public record MealRequirementDto(
             UUID id,
             String requirement,
             OffsetDateTime createdAt
     ) {}
+    
+    /**
+     * What a replace actually wrote: rows inserted, rows deleted, and rows kept as they were.
+     */
+    public record Changes(
+            int added,
+            int removed,
+            int unchanged
+    ) {}
 }
@@ -0,0 +1,15 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+
+/**
+ * Recipes suitable for a user, best first. {@code diets} and {@code excludedIngredients} are
+ * what the user's meal requirements were read as; {@code totalResults} counts every suitable
+ * recipe, not just those returned.
+ */
+public record MealSuggestions(
+        List<MealRequirementType> diets,
+        List<String> excludedIngredients,
+        int totalResults,
+        List<Recipe> recipes) {
+}
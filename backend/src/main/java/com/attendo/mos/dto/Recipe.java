@@ -0,0 +1,34 @@
+package com.attendo.mos.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A recipe from the suggestion catalog ({@code classpath:recipes/catalog.json}). The shape
+ * matches what the meal suggestions page renders.
+ */
+public record Recipe(
+        long id,
+        String title,
+        int defaultServings,
+        String cookingTime,
+        List<Ingredient> ingredients,
+        List<String> instructions,
+        String tips,
+        Set<Contains> contains) {
+
+    public record Ingredient(
+            String item,
+            BigDecimal amount,
+            String unit) {
+    }
+
+    /**
+     * What a recipe contains, as far as diets and allergies are concerned. Each
+     * {@link MealRequirementType} rules out some of these.
+     */
+    public enum Contains {
+        MEAT, PORK, FISH, SHELLFISH, DAIRY, LACTOSE, GLUTEN, EGG, NUTS, ALCOHOL, SUGAR, FODMAP
+    }
+}
@@ -0,0 +1,15 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+
+/**
+ * Wire form of a recurring reminder's schedule, e.g. {"days": ["Ons", "Tor"], "times": ["11:11"]}.
+ */
+public record Recurrence(
+        List<String> days,
+        List<String> times) {
+
+    public static Recurrence of(RecurrenceRule rule) {
+        return rule == null ? null : new Recurrence(rule.dayLabels(), rule.timeLabels());
+    }
+}
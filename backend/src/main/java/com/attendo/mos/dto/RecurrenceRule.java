@@ -0,0 +1,269 @@
+package com.attendo.mos.dto;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Pre-parsed recurring reminder rule.
+ * <p>
+ * Weekdays are held as a bitmask (bit 0 = Monday ... bit 6 = Sunday) and fire
+ * times as a sorted array of minute-of-day values, so expanding a rule into
+ * concrete occurrences never touches the original string lists again.
+ * </p>
+ */
+public final class RecurrenceRule {
+
+    private static final Map<String, DayOfWeek> DAY_NAMES = new HashMap<>();
+
+    static {
+        // Swedish, as sent by the frontend ("Mån", "Tis", ...) and used in seed data ("Måndag", ...)
+        register(DayOfWeek.MONDAY, "mån", "måndag", "man", "mandag");
+        register(DayOfWeek.TUESDAY, "tis", "tisdag");
+        register(DayOfWeek.WEDNESDAY, "ons", "onsdag");
+        register(DayOfWeek.THURSDAY, "tor", "torsdag");
+        register(DayOfWeek.FRIDAY, "fre", "fredag");
+        register(DayOfWeek.SATURDAY, "lör", "lördag", "lor", "lordag");
+        register(DayOfWeek.SUNDAY, "sön", "söndag", "son", "sondag");
+        // English
+        register(DayOfWeek.MONDAY, "mon", "monday");
+        register(DayOfWeek.TUESDAY, "tue", "tues", "tuesday");
+        register(DayOfWeek.WEDNESDAY, "wed", "wednesday");
+        register(DayOfWeek.THURSDAY, "thu", "thur", "thurs", "thursday");
+        register(DayOfWeek.FRIDAY, "fri", "friday");
+        register(DayOfWeek.SATURDAY, "sat", "saturday");
+        register(DayOfWeek.SUNDAY, "sun", "sunday");
+    }
+
+    private static void register(DayOfWeek day, String... names) {
+        for (String name : names) {
+            DAY_NAMES.put(name, day);
+        }
+    }
+
+    // Canonical labels written back to clients, indexed by DayOfWeek.getValue() - 1
+    private static final String[] DAY_LABELS = {"Mån", "Tis", "Ons", "Tor", "Fre", "Lör", "Sön"};
+    private static final int ALL_DAYS = 0x7f;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int[] NO_MINUTES = new int[0];
+
+    private final int dayMask;
+    private final int[] minutes;
+
+    private RecurrenceRule(int dayMask, int[] minutes) {
+        this.dayMask = dayMask;
+        this.minutes = minutes;
+    }
+
+    /**
+     * Parse the stored day/time lists. Unknown day names and malformed times are
+     * skipped so that legacy rows never break a read.
+     */
+    public static RecurrenceRule parse(Collection<?> days, Collection<?> times) {
+        return parse(days, times, false);
+    }
+
+    /**
+     * Parse client input for a write. Unlike {@link #parse}, an unknown day name, a
+     * malformed time or an empty list is rejected with an {@link IllegalArgumentException}.
+     */
+    public static RecurrenceRule parseStrict(Collection<String> days, Collection<String> times) {
+        if (days == null || days.isEmpty()) {
+            throw new IllegalArgumentException("days required for type=recurring");
+        }
+        if (times == null || times.isEmpty()) {
+            throw new IllegalArgumentException("times required for type=recurring");
+        }
+        return parse(days, times, true);
+    }
+
+    /**
+     * Rebuild a rule from its stored form (see {@link #dayMask()} and {@link #minutesArray()}).
+     */
+    public static RecurrenceRule of(int dayMask, short[] minutes) {
+        if ((dayMask & ~ALL_DAYS) != 0) {
+            throw new IllegalArgumentException("invalid day mask: " + dayMask);
+        }
+        if (minutes == null || minutes.length == 0) {
+            return new RecurrenceRule(dayMask, NO_MINUTES);
+        }
+        int[] values = new int[minutes.length];
+        boolean sorted = true;
+        for (int i = 0; i < minutes.length; i++) {
+            values[i] = minutes[i];
+            if (values[i] < 0 || values[i] >= MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("invalid minute of day: " + values[i]);
+            }
+            sorted &= i == 0 || values[i - 1] < values[i];
+        }
+        return new RecurrenceRule(dayMask, sorted ? values : Arrays.stream(values).sorted().distinct().toArray());
+    }
+
+    private static RecurrenceRule parse(Collection<?> days, Collection<?> times, boolean strict) {
+        int mask = 0;
+        if (days != null) {
+            for (Object day : days) {
+                DayOfWeek parsed = day == null ? null : dayOf(day.toString());
+                if (parsed != null) {
+                    mask |= bit(parsed);
+                } else if (strict) {
+                    throw new IllegalArgumentException("unknown day: " + day);
+                }
+            }
+        }
+
+        int[] parsedMinutes = NO_MINUTES;
+        if (times != null && !times.isEmpty()) {
+            int[] buffer = new int[times.size()];
+            int count = 0;
+            for (Object time : times) {
+                int minute = time == null ? -1 : minuteOf(time.toString());
+                if (minute >= 0) {
+                    buffer[count++] = minute;
+                } else if (strict) {
+                    throw new IllegalArgumentException("invalid time (expected HH:mm): " + time);
+                }
+            }
+            parsedMinutes = Arrays.stream(buffer, 0, count).sorted().distinct().toArray();
+        }
+        return new RecurrenceRule(mask, parsedMinutes);
+    }
+
+    /**
+     * Resolve a day label in Swedish or English, or {@code null} if unknown.
+     */
+    public static DayOfWeek dayOf(String label) {
+        return DAY_NAMES.get(label.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Parse an "HH:mm" time into minute-of-day, or -1 if malformed.
+     */
+    public static int minuteOf(String time) {
+        String s = time.trim();
+        int colon = s.indexOf(':');
+        if (colon < 1 || colon > 2 || s.length() != colon + 3) {
+            return -1;
+        }
+        try {
+            int hour = Integer.parseInt(s, 0, colon, 10);
+            int minute = Integer.parseInt(s, colon + 1, s.length(), 10);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                return -1;
+            }
+            return hour * 60 + minute;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public int dayMask() {
+        return dayMask;
+    }
+
+    public int minuteCount() {
+        return minutes.length;
+    }
+
+    public int minuteAt(int index) {
+        return minutes[index];
+    }
+
+    /**
+     * Fire times in storage form: sorted, distinct minute-of-day values.
+     */
+    public short[] minutesArray() {
+        short[] out = new short[minutes.length];
+        for (int i = 0; i < minutes.length; i++) {
+            out[i] = (short) minutes[i];
+        }
+        return out;
+    }
+
+    /**
+     * Canonical day labels ("Mån", "Tis", ...), Monday first.
+     */
+    public List<String> dayLabels() {
+        List<String> labels = new ArrayList<>(Integer.bitCount(dayMask));
+        for (int i = 0; i < DAY_LABELS.length; i++) {
+            if ((dayMask & (1 << i)) != 0) {
+                labels.add(DAY_LABELS[i]);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Canonical "HH:mm" times, ascending.
+     */
+    public List<String> timeLabels() {
+        List<String> labels = new ArrayList<>(minutes.length);
+        for (int minute : minutes) {
+            labels.add(String.format("%02d:%02d", minute / 60, minute % 60));
+        }
+        return labels;
+    }
+
+    public boolean firesOn(DayOfWeek day) {
+        return (dayMask & bit(day)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return dayMask == 0 || minutes.length == 0;
+    }
+
+    /**
+     * Emit every fire instant in {@code [from, to)}, in ascending order.
+     * Local wall-clock times are resolved in {@code zone}; times falling into a
+     * DST gap are shifted forward by the length of the gap.
+     */
+    public void forEachOccurrence(Instant from, Instant to, ZoneId zone, Consumer<Instant> action) {
+        if (isEmpty() || !from.isBefore(to)) {
+            return;
+        }
+        LocalDate date = LocalDate.ofInstant(from, zone);
+        LocalDate last = LocalDate.ofInstant(to, zone);
+        for (; !date.isAfter(last); date = date.plusDays(1)) {
+            if (!firesOn(date.getDayOfWeek())) {
+                continue;
+            }
+            for (int minute : minutes) {
+                Instant at = date.atTime(LocalTime.ofSecondOfDay(minute * 60L)).atZone(zone).toInstant();
+                if (!at.isBefore(from) && at.isBefore(to)) {
+                    action.accept(at);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecurrenceRule other)) return false;
+        return dayMask == other.dayMask && Arrays.equals(minutes, other.minutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dayMask + Arrays.hashCode(minutes);
+    }
+
+    @Override
+    public String toString() {
+        return "RecurrenceRule[dayMask=" + Integer.toBinaryString(dayMask) + ", minutes=" + Arrays.toString(minutes) + "]";
+    }
+}
@@ -0,0 +1,24 @@
+package com.attendo.mos.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One resident's reminder outcomes for a month (app.timezone), per category.
+ * {@code onTimePercent} is on-time acknowledgements out of all outcomes, null without any.
+ */
+public record ReminderAdherence(
+        UUID userId,
+        YearMonth month,
+        List<Entry> categories) {
+
+    public record Entry(
+            Category category,
+            int acknowledged,
+            int onTime,
+            int snoozed,
+            int missed,
+            Integer onTimePercent) {
+    }
+}
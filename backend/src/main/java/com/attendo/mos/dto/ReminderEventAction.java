@@ -0,0 +1,9 @@
+package com.attendo.mos.dto;
+
+/**
+ * What happened to a reminder occurrence. ACKNOWLEDGED and MISSED are outcomes, at most one per
+ * occurrence; SNOOZED may be recorded any number of times before the outcome.
+ */
+public enum ReminderEventAction {
+    ACKNOWLEDGED, SNOOZED, MISSED
+}
@@ -0,0 +1,11 @@
+package com.attendo.mos.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ReminderEventRequest(
+        UUID reminderId, // taken from the path for a single event
+        OffsetDateTime occurrenceAt, // the fire time, as listed by /occurrences
+        ReminderEventAction action,
+        OffsetDateTime at) { // when it was done; defaults to now
+}
@@ -0,0 +1,20 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of recording reminder events. {@code duplicates} are valid events for an occurrence
+ * whose outcome was already recorded; they are not stored. {@code errors} lists rejected
+ * events by their index in the request.
+ */
+public record ReminderEventsResponse(
+        int recorded,
+        int duplicates,
+        int failed,
+        List<Error> errors) {
+
+    public record Error(
+            int index,
+            String message) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.attendo.mos.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ReminderOccurrence(
+        UUID reminderId,
+        OffsetDateTime at, // concrete fire time
+        String type, // "once" | "recurring"
+        String category, // keep as string for FE
+        String note) {
+}
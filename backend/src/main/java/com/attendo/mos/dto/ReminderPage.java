@@ -0,0 +1,11 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's reminders. {@code nextCursor} is null on the last page.
+ */
+public record ReminderPage(
+        List<ReminderResponse> items,
+        String nextCursor) {
+}
@@ -0,0 +1,28 @@
+package com.attendo.mos.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reminder counts for one scope ({@code USER}, {@code CAREGIVER} across their caretakers, or
+ * {@code FACILITY}) over the days {@code from} to {@code to} inclusive; null bounds are open.
+ * Days are bucketed by each reminder's time, or its creation time for recurring ones.
+ */
+public record ReminderStatistics(
+        String scope,
+        UUID scopeId,
+        LocalDate from,
+        LocalDate to,
+        long total,
+        Map<Category, Long> byCategory,
+        Map<String, Long> byType,
+        List<Day> days) { // days with reminders, in order
+
+    public record Day(
+            LocalDate date,
+            long total,
+            Map<Category, Long> byCategory) {
+    }
+}
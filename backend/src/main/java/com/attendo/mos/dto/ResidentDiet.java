@@ -0,0 +1,10 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ResidentDiet(
+        UUID id,
+        String displayName,
+        List<MealRequirementType> diets) {
+}
@@ -0,0 +1,65 @@
+package com.attendo.mos.dto;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a reminder with its recurrence already parsed.
+ * Used wherever reminders are expanded into occurrences (agenda, dispatcher).
+ */
+public record ScheduledReminder(
+        UUID id,
+        UUID userId,
+        String type, // "once" | "recurring"
+        String category,
+        String note,
+        Instant onceAt, // set when type=once
+        RecurrenceRule rule) { // set when type=recurring
+
+    /**
+     * Constructor used by JPQL {@code select new} projections in ReminderRepository.
+     */
+    public ScheduledReminder(UUID id, UUID userId, String type, Category category, String note,
+                             OffsetDateTime time, Short recurrenceDays, short[] recurrenceMinutes) {
+        this(id, userId, type, category.name(), note,
+                "once".equalsIgnoreCase(type) && time != null ? time.toInstant() : null,
+                "recurring".equalsIgnoreCase(type) && recurrenceDays != null
+                        ? RecurrenceRule.of(recurrenceDays, recurrenceMinutes)
+                        : null);
+    }
+
+    /**
+     * Append the occurrences of this reminder in {@code [from, to)} to {@code out}.
+     */
+    public void expand(Instant from, Instant to, ZoneId zone, List<ReminderOccurrence> out) {
+        if (onceAt != null) {
+            if (!onceAt.isBefore(from) && onceAt.isBefore(to)) {
+                out.add(occurrenceAt(onceAt, zone));
+            }
+        } else if (rule != null) {
+            rule.forEachOccurrence(from, to, zone, at -> out.add(occurrenceAt(at, zone)));
+        }
+    }
+
+    /**
+     * Whether this reminder fires at exactly {@code at}.
+     */
+    public boolean occursAt(Instant at, ZoneId zone) {
+        if (onceAt != null) {
+            return onceAt.equals(at);
+        }
+        if (rule == null) {
+            return false;
+        }
+        boolean[] found = { false };
+        rule.forEachOccurrence(at, at.plusSeconds(1), zone, occurrence -> found[0] = true);
+        return found[0];
+    }
+
+    public ReminderOccurrence occurrenceAt(Instant at, ZoneId zone) {
+        return new ReminderOccurrence(id, OffsetDateTime.ofInstant(at, zone), type, category, note);
+    }
+}
@@ -0,0 +1,11 @@
+package com.attendo.mos.dto;
+
+import java.util.List;
+
+/**
+ * One page of the admin user directory. {@code nextCursor} is null on the last page.
+ */
+public record UserPage(
+        List<UserInfoResponse> items,
+        String nextCursor) {
+}
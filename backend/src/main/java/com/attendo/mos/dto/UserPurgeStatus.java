@@ -0,0 +1,19 @@
+package com.attendo.mos.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a user deletion. {@code status} is PENDING, RUNNING, DONE or FAILED; a failed
+ * purge keeps its progress and is retried on the next start or deletion request.
+ */
+public record UserPurgeStatus(
+        UUID userId,
+        String status,
+        long remindersDeleted,
+        long mealRequirementsDeleted,
+        OffsetDateTime requestedAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime completedAt,
+        String lastError) {
+}
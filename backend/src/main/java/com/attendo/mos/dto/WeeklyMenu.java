@@ -0,0 +1,41 @@
+package com.attendo.mos.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A week of meals for the whole facility. Every meal offers a few dishes so that each group of
+ * residents sharing the same requirements can eat at least one of them; groups no catalog
+ * recipe suits are listed in {@code unserved} instead. {@code complete} is false when the
+ * search ran out of time and the menu uses the best dishes found by then.
+ */
+public record WeeklyMenu(
+        LocalDate weekStart,
+        int residentCount,
+        List<Group> groups,
+        List<Group> unserved,
+        List<Day> days,
+        boolean complete) {
+
+    public record Group(
+            List<MealRequirementType> diets,
+            List<String> excludedIngredients,
+            int residentCount) {
+    }
+
+    public record Day(
+            LocalDate date,
+            List<Meal> meals) {
+    }
+
+    public record Meal(
+            String name,
+            List<Dish> dishes) {
+    }
+
+    public record Dish(
+            long recipeId,
+            String title,
+            int residentCount) { // residents the dish suits
+    }
+}
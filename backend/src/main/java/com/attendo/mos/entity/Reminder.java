@@ -1,15 +1,13 @@
 package com.attendo.mos.entity;
 
 import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.RecurrenceRule;
 import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.Map;
 import java.util.UUID;
 
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UuidGenerator;
-import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "reminder")
@@ -38,9 +36,12 @@ public class Reminder {
     @Column(nullable = false, length = 20)
     private String type = "once"; // "once" | "recurring"
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "jsonb")
-    private Map<String, Object> recurrence; // null for once
+    // Recurring schedule (V16); both null for once. See RecurrenceRule for the encoding.
+    @Column(name = "recurrence_days")
+    private Short recurrenceDays; // weekday bitmask, bit 0 = Monday
+
+    @Column(name = "recurrence_minutes", columnDefinition = "smallint[]")
+    private short[] recurrenceMinutes; // sorted minute-of-day values
 
     // getters/setters
     public String getType() {
@@ -51,12 +52,13 @@ public class Reminder {
         this.type = type;
     }
 
-    public Map<String, Object> getRecurrence() {
-        return recurrence;
+    public RecurrenceRule getRecurrence() {
+        return recurrenceDays == null ? null : RecurrenceRule.of(recurrenceDays, recurrenceMinutes);
     }
 
-    public void setRecurrence(Map<String, Object> recurrence) {
-        this.recurrence = recurrence;
+    public void setRecurrence(RecurrenceRule recurrence) {
+        this.recurrenceDays = recurrence == null ? null : (short) recurrence.dayMask();
+        this.recurrenceMinutes = recurrence == null ? null : recurrence.minutesArray();
     }
 
     public UUID getId() {
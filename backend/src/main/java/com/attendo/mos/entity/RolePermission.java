@@ -0,0 +1,30 @@
+package com.attendo.mos.entity;
+
+import com.attendo.mos.dto.UserType;
+import jakarta.persistence.*;
+
+/**
+ * One permission granted to every user of a type, unless overridden in {@link UserPermission}.
+ */
+@Entity
+@Table(name = "role_permission")
+@IdClass(RolePermissionId.class)
+public class RolePermission {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "user_type", length = 20)
+    private UserType userType;
+
+    @Id
+    @Column(name = "permission_name", length = 50)
+    private String permissionName;
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public String getPermissionName() {
+        return permissionName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.attendo.mos.entity;
+
+import com.attendo.mos.dto.UserType;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+
+@Data
+@EqualsAndHashCode
+public class RolePermissionId implements Serializable {
+    
+    private UserType userType;
+    private String permissionName;
+    
+    public RolePermissionId() {}
+    
+    public RolePermissionId(UserType userType, String permissionName) {
+        this.userType = userType;
+        this.permissionName = permissionName;
+    }
+}
@@ -0,0 +1,12 @@
+package com.attendo.mos.errors;
+
+/**
+ * Thrown when a login cannot be admitted because the password-hashing executor is saturated.
+ * Mapped to HTTP 429 so clients back off instead of piling onto the request threads.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.attendo.mos.errors;
+
+/**
+ * Thrown when reminder events cannot be queued because the ingestion queue is full.
+ * Mapped to HTTP 429 so clients retry later instead of holding request threads.
+ */
+public class ReminderEventsThrottledException extends RuntimeException {
+
+    public ReminderEventsThrottledException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.attendo.mos.repo;
 
+import com.attendo.mos.dto.MealRequirementType;
 import com.attendo.mos.entity.MealRequirement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -12,6 +13,23 @@ import java.util.UUID;
 public interface MealRequirementRepository extends JpaRepository<MealRequirement, UUID> {
     List<MealRequirement> findByUserId(UUID userId);
     
+    // Projection: only what diet classification needs, without loading the owning User
+    interface TypeAndNotes {
+        MealRequirementType getType();
+        String getNotes();
+    }
+    
+    @Query("SELECT mr.type AS type, mr.notes AS notes FROM MealRequirement mr WHERE mr.user.id = :userId")
+    List<TypeAndNotes> findTypeAndNotesByUserId(@Param("userId") UUID userId);
+    
+    interface ResidentTypeAndNotes extends TypeAndNotes {
+        UUID getUserId();
+    }
+    
+    @Query("SELECT mr.user.id AS userId, mr.type AS type, mr.notes AS notes FROM MealRequirement mr " +
+           "WHERE mr.user.userType = com.attendo.mos.dto.UserType.RESIDENT AND mr.user.isActive = true")
+    List<ResidentTypeAndNotes> findActiveResidentTypeAndNotes();
+    
     @Modifying
     @Query("DELETE FROM MealRequirement mr WHERE mr.user.id = :userId")
     void deleteByUserId(@Param("userId") UUID userId);
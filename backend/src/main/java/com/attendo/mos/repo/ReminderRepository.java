@@ -1,16 +1,52 @@
 package com.attendo.mos.repo;
 
+import com.attendo.mos.dto.ScheduledReminder;
 import com.attendo.mos.entity.Reminder;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface ReminderRepository extends JpaRepository<Reminder, UUID> {
+    // Ordering matches idx_reminder_user_sort (V15); keep the expressions in sync with it
     @Query("select r from Reminder r " +
             "where r.user.id = :userId " +
-            "order by coalesce(r.time, r.createdAt) asc")
-    List<Reminder> listForUser(UUID userId);
+            "order by coalesce(r.time, r.createdAt) asc, r.id asc")
+    List<Reminder> listForUser(UUID userId, Limit limit);
+
+    @Query("select r from Reminder r " +
+            "where r.user.id = :userId " +
+            "and coalesce(r.time, r.createdAt) >= :afterKey " +
+            "and (coalesce(r.time, r.createdAt) > :afterKey or r.id > :afterId) " +
+            "order by coalesce(r.time, r.createdAt) asc, r.id asc")
+    List<Reminder> listForUserAfter(UUID userId, OffsetDateTime afterKey, UUID afterId, Limit limit);
     void deleteByIdAndUser_Id(UUID id, UUID userId);
+
+    @Query("select new com.attendo.mos.dto.ScheduledReminder(r.id, r.user.id, r.type, r.category, r.note, r.time, r.recurrenceDays, r.recurrenceMinutes) " +
+            "from Reminder r where r.user.id = :userId")
+    List<ScheduledReminder> scheduleForUser(UUID userId);
+
+    @Query("select new com.attendo.mos.dto.ScheduledReminder(r.id, r.user.id, r.type, r.category, r.note, r.time, r.recurrenceDays, r.recurrenceMinutes) " +
+            "from Reminder r where r.id in :ids")
+    List<ScheduledReminder> scheduleByIds(Collection<UUID> ids);
+
+    @Query("select new com.attendo.mos.dto.ScheduledReminder(r.id, r.user.id, r.type, r.category, r.note, r.time, r.recurrenceDays, r.recurrenceMinutes) " +
+            "from Reminder r where lower(r.type) = 'once' and r.time >= :from and r.time < :to")
+    List<ScheduledReminder> scheduleOnceBetween(OffsetDateTime from, OffsetDateTime to);
+
+    @Query("select new com.attendo.mos.dto.ScheduledReminder(r.id, r.user.id, r.type, r.category, r.note, r.time, r.recurrenceDays, r.recurrenceMinutes) " +
+            "from Reminder r where lower(r.type) = 'recurring'")
+    List<ScheduledReminder> scheduleRecurring();
+
+    // Every reminder of the caregiver's caretakers that can fire in [from, to): recurring ones
+    // are expanded by the caller, one-off ones are already filtered to the window
+    @Query("select new com.attendo.mos.dto.ScheduledReminder(r.id, r.user.id, r.type, r.category, r.note, r.time, r.recurrenceDays, r.recurrenceMinutes) " +
+            "from Reminder r where r.user.id in " +
+            "(select ua.caretaker.id from UserAssignment ua where ua.caregiver.id = :caregiverId) " +
+            "and (lower(r.type) = 'recurring' or (r.time >= :from and r.time < :to))")
+    List<ScheduledReminder> scheduleForCaregiver(UUID caregiverId, OffsetDateTime from, OffsetDateTime to);
 }
@@ -0,0 +1,30 @@
+package com.attendo.mos.repo;
+
+import com.attendo.mos.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    // Idempotent: revoking an already revoked token (double logout) is a no-op
+    @Modifying
+    @Transactional
+    @Query(value = "insert into revoked_token (jti, expires_at) values (:jti, :expiresAt) on conflict do nothing",
+        nativeQuery = true)
+    int revoke(@Param("jti") UUID jti, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Query("select t.tokenId from RevokedToken t where t.expiresAt > :now")
+    List<UUID> findLiveTokenIds(@Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
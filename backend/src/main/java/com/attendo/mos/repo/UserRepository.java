@@ -1,8 +1,12 @@
 package com.attendo.mos.repo;
 
 import com.attendo.mos.entity.User;
+import com.attendo.mos.dto.UserInfoResponse;
 import com.attendo.mos.dto.UserType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +17,20 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmailAndIsActiveTrue(String email);
     List<User> findByUserTypeAndIsActiveTrue(UserType userType);
     List<User> findByIsActiveTrue();
+    long countByUserTypeAndIsActiveTrue(UserType userType);
+
+    // Projection: selects only the listed columns, never the password hash
+    @Query("select new com.attendo.mos.dto.UserInfoResponse(u.id, u.email, u.displayName, u.phone, " +
+            "u.userType, u.isActive, u.lastLoginAt, u.createdAt) from User u")
+    List<UserInfoResponse> findAllInfo();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.isActive = false where u.id = :id")
+    int deactivate(@Param("id") UUID id);
+
+    // Not mapped on User; only MealRequirementService and the V22 backfill write it
+    @Modifying
+    @Query(value = "UPDATE app_user SET diet_mask = :mask WHERE id = :id AND diet_mask IS DISTINCT FROM :mask",
+            nativeQuery = true)
+    int updateDietMask(@Param("id") UUID id, @Param("mask") long mask);
 }
@@ -0,0 +1,36 @@
+package com.attendo.mos.repository;
+
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.entity.RolePermission;
+import com.attendo.mos.entity.RolePermissionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RolePermissionRepository extends JpaRepository<RolePermission, RolePermissionId> {
+    
+    @Query("SELECT rp.permissionName FROM RolePermission rp WHERE rp.userType = :userType")
+    List<String> findPermissionNamesByUserType(@Param("userType") UserType userType);
+    
+    /**
+     * Add every name in {@code names} to the role; names it already has are left alone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO role_permission (user_type, permission_name) " +
+            "SELECT :userType, name FROM unnest(CAST(:names AS varchar[])) AS name " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addAll(@Param("userType") String userType, @Param("names") String[] names);
+    
+    /**
+     * Remove every permission of the role whose name is not in {@code keep} (which may be empty).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM role_permission " +
+            "WHERE user_type = :userType AND permission_name <> ALL (CAST(:keep AS varchar[]))", nativeQuery = true)
+    int deleteAllExcept(@Param("userType") String userType, @Param("keep") String[] keep);
+}
@@ -2,6 +2,7 @@ package com.attendo.mos.repository;
 
 import com.attendo.mos.entity.UserAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,10 +23,23 @@ public interface UserAssignmentRepository extends JpaRepository<UserAssignment,
     @Query("SELECT ua.caretaker FROM UserAssignment ua WHERE ua.caregiver.id = :caregiverId")
     List<com.attendo.mos.entity.User> findCaretakersByCaregiverId(@Param("caregiverId") UUID caregiverId);
     
+    @Query("SELECT ua.caretaker.id FROM UserAssignment ua WHERE ua.caregiver.id = :caregiverId")
+    List<UUID> findCaretakerIdsByCaregiverId(@Param("caregiverId") UUID caregiverId);
+    
+    @Query("SELECT ua.caregiver.id FROM UserAssignment ua WHERE ua.caretaker.id = :caretakerId")
+    List<UUID> findCaregiverIdsByCaretakerId(@Param("caretakerId") UUID caretakerId);
+    
     @Query("SELECT ua.caregiver FROM UserAssignment ua WHERE ua.caretaker.id = :caretakerId")
     Optional<com.attendo.mos.entity.User> findCaregiverByCaretakerId(@Param("caretakerId") UUID caretakerId);
     
     boolean existsByCaregiverIdAndCaretakerId(UUID caregiverId, UUID caretakerId);
     
     void deleteByCaregiverIdAndCaretakerId(UUID caregiverId, UUID caretakerId);
+    
+    /**
+     * Delete every assignment the user is part of, on either side, in one statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserAssignment ua WHERE ua.caregiver.id = :userId OR ua.caretaker.id = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
 }
@@ -2,6 +2,7 @@ package com.attendo.mos.repository;
 
 import com.attendo.mos.entity.UserPermission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,5 +28,43 @@ public interface UserPermissionRepository extends JpaRepository<UserPermission,
     
     boolean existsByUserIdAndPermissionNameAndIsEnabledTrue(UUID userId, String permissionName);
     
-    void deleteByUserId(UUID userId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserPermission up WHERE up.user.id = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Lock an active user's row until the end of the transaction, so replacements of their
+     * override set run one after another, and return their type; empty if there is no such user.
+     */
+    @Query(value = "SELECT user_type FROM app_user WHERE id = :userId AND is_active FOR UPDATE", nativeQuery = true)
+    Optional<String> lockUserType(@Param("userId") UUID userId);
+    
+    /**
+     * Store the given names as overrides with {@code enabled} in one statement: missing rows are
+     * inserted, rows with the opposite value flipped, matching rows left untouched.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO user_permissions (user_id, permission_name, is_enabled, granted_by) " +
+            "SELECT :userId, name, :enabled, :grantedBy FROM unnest(CAST(:names AS varchar[])) AS name " +
+            "ON CONFLICT (user_id, permission_name) DO UPDATE SET is_enabled = EXCLUDED.is_enabled, " +
+            "granted_by = EXCLUDED.granted_by, granted_at = EXCLUDED.granted_at " +
+            "WHERE user_permissions.is_enabled <> EXCLUDED.is_enabled", nativeQuery = true)
+    int upsertOverrides(@Param("userId") UUID userId, @Param("names") String[] names,
+                        @Param("enabled") boolean enabled, @Param("grantedBy") UUID grantedBy);
+    
+    /**
+     * Drop the user's overrides for the given names, falling back to the role.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM user_permissions " +
+            "WHERE user_id = :userId AND permission_name = ANY (CAST(:names AS varchar[]))", nativeQuery = true)
+    int deleteOverrides(@Param("userId") UUID userId, @Param("names") String[] names);
+    
+    /**
+     * Drop every override of the user whose name is not in {@code keep} (which may be empty).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM user_permissions " +
+            "WHERE user_id = :userId AND permission_name <> ALL (CAST(:keep AS varchar[]))", nativeQuery = true)
+    int deleteOverridesExcept(@Param("userId") UUID userId, @Param("keep") String[] keep);
 }
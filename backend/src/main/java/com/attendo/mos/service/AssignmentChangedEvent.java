@@ -0,0 +1,9 @@
+package com.attendo.mos.service;
+
+import java.util.UUID;
+
+/**
+ * Published when a caregiver/caretaker assignment is created ({@code assigned}) or removed.
+ */
+public record AssignmentChangedEvent(UUID caregiverId, UUID caretakerId, boolean assigned) {
+}
@@ -0,0 +1,168 @@
+package com.attendo.mos.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of {@code user_assignments} as UUID-keyed adjacency sets in both directions,
+ * so "is X assigned to Y" and "who is assigned to X" are map lookups instead of queries that
+ * load {@code User} entities.
+ * <p>
+ * The whole table (two UUIDs per row) is read on first use. After that it is kept current by
+ * the {@link AssignmentChangedEvent}s {@link UserManagementService} publishes once each change
+ * has committed. Changes those events don't cover (direct SQL, or writes on another instance)
+ * are picked up by {@link #reload()}, which rebuilds it from the table every
+ * {@code app.assignments.reload-interval}; until then such a change is not seen here. Readers
+ * never lock, and each set they are handed is an immutable snapshot.
+ * </p>
+ */
+@Service
+public class AssignmentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentIndex.class);
+
+    private static final String SELECT = "select caregiver_id, caretaker_id from user_assignments";
+
+    private record Adjacency(Map<UUID, Set<UUID>> caretakersByCaregiver, Map<UUID, Set<UUID>> caregiversByCaretaker) {
+        Adjacency() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        void add(UUID caregiverId, UUID caretakerId) {
+            caretakersByCaregiver.compute(caregiverId, (k, set) -> with(set, caretakerId));
+            caregiversByCaretaker.compute(caretakerId, (k, set) -> with(set, caregiverId));
+        }
+
+        void remove(UUID caregiverId, UUID caretakerId) {
+            caretakersByCaregiver.computeIfPresent(caregiverId, (k, set) -> without(set, caretakerId));
+            caregiversByCaretaker.computeIfPresent(caretakerId, (k, set) -> without(set, caregiverId));
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Duration reloadInterval;
+    // Null until first use; replaced wholesale by reload()
+    private volatile Adjacency adjacency;
+    private ScheduledExecutorService reloader;
+
+    public AssignmentIndex(JdbcTemplate jdbc,
+                           @Value("${app.assignments.reload-interval:PT5M}") Duration reloadInterval) {
+        this.jdbc = jdbc;
+        this.reloadInterval = reloadInterval;
+    }
+
+    public Set<UUID> caretakersOf(UUID caregiverId) {
+        return adjacency().caretakersByCaregiver().getOrDefault(caregiverId, Set.of());
+    }
+
+    public Set<UUID> caregiversOf(UUID caretakerId) {
+        return adjacency().caregiversByCaretaker().getOrDefault(caretakerId, Set.of());
+    }
+
+    public boolean isAssigned(UUID caregiverId, UUID caretakerId) {
+        return caretakersOf(caregiverId).contains(caretakerId);
+    }
+
+    /**
+     * Replace the index with a fresh copy of the table.
+     */
+    public synchronized void reload() {
+        Adjacency fresh = new Adjacency();
+        jdbc.query(SELECT, rs -> {
+            fresh.add(rs.getObject("caregiver_id", UUID.class), rs.getObject("caretaker_id", UUID.class));
+        });
+        adjacency = fresh;
+    }
+
+    // Changes are applied under the same lock as reload(), so one that commits while the table
+    // is being read is applied to the fresh copy afterwards (adds and removes are idempotent).
+    // Before the first load there is nothing to update; the load will see the committed row.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAssignmentChanged(AssignmentChangedEvent event) {
+        if (adjacency == null) {
+            return;
+        }
+        if (event.assigned()) {
+            adjacency.add(event.caregiverId(), event.caretakerId());
+        } else {
+            adjacency.remove(event.caregiverId(), event.caretakerId());
+        }
+    }
+
+    private Adjacency adjacency() {
+        Adjacency current = adjacency;
+        if (current == null) {
+            synchronized (this) {
+                if (adjacency == null) {
+                    reload();
+                }
+                current = adjacency;
+            }
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reloader = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("assignment-index-reload").daemon().factory());
+        long intervalMs = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            // Keep the current copy; the next reload retries
+            logger.warn("Assignment index reload failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private static Set<UUID> with(Set<UUID> set, UUID id) {
+        if (set == null) {
+            return Set.of(id);
+        }
+        if (set.contains(id)) {
+            return set;
+        }
+        Set<UUID> copy = new HashSet<>(set);
+        copy.add(id);
+        return Set.copyOf(copy);
+    }
+
+    // Returning null drops the key once its last neighbour is gone
+    private static Set<UUID> without(Set<UUID> set, UUID id) {
+        if (!set.contains(id)) {
+            return set;
+        }
+        Set<UUID> copy = new HashSet<>(set);
+        copy.remove(id);
+        return copy.isEmpty() ? null : Set.copyOf(copy);
+    }
+}
@@ -1,5 +1,6 @@
 package com.attendo.mos.service;
 
+import com.attendo.mos.config.JwtPrincipal;
 import com.attendo.mos.config.JwtUtil;
 import com.attendo.mos.dto.LoginRequest;
 import com.attendo.mos.dto.LoginResponse;
@@ -7,7 +8,7 @@ import com.attendo.mos.dto.UserInfoResponse;
 import com.attendo.mos.dto.UserType;
 import com.attendo.mos.entity.User;
 import com.attendo.mos.repo.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import io.jsonwebtoken.JwtException;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
@@ -18,30 +19,85 @@ public class AuthenticationService {
     
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final TokenRevocationService tokenRevocation;
+    private final LastLoginRecorder lastLoginRecorder;
     
     public AuthenticationService(UserRepository userRepository, 
                                JwtUtil jwtUtil, 
-                               PasswordEncoder passwordEncoder) {
+                               PasswordHashingService passwordHashing,
+                               TokenRevocationService tokenRevocation,
+                               LastLoginRecorder lastLoginRecorder) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.tokenRevocation = tokenRevocation;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
     
     public LoginResponse authenticate(LoginRequest loginRequest) {
         User user = userRepository.findByEmail(loginRequest.email())
             .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
         
-        if (!passwordEncoder.matches(loginRequest.password(), user.getPasswordHash())) {
+        // Hashing runs off the request thread and may throw LoginThrottledException under load
+        if (!passwordHashing.matches(user.getId(), loginRequest.password(), user.getPasswordHash())) {
             throw new IllegalArgumentException("Invalid email or password");
         }
         
-        // Update last login
-        user.setLastLoginAt(OffsetDateTime.now());
-        userRepository.save(user);
+        // Written behind in batches; no UPDATE on the login path
+        lastLoginRecorder.record(user.getId(), OffsetDateTime.now());
         
-        // Generate JWT token
+        return issueTokens(user);
+    }
+    
+    /**
+     * Exchange a refresh token for a new access/refresh pair. The presented refresh token is
+     * revoked (rotation), so each one can be used once: the revocation insert is the check, and
+     * only the request whose insert lands gets new tokens, however many race with the same token
+     * and on whichever instance.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        JwtPrincipal presented;
+        try {
+            presented = jwtUtil.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        
+        // Reload so type, email and deactivation changes take effect on refresh
+        User user = userRepository.findById(presented.userId())
+            .filter(User::isActive)
+            .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        
+        if (tokenRevocation.revoke(presented.tokenId(), presented.expiresAt()) != 1) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        return issueTokens(user);
+    }
+    
+    /**
+     * Revoke the caller's access token and, if given, their refresh token.
+     */
+    public void logout(JwtPrincipal principal, String refreshToken) {
+        if (principal != null) {
+            tokenRevocation.revoke(principal.tokenId(), principal.expiresAt());
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            try {
+                JwtPrincipal refresh = jwtUtil.parseRefreshToken(refreshToken);
+                // Only the owner of the access token may revoke a refresh token
+                if (principal == null || principal.userId().equals(refresh.userId())) {
+                    tokenRevocation.revoke(refresh.tokenId(), refresh.expiresAt());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid, nothing to revoke
+            }
+        }
+    }
+    
+    private LoginResponse issueTokens(User user) {
         String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getUserType());
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getEmail(), user.getUserType());
         OffsetDateTime expiresAt = jwtUtil.getExpirationFromToken(token);
         
         return LoginResponse.of(
@@ -51,7 +107,8 @@ public class AuthenticationService {
             user.getEmail(),
             user.getDisplayName(),
             user.getUserType(),
-            expiresAt
+            expiresAt,
+            refreshToken
         );
     }
     
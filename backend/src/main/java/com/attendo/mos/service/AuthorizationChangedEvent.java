@@ -0,0 +1,9 @@
+package com.attendo.mos.service;
+
+import java.util.UUID;
+
+/**
+ * Published when a user's type or permissions change.
+ */
+public record AuthorizationChangedEvent(UUID userId) {
+}
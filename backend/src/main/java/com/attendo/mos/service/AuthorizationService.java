@@ -0,0 +1,216 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.entity.UserPermission;
+import com.attendo.mos.repo.UserRepository;
+import com.attendo.mos.repository.RolePermissionRepository;
+import com.attendo.mos.repository.UserPermissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory authorization graph used by the controllers' permission checks.
+ * <p>
+ * For each user seen it holds the user type and the effective permissions as a bitmask (see
+ * {@link PermissionConstants#bit}); caregiver assignments come from {@link AssignmentIndex}. A
+ * check is therefore a map lookup plus a bit test or set lookup. Entries are loaded on first use and
+ * evicted when {@link UserPermissionService} or {@link UserManagementService} publish an
+ * {@link AuthorizationChangedEvent}, after the change has committed. Those events are local, so
+ * every entry (and every role mask) is also reloaded once it is {@code app.authz-cache.ttl} old;
+ * that bounds how long a change made on another instance or outside the application goes unseen
+ * here. Unknown and deactivated users are not cached, so a user created elsewhere is seen at once.
+ * </p>
+ * <p>
+ * Effective permissions are compiled at load time from the user type's role mask (from
+ * {@code role_permission}, cached per type) and the user's overrides in {@code user_permissions}:
+ * enabled rows add a bit, disabled rows clear one. A {@link RolePermissionsChangedEvent} drops
+ * the role mask and every cached user of that type.
+ * </p>
+ */
+@Service
+public class AuthorizationService {
+
+    /**
+     * Cached authorization facts for one user. {@code type} is null for an unknown user.
+     */
+    record Grants(UserType type, long permissions) {
+        static final Grants UNKNOWN = new Grants(null, 0L);
+    }
+
+    // A cached value and when it was loaded (System.nanoTime)
+    private record Cached<T>(T value, long loadedAt) {
+    }
+
+    private final UserRepository users;
+    private final UserPermissionRepository permissions;
+    private final RolePermissionRepository rolePermissions;
+    private final AssignmentIndex assignments;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<UUID, Cached<Grants>> cache = new ConcurrentHashMap<>();
+    private final Map<UserType, Cached<Long>> roles = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final MeterRegistry meterRegistry;
+
+    public AuthorizationService(UserRepository users, UserPermissionRepository permissions,
+                                RolePermissionRepository rolePermissions,
+                                AssignmentIndex assignments, MeterRegistry meterRegistry,
+                                @Value("${app.authz-cache.max-entries:10000}") int maxEntries,
+                                @Value("${app.authz-cache.ttl:PT1M}") Duration ttl) {
+        this.users = users;
+        this.permissions = permissions;
+        this.rolePermissions = rolePermissions;
+        this.assignments = assignments;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.hits = Counter.builder("authz.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("authz.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("authz.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    public boolean hasPermission(UUID userId, String permissionName) {
+        long bit = PermissionConstants.bit(permissionName);
+        if (bit != 0 && (grantsFor(userId).permissions() & bit) != 0) {
+            return true;
+        }
+        return denied(bit != 0 ? permissionName : "UNKNOWN");
+    }
+
+    /**
+     * The user's effective permission names, in {@link PermissionConstants} bit order.
+     */
+    public List<String> getPermissionNames(UUID userId) {
+        return PermissionConstants.names(grantsFor(userId).permissions());
+    }
+
+    /**
+     * Bitmask of the permissions every user of {@code type} gets unless overridden.
+     */
+    public long roleMask(UserType type) {
+        Cached<Long> cached = roles.get(type);
+        if (cached != null && isFresh(cached)) {
+            return cached.value();
+        }
+        long mask = PermissionConstants.mask(rolePermissions.findPermissionNamesByUserType(type));
+        roles.put(type, new Cached<>(mask, System.nanoTime()));
+        return mask;
+    }
+
+    public boolean isCaregiverOf(UUID caregiverId, UUID caretakerId) {
+        return grantsFor(caregiverId).type() == UserType.CAREGIVER && assignments.isAssigned(caregiverId, caretakerId);
+    }
+
+    public boolean isAdmin(UUID userId) {
+        return grantsFor(userId).type() == UserType.ADMIN;
+    }
+
+    /**
+     * Whether {@code currentUserId} may read {@code targetUserId}'s data: their own, an assigned
+     * caretaker's, or anyone's for an admin. Feature permissions are checked separately.
+     */
+    public boolean canViewUser(UUID currentUserId, UUID targetUserId) {
+        Grants current = grantsFor(currentUserId);
+        boolean allowed = current.type() == UserType.ADMIN
+            || (current.type() != null && currentUserId.equals(targetUserId))
+            || (current.type() == UserType.CAREGIVER && assignments.isAssigned(currentUserId, targetUserId));
+        return allowed || denied("VIEW_USER");
+    }
+
+    /**
+     * Whether {@code currentUserId} may manage reminders for {@code targetUserId}.
+     * Authorization rules:
+     * - Admins can manage anyone's reminders
+     * - Users can manage their own reminders (if they have permission)
+     * - Caregivers can manage their assigned caretakers' reminders (override)
+     */
+    public boolean canManageReminders(UUID currentUserId, UUID targetUserId) {
+        Grants current = grantsFor(currentUserId);
+        boolean allowed;
+        if (current.type() == UserType.ADMIN) {
+            allowed = true;
+        } else if (currentUserId.equals(targetUserId)) {
+            allowed = (current.permissions() & PermissionConstants.bit(PermissionConstants.CREATE_REMINDERS)) != 0;
+        } else {
+            allowed = current.type() == UserType.CAREGIVER && assignments.isAssigned(currentUserId, targetUserId);
+        }
+        return allowed || denied("MANAGE_REMINDERS");
+    }
+
+    // Counts a failed check as authz.denied{check}; always false
+    private boolean denied(String check) {
+        meterRegistry.counter("authz.denied", "check", check).increment();
+        return false;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorizationChanged(AuthorizationChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        invalidations.incrementAndGet();
+        roles.remove(event.userType());
+        cache.values().removeIf(cached -> cached.value().type() == event.userType());
+    }
+
+    public void invalidate(UUID userId) {
+        invalidations.incrementAndGet();
+        cache.remove(userId);
+    }
+
+    Grants grantsFor(UUID userId) {
+        Cached<Grants> cached = cache.get(userId);
+        if (cached != null && isFresh(cached)) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+        // Skip caching if an invalidation raced with the load
+        long stamp = invalidations.get();
+        long loadedAt = System.nanoTime();
+        Grants grants = load(userId);
+        if (grants == Grants.UNKNOWN) {
+            cache.remove(userId);
+        } else if (invalidations.get() == stamp) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            cache.put(userId, new Cached<>(grants, loadedAt));
+        }
+        return grants;
+    }
+
+    private boolean isFresh(Cached<?> cached) {
+        return System.nanoTime() - cached.loadedAt() < ttlNanos;
+    }
+
+    private Grants load(UUID userId) {
+        // Deactivated users (including ones being purged) hold no grants
+        UserType type = users.findById(userId).filter(user -> user.isActive()).map(user -> user.getUserType()).orElse(null);
+        if (type == null) {
+            return Grants.UNKNOWN;
+        }
+        long mask = roleMask(type);
+        for (UserPermission override : permissions.findByUserId(userId)) {
+            long bit = PermissionConstants.bit(override.getPermissionName());
+            mask = Boolean.TRUE.equals(override.getIsEnabled()) ? mask | bit : mask & ~bit;
+        }
+        return new Grants(type, mask);
+    }
+}
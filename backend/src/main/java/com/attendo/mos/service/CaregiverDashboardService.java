@@ -0,0 +1,68 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.CaretakerReminders;
+import com.attendo.mos.dto.ReminderOccurrence;
+import com.attendo.mos.dto.ScheduledReminder;
+import com.attendo.mos.entity.User;
+import com.attendo.mos.repo.ReminderRepository;
+import com.attendo.mos.repository.UserAssignmentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caregiver overview: the reminders of every assigned caretaker, fetched with one
+ * set-based query instead of one authorised request per caretaker.
+ */
+@Service
+public class CaregiverDashboardService {
+
+    private final ReminderRepository reminders;
+    private final UserAssignmentRepository assignments;
+    private final ReminderOccurrenceService occurrenceService;
+
+    public CaregiverDashboardService(ReminderRepository reminders, UserAssignmentRepository assignments,
+                                     ReminderOccurrenceService occurrenceService) {
+        this.reminders = reminders;
+        this.assignments = assignments;
+        this.occurrenceService = occurrenceService;
+    }
+
+    /**
+     * Occurrences in {@code [from, to)} for each caretaker assigned to {@code caregiverId},
+     * ordered by caretaker name. Caretakers without occurrences are included with an empty list.
+     */
+    @Transactional(readOnly = true)
+    public List<CaretakerReminders> getReminders(UUID caregiverId, OffsetDateTime from, OffsetDateTime to) {
+        ReminderOccurrenceService.checkRange(from, to);
+        Instant start = from.toInstant();
+        Instant end = to.toInstant();
+        ZoneId zone = occurrenceService.getZone();
+
+        Map<UUID, List<ReminderOccurrence>> byCaretaker = new HashMap<>();
+        for (ScheduledReminder reminder : reminders.scheduleForCaregiver(caregiverId, from, to)) {
+            reminder.expand(start, end, zone, byCaretaker.computeIfAbsent(reminder.userId(), id -> new ArrayList<>()));
+        }
+
+        List<User> caretakers = new ArrayList<>(assignments.findCaretakersByCaregiverId(caregiverId));
+        caretakers.sort(Comparator.comparing(User::getDisplayName, String.CASE_INSENSITIVE_ORDER));
+        List<CaretakerReminders> result = new ArrayList<>(caretakers.size());
+        for (User caretaker : caretakers) {
+            List<ReminderOccurrence> occurrences = byCaretaker.getOrDefault(caretaker.getId(), List.of());
+            if (!occurrences.isEmpty()) {
+                occurrences.sort(Comparator.comparing(ReminderOccurrence::at));
+            }
+            result.add(new CaretakerReminders(caretaker.getId(), caretaker.getDisplayName(), occurrences));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Classifies meal requirements stored before V22 and fills in {@code app_user.diet_mask}.
+ * <p>
+ * Runs once after startup in chunks of {@code app.diet-mask-backfill.chunk-size} users. Rows
+ * still typed {@code OTHER} get the code their text maps to, then each user's mask is written.
+ * Only users whose mask is still NULL are selected, so an interrupted run resumes on the next
+ * start, and reclassifying a row twice is harmless.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.diet-mask-backfill", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DietMaskBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DietMaskBackfillJob.class);
+
+    private final JdbcTemplate jdbc;
+    private final int chunkSize;
+
+    public DietMaskBackfillJob(JdbcTemplate jdbc,
+                               @Value("${app.diet-mask-backfill.chunk-size:500}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            int total = run();
+            if (total > 0) {
+                logger.info("Backfilled diet masks for {} users", total);
+            }
+        } catch (DataAccessException e) {
+            // Progress is kept per chunk; the next start picks up the remaining users
+            logger.warn("Diet mask backfill stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Classify every pending user. Returns the number of users updated.
+     */
+    public int run() {
+        int total = 0;
+        UUID after = new UUID(0, 0); // smallest uuid in Postgres ordering
+        while (true) {
+            Map<UUID, Long> masks = new LinkedHashMap<>();
+            List<Object[]> classified = new ArrayList<>();
+            // One row per requirement, or a single all-null row for users without any
+            jdbc.query("select u.id as user_id, mr.id, mr.type, mr.notes from "
+                    + "(select id from app_user where diet_mask is null and id > ? order by id limit ?) u "
+                    + "left join meal_requirement mr on mr.user_id = u.id order by u.id", rs -> {
+                UUID userId = rs.getObject("user_id", UUID.class);
+                masks.putIfAbsent(userId, 0L);
+                String type = rs.getString("type");
+                if (type == null) {
+                    return;
+                }
+                MealRequirementType code = MealRequirementType.OTHER.name().equals(type)
+                    ? MealRequirementType.fromText(rs.getString("notes"))
+                    : MealRequirementType.valueOf(type);
+                if (code != MealRequirementType.OTHER && !code.name().equals(type)) {
+                    classified.add(new Object[] { code.name(), rs.getObject("id", UUID.class) });
+                }
+                masks.merge(userId, code.bit(), (a, b) -> a | b);
+            }, after, chunkSize);
+            if (masks.isEmpty()) {
+                return total;
+            }
+
+            if (!classified.isEmpty()) {
+                jdbc.batchUpdate("update meal_requirement set type = ? where id = ? and type = 'OTHER'", classified);
+            }
+            List<Object[]> updates = new ArrayList<>(masks.size());
+            masks.forEach((userId, mask) -> updates.add(new Object[] { mask, userId }));
+            jdbc.batchUpdate("update app_user set diet_mask = ? where id = ? and diet_mask is null", updates);
+
+            total += masks.size();
+            after = List.copyOf(masks.keySet()).get(masks.size() - 1);
+        }
+    }
+}
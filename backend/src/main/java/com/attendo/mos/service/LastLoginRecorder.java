@@ -0,0 +1,132 @@
+package com.attendo.mos.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for {@code app_user.last_login_at}.
+ * <p>
+ * Logins only record a timestamp here; at most one is kept per user (the latest). Every
+ * {@code app.last-login.flush-interval} the buffer is drained into one JDBC-batched UPDATE that
+ * never moves a timestamp backwards. The buffer is also flushed on shutdown. Readers of
+ * {@code lastLoginAt} may therefore lag by up to one interval.
+ * </p>
+ */
+@Service
+public class LastLoginRecorder implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE =
+        "update app_user set last_login_at = ? where id = ? and (last_login_at is null or last_login_at < ?)";
+
+    private final JdbcTemplate jdbc;
+    private final Duration flushInterval;
+    private final Map<UUID, OffsetDateTime> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public LastLoginRecorder(JdbcTemplate jdbc, MeterRegistry meterRegistry,
+                             @Value("${app.last-login.flush-interval:PT5S}") Duration flushInterval) {
+        this.jdbc = jdbc;
+        this.flushInterval = flushInterval;
+        this.flushTimer = Timer.builder("auth.last_login.flush")
+            .description("Time to write buffered last-login timestamps")
+            .register(meterRegistry);
+        Gauge.builder("auth.last_login.pending", pending, Map::size)
+            .description("Users with a last-login timestamp waiting to be written")
+            .register(meterRegistry);
+    }
+
+    public void record(UUID userId, OffsetDateTime at) {
+        pending.merge(userId, at, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Write everything buffered so far. Returns the number of users flushed. On failure the
+     * entries are put back for the next attempt.
+     */
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (UUID userId : pending.keySet()) {
+            OffsetDateTime at = pending.remove(userId);
+            if (at != null) {
+                batch.add(new Object[] { at, userId, at });
+            }
+        }
+        try {
+            flushTimer.record(() -> jdbc.batchUpdate(UPDATE, batch));
+        } catch (DataAccessException e) {
+            batch.forEach(row -> record((UUID) row[1], (OffsetDateTime) row[0]));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            logger.warn("Last-login flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("last-login-flush").daemon().factory());
+        long intervalMs = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop (and flush) only after the web server has stopped accepting logins
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
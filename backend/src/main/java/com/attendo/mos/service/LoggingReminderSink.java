@@ -0,0 +1,20 @@
+package com.attendo.mos.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default sink: logs every due reminder.
+ */
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void onDue(ReminderDueEvent event) {
+        logger.info("Reminder due: reminder={} user={} category={} scheduledAt={}",
+            event.reminderId(), event.userId(), event.category(), event.scheduledAt());
+    }
+}
@@ -0,0 +1,120 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code meal_requirement_rollup} table (V21): for each normalized requirement, the active
+ * residents who have it.
+ * <p>
+ * {@link MealRequirementService} and {@link UserManagementService} keep it current inside their
+ * own transactions, with a couple of set-based statements per change that touch only the
+ * requirements that changed. The kitchen summary is then a single read of the roll-up joined to
+ * {@code app_user} for names, however many rows {@code meal_requirement} holds.
+ * </p>
+ */
+@Service
+public class MealRequirementRollup {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final JdbcTemplate jdbc;
+
+    public MealRequirementRollup(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Roll-up key for a requirement; must match the expression V21 filled the table with.
+     */
+    static String key(String requirement) {
+        return WHITESPACE.matcher(requirement.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Move {@code residentId} from the requirements in {@code before} to those in {@code after}.
+     * Only keys present on one side are written.
+     */
+    public void update(UUID residentId, Collection<String> before, Collection<String> after) {
+        Map<String, String> previous = byKey(before);
+        Map<String, String> added = byKey(after);
+        Set<String> removed = new LinkedHashSet<>(previous.keySet());
+        removed.removeAll(added.keySet());
+        added.keySet().removeAll(previous.keySet());
+
+        if (!removed.isEmpty()) {
+            remove(residentId, removed.toArray(String[]::new));
+        }
+        if (!added.isEmpty()) {
+            jdbc.update("insert into meal_requirement_rollup (requirement_key, requirement, resident_ids) "
+                + "select k.requirement_key, k.requirement, array[?::uuid] "
+                + "from unnest(?::text[], ?::text[]) as k(requirement_key, requirement) "
+                + "on conflict (requirement_key) do update set "
+                + "resident_ids = meal_requirement_rollup.resident_ids || excluded.resident_ids, updated_at = now() "
+                + "where not (excluded.resident_ids <@ meal_requirement_rollup.resident_ids)",
+                residentId, added.keySet().toArray(String[]::new), added.values().toArray(String[]::new));
+        }
+    }
+
+    /**
+     * Take {@code residentId} out of every requirement, e.g. when the user is deleted.
+     */
+    public void removeResident(UUID residentId) {
+        remove(residentId, null);
+    }
+
+    public MealRequirementSummary summary() {
+        Map<String, MealRequirementSummary.Entry> entries = new LinkedHashMap<>();
+        jdbc.query("select r.requirement_key, r.requirement, cardinality(r.resident_ids) as resident_count, "
+            + "u.id, u.display_name "
+            + "from meal_requirement_rollup r "
+            + "cross join lateral unnest(r.resident_ids) as rid "
+            + "join app_user u on u.id = rid "
+            + "order by resident_count desc, r.requirement_key, u.display_name, u.id", rs -> {
+                String key = rs.getString("requirement_key");
+                MealRequirementSummary.Entry entry = entries.get(key);
+                if (entry == null) {
+                    entry = new MealRequirementSummary.Entry(
+                        rs.getString("requirement"), rs.getInt("resident_count"), new ArrayList<>());
+                    entries.put(key, entry);
+                }
+                entry.residents().add(new MealRequirementSummary.Resident(
+                    rs.getObject("id", UUID.class), rs.getString("display_name")));
+            });
+        return new MealRequirementSummary(List.copyOf(entries.values()));
+    }
+
+    // Null keys means every requirement. Rows left without residents are deleted rather than
+    // emptied, so the table only ever holds requirements someone has.
+    private void remove(UUID residentId, String[] keys) {
+        String scope = keys == null ? "" : "requirement_key = any(?::text[]) and ";
+        Object[] deleteArgs = keys == null ? new Object[] { residentId } : new Object[] { keys, residentId };
+        Object[] updateArgs = keys == null ? new Object[] { residentId, residentId } : new Object[] { residentId, keys, residentId };
+        jdbc.update("delete from meal_requirement_rollup where " + scope + "resident_ids = array[?::uuid]", deleteArgs);
+        jdbc.update("update meal_requirement_rollup set resident_ids = array_remove(resident_ids, ?::uuid), updated_at = now() "
+            + "where " + scope + "?::uuid = any(resident_ids)", updateArgs);
+    }
+
+    // First spelling seen for each key
+    private static Map<String, String> byKey(Collection<String> requirements) {
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String requirement : requirements) {
+            if (requirement != null && !requirement.isBlank()) {
+                byKey.putIfAbsent(key(requirement), requirement.trim());
+            }
+        }
+        return byKey;
+    }
+}
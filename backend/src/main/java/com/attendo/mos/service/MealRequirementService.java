@@ -1,7 +1,9 @@
 package com.attendo.mos.service;
 
+import com.attendo.mos.dto.MealRequirementType;
 import com.attendo.mos.dto.MealRequirementsRequest;
 import com.attendo.mos.dto.MealRequirementsResponse;
+import com.attendo.mos.dto.UserType;
 import com.attendo.mos.entity.MealRequirement;
 import com.attendo.mos.entity.User;
 import com.attendo.mos.repo.MealRequirementRepository;
@@ -9,7 +11,10 @@ import com.attendo.mos.repo.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -17,60 +22,94 @@ public class MealRequirementService {
     
     private final MealRequirementRepository mealRequirementRepository;
     private final UserRepository userRepository;
+    private final MealRequirementRollup rollup;
     
     public MealRequirementService(MealRequirementRepository mealRequirementRepository, 
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                MealRequirementRollup rollup) {
         this.mealRequirementRepository = mealRequirementRepository;
         this.userRepository = userRepository;
+        this.rollup = rollup;
     }
     
+    /**
+     * Replace the user's requirements with {@code request}, writing only the difference: entries
+     * already stored (matched on their trimmed text) keep their id and creation time, missing ones
+     * are inserted in one batch, and ones no longer listed are removed with a single delete. The
+     * kitchen roll-up and the user's diet mask are updated along with any change.
+     */
     @Transactional
     public MealRequirementsResponse setMealRequirements(UUID userId, MealRequirementsRequest request) {
-        // Find user
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
-        // Delete existing meal requirements for this user
-        mealRequirementRepository.deleteByUserId(userId);
-        
-        // Create new meal requirements (remove duplicates)
-        List<MealRequirement> newRequirements = request.requirements().stream()
-            .distinct() // Remove duplicates
-            .filter(requirement -> requirement != null && !requirement.trim().isEmpty()) // Remove null/empty
-            .map(requirement -> {
-                MealRequirement mr = new MealRequirement();
-                mr.setUser(user);
-                mr.setType(com.attendo.mos.dto.MealRequirementType.OTHER);
-                mr.setNotes(requirement.trim());
-                return mr;
-            })
+        // Trimmed, non-empty and without duplicates, in request order
+        List<String> desired = request.requirements().stream()
+            .filter(requirement -> requirement != null && !requirement.trim().isEmpty())
+            .map(String::trim)
+            .distinct()
             .toList();
         
-        List<MealRequirement> savedRequirements = mealRequirementRepository.saveAll(newRequirements);
+        // Existing rows by text; repeats of the same text are surplus
+        List<MealRequirement> stored = mealRequirementRepository.findByUserId(userId);
+        Map<String, MealRequirement> existing = new HashMap<>();
+        List<MealRequirement> surplus = new ArrayList<>();
+        for (MealRequirement mr : stored) {
+            if (existing.putIfAbsent(mr.getNotes(), mr) != null) {
+                surplus.add(mr);
+            }
+        }
         
-        // Convert to response DTOs
-        List<MealRequirementsResponse.MealRequirementDto> responseDtos = savedRequirements.stream()
-            .map(mr -> new MealRequirementsResponse.MealRequirementDto(
-                mr.getId(),
-                mr.getNotes(),
-                mr.getCreatedAt()
-            ))
-            .toList();
+        List<MealRequirement> result = new ArrayList<>(desired.size());
+        List<MealRequirement> added = new ArrayList<>();
+        for (String requirement : desired) {
+            MealRequirement mr = existing.remove(requirement);
+            if (mr == null) {
+                mr = new MealRequirement();
+                mr.setUser(user);
+                mr.setType(MealRequirementType.fromText(requirement));
+                mr.setNotes(requirement);
+                added.add(mr);
+            }
+            result.add(mr);
+        }
+        surplus.addAll(existing.values());
+        
+        if (!surplus.isEmpty()) {
+            mealRequirementRepository.deleteAllByIdInBatch(surplus.stream().map(MealRequirement::getId).toList());
+        }
+        if (!added.isEmpty()) {
+            mealRequirementRepository.saveAll(added);
+        }
+        if (!surplus.isEmpty() || !added.isEmpty()) {
+            long dietMask = MealRequirementType.mask(result.stream().map(mr -> code(mr.getType(), mr.getNotes())).toList());
+            userRepository.updateDietMask(userId, dietMask);
+            if (user.getUserType() == UserType.RESIDENT && user.isActive()) {
+                rollup.update(userId, stored.stream().map(MealRequirement::getNotes).toList(), desired);
+            }
+        }
         
-        return new MealRequirementsResponse(responseDtos);
+        MealRequirementsResponse.Changes changes = new MealRequirementsResponse.Changes(
+            added.size(), surplus.size(), result.size() - added.size());
+        return new MealRequirementsResponse(toDtos(result), changes);
     }
     
     public MealRequirementsResponse getMealRequirements(UUID userId) {
-        List<MealRequirement> requirements = mealRequirementRepository.findByUserId(userId);
-        
-        List<MealRequirementsResponse.MealRequirementDto> responseDtos = requirements.stream()
+        return new MealRequirementsResponse(toDtos(mealRequirementRepository.findByUserId(userId)));
+    }
+    
+    // Rows stored before V22 are all OTHER; classify those from their text
+    static MealRequirementType code(MealRequirementType type, String notes) {
+        return type != null && type != MealRequirementType.OTHER ? type : MealRequirementType.fromText(notes);
+    }
+    
+    private static List<MealRequirementsResponse.MealRequirementDto> toDtos(List<MealRequirement> requirements) {
+        return requirements.stream()
             .map(mr -> new MealRequirementsResponse.MealRequirementDto(
                 mr.getId(),
                 mr.getNotes(),
                 mr.getCreatedAt()
             ))
             .toList();
-        
-        return new MealRequirementsResponse(responseDtos);
     }
 }
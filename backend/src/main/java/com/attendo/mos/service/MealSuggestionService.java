@@ -0,0 +1,288 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.MealSuggestions;
+import com.attendo.mos.dto.Recipe;
+import com.attendo.mos.repo.MealRequirementRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suggests recipes from the local catalog that fit a user's meal requirements.
+ * <p>
+ * The catalog is loaded once and kept in rank order (quickest, then simplest dish first), with
+ * inverted indexes from each {@link Recipe.Contains} tag, each ingredient and each title or
+ * ingredient word to the set of recipe positions, as {@link BitSet}s. A user's requirements are
+ * read as diet codes plus ingredients to leave out ("Inga tomater"); that fingerprint selects
+ * the suitable recipes by clearing the excluded sets from the full one. Users with the same
+ * fingerprint share the cached result, and walking its bits yields the recipes already ranked.
+ * </p>
+ */
+@Service
+public class MealSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealSuggestionService.class);
+
+    /** Suggestions returned when the client does not ask for a number. */
+    public static final int DEFAULT_LIMIT = 10;
+    /** Most suggestions a client may request. */
+    public static final int MAX_LIMIT = 50;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,;:()/]+");
+    private static final Pattern MINUTES = Pattern.compile("(\\d+)\\s*min");
+    private static final Pattern HOURS = Pattern.compile("(\\d+)\\s*(tim|h)");
+    // Leading words that make a free-text requirement mean "leave this ingredient out"
+    private static final Set<String> NEGATIONS = Set.of("ingen", "inga", "inget", "utan", "ej", "no", "without");
+    private static final BitSet NONE = new BitSet();
+
+    private static final Map<MealRequirementType, Set<Recipe.Contains>> EXCLUDES = new EnumMap<>(MealRequirementType.class);
+
+    static {
+        Set<Recipe.Contains> animal = EnumSet.of(Recipe.Contains.MEAT, Recipe.Contains.PORK,
+            Recipe.Contains.FISH, Recipe.Contains.SHELLFISH);
+        EXCLUDES.put(MealRequirementType.VEGETARIAN, animal);
+        Set<Recipe.Contains> vegan = EnumSet.copyOf(animal);
+        vegan.addAll(EnumSet.of(Recipe.Contains.DAIRY, Recipe.Contains.LACTOSE, Recipe.Contains.EGG));
+        EXCLUDES.put(MealRequirementType.VEGAN, vegan);
+        EXCLUDES.put(MealRequirementType.PESCETARIAN, EnumSet.of(Recipe.Contains.MEAT, Recipe.Contains.PORK));
+        EXCLUDES.put(MealRequirementType.GLUTEN_FREE, EnumSet.of(Recipe.Contains.GLUTEN));
+        EXCLUDES.put(MealRequirementType.LACTOSE_FREE, EnumSet.of(Recipe.Contains.LACTOSE));
+        EXCLUDES.put(MealRequirementType.NUT_ALLERGY, EnumSet.of(Recipe.Contains.NUTS));
+        EXCLUDES.put(MealRequirementType.EGG_FREE, EnumSet.of(Recipe.Contains.EGG));
+        EXCLUDES.put(MealRequirementType.HALAL, EnumSet.of(Recipe.Contains.PORK, Recipe.Contains.ALCOHOL));
+        EXCLUDES.put(MealRequirementType.KOSHER, EnumSet.of(Recipe.Contains.PORK, Recipe.Contains.SHELLFISH));
+        EXCLUDES.put(MealRequirementType.DIABETIC, EnumSet.of(Recipe.Contains.SUGAR));
+        EXCLUDES.put(MealRequirementType.LOW_FODMAP, EnumSet.of(Recipe.Contains.FODMAP));
+    }
+
+    /**
+     * What a user's requirements mean for recipe choice: diet codes plus catalog ingredients
+     * to leave out. Users with equal fingerprints get the same suggestions.
+     */
+    record Fingerprint(long dietMask, List<String> excludedIngredients) {
+    }
+
+    // Positions in recipes are the bit indexes used by every index
+    private record Catalog(List<Recipe> recipes, Map<Recipe.Contains, BitSet> byContains,
+                           NavigableMap<String, BitSet> byIngredient, NavigableMap<String, BitSet> byWord) {
+    }
+
+    private final MealRequirementRepository mealRequirementRepository;
+    private final int maxEntries;
+    private final Catalog catalog;
+    private final Map<Fingerprint, BitSet> cache = new ConcurrentHashMap<>();
+
+    public MealSuggestionService(MealRequirementRepository mealRequirementRepository, ObjectMapper json,
+                                 @Value("${app.meal-suggestions.catalog:classpath:recipes/catalog.json}") Resource catalog,
+                                 @Value("${app.meal-suggestions.cache.max-entries:1000}") int maxEntries) {
+        this.mealRequirementRepository = mealRequirementRepository;
+        this.maxEntries = maxEntries;
+        this.catalog = load(json, catalog);
+        logger.info("Loaded {} recipes for meal suggestions", this.catalog.recipes().size());
+    }
+
+    /**
+     * Up to {@code limit} recipes suitable for {@code userId}, optionally narrowed to those whose
+     * title or ingredients have words starting with every word of {@code query}.
+     */
+    public MealSuggestions suggest(UUID userId, String query, Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Fingerprint fingerprint = fingerprint(mealRequirementRepository.findTypeAndNotesByUserId(userId));
+
+        BitSet matches = suitable(fingerprint);
+        if (query != null && !query.isBlank()) {
+            matches = (BitSet) matches.clone();
+            for (String word : words(query)) {
+                matches.and(withPrefix(catalog.byWord(), word));
+            }
+        }
+        List<Recipe> recipes = matches.stream().limit(size).mapToObj(catalog.recipes()::get).toList();
+        return new MealSuggestions(MealRequirementType.fromMask(fingerprint.dietMask()),
+            fingerprint.excludedIngredients(), matches.cardinality(), recipes);
+    }
+
+    Fingerprint fingerprint(Collection<? extends MealRequirementRepository.TypeAndNotes> requirements) {
+        long dietMask = 0L;
+        List<String> freeText = new ArrayList<>();
+        for (MealRequirementRepository.TypeAndNotes mr : requirements) {
+            MealRequirementType code = MealRequirementService.code(mr.getType(), mr.getNotes());
+            if (code == MealRequirementType.OTHER) {
+                freeText.add(mr.getNotes());
+            } else {
+                dietMask |= code.bit();
+            }
+        }
+        return new Fingerprint(dietMask, excludedIngredients(freeText));
+    }
+
+    /**
+     * The catalog in rank order; bit {@code i} of every recipe set refers to element {@code i}.
+     */
+    List<Recipe> recipes() {
+        return catalog.recipes();
+    }
+
+    /**
+     * Recipes suitable for {@code fingerprint}, from the cache when another user with the same
+     * fingerprint has asked before. The returned set is shared; callers must not modify it.
+     */
+    BitSet suitable(Fingerprint fingerprint) {
+        BitSet suitable = cache.get(fingerprint);
+        if (suitable != null) {
+            return suitable;
+        }
+        suitable = new BitSet(catalog.recipes().size());
+        suitable.set(0, catalog.recipes().size());
+        for (MealRequirementType code : MealRequirementType.fromMask(fingerprint.dietMask())) {
+            for (Recipe.Contains contains : EXCLUDES.getOrDefault(code, Set.of())) {
+                suitable.andNot(catalog.byContains().getOrDefault(contains, NONE));
+            }
+        }
+        for (String ingredient : fingerprint.excludedIngredients()) {
+            suitable.andNot(catalog.byIngredient().get(ingredient));
+        }
+        if (cache.size() >= maxEntries) {
+            cache.clear();
+        }
+        cache.putIfAbsent(fingerprint, suitable);
+        return suitable;
+    }
+
+    /**
+     * Catalog ingredients ruled out by free-text requirements such as "Inga tomater" or "utan
+     * lök": the phrase after a leading negation is matched loosely (as a substring, or with a
+     * plural ending) against ingredient names. Phrases matching nothing are ignored.
+     */
+    private List<String> excludedIngredients(List<String> requirements) {
+        Set<String> excluded = new TreeSet<>();
+        for (String requirement : requirements) {
+            List<String> words = words(requirement);
+            if (!words.isEmpty() && NEGATIONS.contains(words.get(0))) {
+                words = words.subList(1, words.size());
+            }
+            if (words.isEmpty()) {
+                continue;
+            }
+            String phrase = String.join(" ", words);
+            for (String ingredient : catalog.byIngredient().keySet()) {
+                if (mentions(ingredient, phrase)) {
+                    excluded.add(ingredient);
+                }
+            }
+        }
+        return List.copyOf(excluded);
+    }
+
+    private static boolean mentions(String ingredient, String phrase) {
+        if (ingredient.contains(phrase)) {
+            return true;
+        }
+        // "tomater" against "tomat"
+        return phrase.indexOf(' ') < 0 && Arrays.stream(ingredient.split(" "))
+            .anyMatch(word -> word.length() >= 4 && phrase.startsWith(word));
+    }
+
+    private static BitSet withPrefix(NavigableMap<String, BitSet> index, String prefix) {
+        BitSet union = new BitSet();
+        for (BitSet recipes : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            union.or(recipes);
+        }
+        return union;
+    }
+
+    private static Catalog load(ObjectMapper json, Resource resource) {
+        List<Recipe> recipes;
+        try (InputStream in = resource.getInputStream()) {
+            recipes = new ArrayList<>(json.readValue(in, new TypeReference<List<Recipe>>() {
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recipe catalog " + resource, e);
+        }
+        recipes.sort(Comparator.comparingInt((Recipe recipe) -> minutes(recipe.cookingTime()))
+            .thenComparingInt(recipe -> recipe.ingredients().size())
+            .thenComparing(Recipe::title));
+
+        Map<Recipe.Contains, BitSet> byContains = new EnumMap<>(Recipe.Contains.class);
+        NavigableMap<String, BitSet> byIngredient = new TreeMap<>();
+        NavigableMap<String, BitSet> byWord = new TreeMap<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe recipe = recipes.get(i);
+            if (recipe.contains() != null) {
+                for (Recipe.Contains contains : recipe.contains()) {
+                    byContains.computeIfAbsent(contains, c -> new BitSet()).set(i);
+                }
+            }
+            for (String word : words(recipe.title())) {
+                byWord.computeIfAbsent(word, w -> new BitSet()).set(i);
+            }
+            for (Recipe.Ingredient ingredient : recipe.ingredients()) {
+                byIngredient.computeIfAbsent(String.join(" ", words(ingredient.item())), k -> new BitSet()).set(i);
+                for (String word : words(ingredient.item())) {
+                    byWord.computeIfAbsent(word, w -> new BitSet()).set(i);
+                }
+            }
+        }
+        return new Catalog(List.copyOf(recipes), byContains, byIngredient, byWord);
+    }
+
+    // "45 minuter", "1 timme"; unknown times rank last
+    private static int minutes(String cookingTime) {
+        if (cookingTime == null) {
+            return Integer.MAX_VALUE;
+        }
+        String text = cookingTime.toLowerCase(Locale.ROOT);
+        int minutes = 0;
+        boolean found = false;
+        Matcher hours = HOURS.matcher(text);
+        if (hours.find()) {
+            minutes += Integer.parseInt(hours.group(1)) * 60;
+            found = true;
+        }
+        Matcher mins = MINUTES.matcher(text);
+        if (mins.find()) {
+            minutes += Integer.parseInt(mins.group(1));
+            found = true;
+        }
+        return found ? minutes : Integer.MAX_VALUE;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.trim().toLowerCase(Locale.ROOT)))
+            .filter(word -> !word.isEmpty())
+            .toList();
+    }
+}
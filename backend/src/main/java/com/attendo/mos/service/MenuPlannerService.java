@@ -0,0 +1,387 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.Recipe;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.dto.WeeklyMenu;
+import com.attendo.mos.repo.MealRequirementRepository;
+import com.attendo.mos.repo.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Plans a week of meals for the whole facility from the recipe catalog.
+ * <p>
+ * Active residents are grouped by requirement fingerprint (see {@link MealSuggestionService});
+ * each group is a constraint, and every meal must offer at least one dish suitable for every
+ * group. The dish sets that do so ("covers") are found by a branch-and-bound search on a
+ * {@link ForkJoinPool}: it branches on the recipes suitable for the first group not yet served,
+ * forking the top levels of the tree, and keeps covers of at most one dish more than the
+ * smallest found, up to {@code app.menu-planner.max-dishes}. The search stops at
+ * {@code app.menu-planner.time-budget} and the menu is made from the covers found by then, or
+ * from a greedy cover if none were. Completed searches are cached by their set of groups, so
+ * the menu is replanned without searching until a resident's requirements change the groups.
+ * </p>
+ * <p>
+ * The week is then filled meal by meal with the cover whose dishes have been served least so
+ * far that week, then the one with fewest dishes.
+ * </p>
+ */
+@Service
+public class MenuPlannerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuPlannerService.class);
+
+    /** Dishes per meal when the client does not ask for a number. */
+    public static final int DEFAULT_DISHES = 3;
+    /** Most dishes per meal a client may request. */
+    public static final int MAX_DISHES = 6;
+
+    // Covers kept per search; a week has 14 meals, so this leaves plenty to vary between
+    private static final int MAX_COVERS = 64;
+    // Extra dishes over the smallest cover a meal may offer for the sake of variety
+    private static final int SLACK = 1;
+    // Branches this close to the root are forked; deeper ones run on the worker that reached them
+    private static final int FORK_DEPTH = 2;
+    private static final int MAX_PLANS = 32;
+
+    private record PlanKey(Set<MealSuggestionService.Fingerprint> groups, int maxDishes) {
+    }
+
+    private record Group(MealSuggestionService.Fingerprint fingerprint, int residentCount, BitSet suitable) {
+    }
+
+    private final MealRequirementRepository mealRequirementRepository;
+    private final UserRepository userRepository;
+    private final MealSuggestionService mealSuggestionService;
+    private final ZoneId zone;
+    private final List<String> meals;
+    private final Duration timeBudget;
+    private final ForkJoinPool pool;
+    // Covers (sorted catalog positions) of completed searches
+    private final Map<PlanKey, List<int[]>> plans = new ConcurrentHashMap<>();
+
+    public MenuPlannerService(MealRequirementRepository mealRequirementRepository, UserRepository userRepository,
+                              MealSuggestionService mealSuggestionService,
+                              @Value("${app.timezone:Europe/Stockholm}") String timezone,
+                              @Value("${app.menu-planner.meals:Lunch,Middag}") String[] meals,
+                              @Value("${app.menu-planner.time-budget:PT5S}") Duration timeBudget,
+                              @Value("${app.menu-planner.parallelism:0}") int parallelism) {
+        this.mealRequirementRepository = mealRequirementRepository;
+        this.userRepository = userRepository;
+        this.mealSuggestionService = mealSuggestionService;
+        this.zone = ZoneId.of(timezone);
+        this.meals = List.of(meals);
+        this.timeBudget = timeBudget;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("menu-planner-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+    }
+
+    /**
+     * The menu for the week starting {@code weekStart} (next Monday when null), offering at most
+     * {@code maxDishes} dishes per meal where the catalog allows it.
+     */
+    public WeeklyMenu plan(LocalDate weekStart, Integer maxDishes) {
+        int dishes = maxDishes == null ? DEFAULT_DISHES : maxDishes;
+        if (dishes < 1 || dishes > MAX_DISHES) {
+            throw new IllegalArgumentException("maxDishes must be between 1 and " + MAX_DISHES);
+        }
+        LocalDate start = weekStart != null ? weekStart
+            : LocalDate.now(zone).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        int residentCount = (int) userRepository.countByUserTypeAndIsActiveTrue(UserType.RESIDENT);
+        List<Group> groups = groups(residentCount);
+        List<Group> served = groups.stream().filter(group -> !group.suitable().isEmpty()).toList();
+        List<Group> unserved = groups.stream().filter(group -> group.suitable().isEmpty()).toList();
+
+        List<Recipe> recipes = mealSuggestionService.recipes();
+        BitSet[] serves = new BitSet[recipes.size()];
+        Arrays.setAll(serves, i -> new BitSet(served.size()));
+        for (int g = 0; g < served.size(); g++) {
+            BitSet suitable = served.get(g).suitable();
+            for (int recipe = suitable.nextSetBit(0); recipe >= 0; recipe = suitable.nextSetBit(recipe + 1)) {
+                serves[recipe].set(g);
+            }
+        }
+
+        PlanKey key = new PlanKey(served.stream().map(Group::fingerprint).collect(Collectors.toSet()), dishes);
+        List<int[]> covers = plans.get(key);
+        boolean complete = true;
+        if (covers == null) {
+            long started = System.nanoTime();
+            Search search = new Search(serves, served, dishes, started + timeBudget.toNanos());
+            covers = search.run(pool);
+            complete = !search.timedOut;
+            logger.info("Planned menu for {} resident groups in {} ms: {} dish combinations{}", served.size(),
+                (System.nanoTime() - started) / 1_000_000, covers.size(), complete ? "" : " (time budget reached)");
+            if (complete) {
+                if (plans.size() >= MAX_PLANS) {
+                    plans.clear();
+                }
+                plans.put(key, covers);
+            }
+        }
+
+        int[] used = new int[recipes.size()];
+        List<WeeklyMenu.Day> days = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            List<WeeklyMenu.Meal> dayMeals = new ArrayList<>(meals.size());
+            for (String meal : meals) {
+                int[] cover = freshest(covers, used);
+                List<WeeklyMenu.Dish> dayDishes = new ArrayList<>(cover.length);
+                for (int recipe : cover) {
+                    used[recipe]++;
+                    int residents = serves[recipe].stream().map(g -> served.get(g).residentCount()).sum();
+                    dayDishes.add(new WeeklyMenu.Dish(recipes.get(recipe).id(), recipes.get(recipe).title(), residents));
+                }
+                dayMeals.add(new WeeklyMenu.Meal(meal, dayDishes));
+            }
+            days.add(new WeeklyMenu.Day(start.plusDays(day), dayMeals));
+        }
+        return new WeeklyMenu(start, residentCount, served.stream().map(MenuPlannerService::toDto).toList(),
+            unserved.stream().map(MenuPlannerService::toDto).toList(), days, complete);
+    }
+
+    /**
+     * Active residents grouped by fingerprint, largest group first. Residents without
+     * requirements form the group with the empty fingerprint.
+     */
+    private List<Group> groups(int residentCount) {
+        Map<UUID, List<MealRequirementRepository.ResidentTypeAndNotes>> byResident = mealRequirementRepository
+            .findActiveResidentTypeAndNotes().stream()
+            .collect(Collectors.groupingBy(MealRequirementRepository.ResidentTypeAndNotes::getUserId));
+        Map<MealSuggestionService.Fingerprint, Integer> counts = new HashMap<>();
+        byResident.values().forEach(requirements ->
+            counts.merge(mealSuggestionService.fingerprint(requirements), 1, Integer::sum));
+        if (residentCount > byResident.size()) {
+            counts.merge(new MealSuggestionService.Fingerprint(0L, List.of()), residentCount - byResident.size(),
+                Integer::sum);
+        }
+        return counts.entrySet().stream()
+            .map(e -> new Group(e.getKey(), e.getValue(), mealSuggestionService.suitable(e.getKey())))
+            .sorted(Comparator.comparingInt(Group::residentCount).reversed()
+                .thenComparingLong(group -> group.fingerprint().dietMask())
+                .thenComparing(group -> String.join(",", group.fingerprint().excludedIngredients())))
+            .toList();
+    }
+
+    private static int[] freshest(List<int[]> covers, int[] used) {
+        int[] best = null;
+        int bestUsed = Integer.MAX_VALUE;
+        for (int[] cover : covers) {
+            int coverUsed = 0;
+            for (int recipe : cover) {
+                coverUsed += used[recipe];
+            }
+            // Covers are sorted by size, so the first of equally fresh ones is the smallest
+            if (coverUsed < bestUsed) {
+                best = cover;
+                bestUsed = coverUsed;
+            }
+        }
+        return best;
+    }
+
+    private static WeeklyMenu.Group toDto(Group group) {
+        return new WeeklyMenu.Group(MealRequirementType.fromMask(group.fingerprint().dietMask()),
+            group.fingerprint().excludedIngredients(), group.residentCount());
+    }
+
+    /**
+     * One cover search. {@code serves[r]} holds the groups recipe {@code r} is suitable for;
+     * the groups' candidate recipes are tried most widely suitable first.
+     */
+    private static final class Search {
+        private final BitSet[] serves;
+        private final int[][] candidates;
+        private final int groupCount;
+        private final int maxDishes;
+        private final long deadline;
+        private final AtomicInteger smallest = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger found = new AtomicInteger();
+        private final Queue<int[]> covers = new ConcurrentLinkedQueue<>();
+        private volatile boolean timedOut;
+
+        Search(BitSet[] serves, List<Group> groups, int maxDishes, long deadline) {
+            this.serves = serves;
+            this.groupCount = groups.size();
+            this.maxDishes = maxDishes;
+            this.deadline = deadline;
+            this.candidates = new int[groupCount][];
+            Comparator<Integer> widest = Comparator.comparingInt((Integer r) -> serves[r].cardinality()).reversed()
+                .thenComparingInt(r -> r);
+            for (int g = 0; g < groupCount; g++) {
+                candidates[g] = groups.get(g).suitable().stream().boxed().sorted(widest).mapToInt(r -> r).toArray();
+            }
+        }
+
+        List<int[]> run(ForkJoinPool pool) {
+            int[] greedy = greedy();
+            if (greedy.length <= maxDishes) {
+                smallest.set(greedy.length);
+            }
+            pool.invoke(new Branch(this, new BitSet(groupCount), new BitSet(serves.length), new int[0]));
+
+            int limit = Math.min(maxDishes, smallest.get() + SLACK);
+            List<int[]> result = covers.stream()
+                .filter(cover -> cover.length <= limit)
+                .sorted(Comparator.<int[]>comparingInt(cover -> cover.length)
+                    .thenComparingInt(cover -> Arrays.stream(cover).sum())
+                    .thenComparing(Arrays::compare))
+                .limit(MAX_COVERS)
+                .toList();
+            return result.isEmpty() ? List.of(greedy) : result;
+        }
+
+        // Largest branch allowed: room to vary until enough covers are found, then only smaller ones
+        int limit() {
+            int best = smallest.get();
+            int bound = found.get() < MAX_COVERS ? (best == Integer.MAX_VALUE ? best : best + SLACK) : best - 1;
+            return Math.min(maxDishes, bound);
+        }
+
+        boolean expired() {
+            if (System.nanoTime() - deadline > 0) {
+                timedOut = true;
+            }
+            return timedOut;
+        }
+
+        void offer(int[] chosen) {
+            if (!irredundant(chosen)) {
+                return;
+            }
+            int[] cover = chosen.clone();
+            Arrays.sort(cover);
+            smallest.accumulateAndGet(cover.length, Math::min);
+            covers.add(cover);
+            found.incrementAndGet();
+        }
+
+        // Every dish serves some group no other dish in the cover does
+        private boolean irredundant(int[] chosen) {
+            for (int skip = 0; skip < chosen.length; skip++) {
+                BitSet others = new BitSet(groupCount);
+                for (int i = 0; i < chosen.length; i++) {
+                    if (i != skip) {
+                        others.or(serves[chosen[i]]);
+                    }
+                }
+                if (others.cardinality() == groupCount) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Repeatedly the recipe serving most unserved groups, lowest rank on ties
+        private int[] greedy() {
+            BitSet covered = new BitSet(groupCount);
+            List<Integer> chosen = new ArrayList<>();
+            while (covered.cardinality() < groupCount) {
+                int best = -1;
+                int bestGain = 0;
+                for (int r = 0; r < serves.length; r++) {
+                    BitSet gain = (BitSet) serves[r].clone();
+                    gain.andNot(covered);
+                    if (gain.cardinality() > bestGain) {
+                        best = r;
+                        bestGain = gain.cardinality();
+                    }
+                }
+                chosen.add(best);
+                covered.or(serves[best]);
+            }
+            return chosen.stream().mapToInt(r -> r).sorted().toArray();
+        }
+    }
+
+    /**
+     * Extends {@code chosen} with each candidate for the first unserved group. Candidates tried
+     * in earlier sibling branches are excluded below, so every cover is reached once.
+     */
+    private static final class Branch extends RecursiveAction {
+        private final Search search;
+        private final BitSet covered;
+        private final BitSet excluded;
+        private final int[] chosen;
+
+        Branch(Search search, BitSet covered, BitSet excluded, int[] chosen) {
+            this.search = search;
+            this.covered = covered;
+            this.excluded = excluded;
+            this.chosen = chosen;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.expired()) {
+                return;
+            }
+            int group = covered.nextClearBit(0);
+            if (group >= search.groupCount) {
+                search.offer(chosen);
+                return;
+            }
+            if (chosen.length + 1 > search.limit()) {
+                return;
+            }
+            List<Branch> forks = chosen.length < FORK_DEPTH ? new ArrayList<>() : null;
+            BitSet siblings = (BitSet) excluded.clone();
+            for (int recipe : search.candidates[group]) {
+                if (siblings.get(recipe)) {
+                    continue;
+                }
+                BitSet next = (BitSet) covered.clone();
+                next.or(search.serves[recipe]);
+                int[] path = Arrays.copyOf(chosen, chosen.length + 1);
+                path[chosen.length] = recipe;
+                Branch branch = new Branch(search, next, (BitSet) siblings.clone(), path);
+                siblings.set(recipe);
+                if (forks != null) {
+                    forks.add(branch);
+                } else {
+                    branch.compute();
+                }
+            }
+            if (forks != null) {
+                invokeAll(forks);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
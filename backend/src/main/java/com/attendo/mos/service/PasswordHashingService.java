@@ -0,0 +1,182 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.errors.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs login password checks on a dedicated, bounded executor.
+ * <p>
+ * BCrypt is deliberately CPU-heavy; doing it on request threads lets a burst of logins starve
+ * every other endpoint. Here at most {@code app.login.hash-threads} checks run at once (default:
+ * one per core) with up to {@code app.login.queue-capacity} waiting. A login that finds the queue
+ * full is rejected at once with {@link LoginThrottledException}; one whose caller has waited
+ * {@code app.login.wait-timeout} is rejected too, and its check is cancelled so it does not hold
+ * a queue slot or start hashing for a client that already got 429. A check that has started runs
+ * to completion, since BCrypt does not respond to interrupts. Identical concurrent attempts for
+ * the same account (same stored hash and password) share one computation, which is cancelled only
+ * when every caller waiting on it has given up.
+ * </p>
+ */
+@Service
+public class PasswordHashingService {
+
+    // One in-flight check and the callers waiting on it; waiters is guarded by inFlight's compute
+    private static final class Attempt {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        volatile Future<?> task;
+        int waiters = 1;
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration waitTimeout;
+    private final Map<String, Attempt> inFlight = new ConcurrentHashMap<>();
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+    private final Counter deduplicated;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${app.login.hash-threads:0}") int threads,
+                                  @Value("${app.login.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.login.wait-timeout:PT10S}") Duration waitTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.waitTimeout = waitTimeout;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.hash").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.rejected = Counter.builder("auth.login.rejected").register(meterRegistry);
+        this.deduplicated = Counter.builder("auth.login.deduplicated").register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Check {@code rawPassword} against {@code passwordHash} for the given account.
+     *
+     * @throws LoginThrottledException if the executor is saturated or the wait times out
+     */
+    public boolean matches(UUID userId, String rawPassword, String passwordHash) {
+        String key = userId + ":" + digest(passwordHash, rawPassword);
+        Attempt mine = new Attempt();
+        Attempt attempt = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return mine;
+            }
+            existing.waiters++;
+            return existing;
+        });
+        if (attempt == mine) {
+            submit(key, mine, rawPassword, passwordHash);
+        } else {
+            deduplicated.increment();
+        }
+        return await(key, attempt);
+    }
+
+    private void submit(String key, Attempt attempt, String rawPassword, String passwordHash) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            attempt.task = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    attempt.result.complete(hashTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash)));
+                } catch (RuntimeException e) {
+                    attempt.result.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, attempt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, attempt);
+            rejected.increment();
+            attempt.result.completeExceptionally(new LoginThrottledException("Too many login attempts, try again shortly"));
+        }
+    }
+
+    private boolean await(String key, Attempt attempt) {
+        try {
+            return attempt.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(key, attempt);
+            rejected.increment();
+            throw new LoginThrottledException("Too many login attempts, try again shortly");
+        } catch (InterruptedException e) {
+            abandon(key, attempt);
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Login interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // The last caller to give up cancels the check and frees its queue slot right away
+    private void abandon(String key, Attempt attempt) {
+        boolean[] last = new boolean[1];
+        inFlight.computeIfPresent(key, (k, current) -> {
+            if (current != attempt || --current.waiters > 0) {
+                return current;
+            }
+            last[0] = true;
+            return null;
+        });
+        Future<?> task = attempt.task;
+        if (last[0] && task != null) {
+            task.cancel(true);
+            executor.remove((Runnable) task);
+        }
+    }
+
+    // Dedup key only; never stored beyond the in-flight check
+    private static String digest(String passwordHash, String rawPassword) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(passwordHash.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.RecurrenceRule;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Converts reminders still holding the legacy jsonb recurrence into the typed
+ * {@code recurrence_days} / {@code recurrence_minutes} columns (V16).
+ * <p>
+ * Runs once after startup in chunks of {@code app.recurrence-backfill.chunk-size} rows. Each
+ * chunk is committed on its own and only rows whose typed columns are still NULL are selected,
+ * so an interrupted run simply resumes where it stopped on the next start. Unparseable entries
+ * are dropped the same way the lenient reader always did; the original jsonb is left untouched.
+ * </p>
+ * <p>
+ * V25 performs the same conversion during migration, so this normally finds nothing; it only
+ * picks up rows written in the legacy form by an older instance during a rolling deploy.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.recurrence-backfill", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RecurrenceBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurrenceBackfillJob.class);
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    private record Row(UUID id, UUID userId, String json) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+
+    public RecurrenceBackfillJob(JdbcTemplate jdbc, ObjectMapper json, ApplicationEventPublisher events,
+                                 @Value("${app.recurrence-backfill.chunk-size:500}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.json = json;
+        this.events = events;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            int total = run();
+            if (total > 0) {
+                logger.info("Backfilled typed recurrence for {} reminders", total);
+            }
+        } catch (DataAccessException e) {
+            // Progress is kept per chunk; the next start picks up the remaining rows
+            logger.warn("Recurrence backfill stopped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Convert every pending row. Returns the number of rows converted.
+     */
+    public int run() {
+        int total = 0;
+        UUID after = new UUID(0, 0); // smallest uuid in Postgres ordering
+        while (true) {
+            List<Row> chunk = jdbc.query(
+                    "select id, user_id, recurrence::text from reminder " +
+                            "where recurrence is not null and recurrence_days is null " +
+                            "and lower(type) = 'recurring' and id > ? order by id limit ?",
+                    (rs, i) -> new Row(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getString(3)),
+                    after, chunkSize);
+            if (chunk.isEmpty()) {
+                return total;
+            }
+            convert(chunk);
+            total += chunk.size();
+            after = chunk.get(chunk.size() - 1).id();
+            // Let the occurrence cache and dispatcher pick up the newly readable rules
+            for (Row row : chunk) {
+                events.publishEvent(new ReminderChangedEvent(row.userId(), row.id()));
+            }
+        }
+    }
+
+    private void convert(List<Row> chunk) {
+        List<RecurrenceRule> rules = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            rules.add(parse(row));
+        }
+        jdbc.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "update reminder set recurrence_days = ?, recurrence_minutes = ? " +
+                            "where id = ? and recurrence_days is null")) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    RecurrenceRule rule = rules.get(i);
+                    short[] minutes = rule.minutesArray();
+                    Short[] boxed = new Short[minutes.length];
+                    for (int m = 0; m < minutes.length; m++) {
+                        boxed[m] = minutes[m];
+                    }
+                    Array array = con.createArrayOf("smallint", boxed);
+                    ps.setShort(1, (short) rule.dayMask());
+                    ps.setArray(2, array);
+                    ps.setObject(3, chunk.get(i).id());
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            }
+        });
+    }
+
+    private RecurrenceRule parse(Row row) {
+        try {
+            Map<String, Object> map = json.readValue(row.json(), MAP);
+            return RecurrenceRule.parse(
+                    map.get("days") instanceof Collection<?> days ? days : null,
+                    map.get("times") instanceof Collection<?> times ? times : null);
+        } catch (Exception e) {
+            logger.warn("Unreadable recurrence on reminder {}; storing an empty rule", row.id());
+            return RecurrenceRule.parse(null, null);
+        }
+    }
+}
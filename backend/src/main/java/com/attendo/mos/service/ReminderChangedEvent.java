@@ -0,0 +1,9 @@
+package com.attendo.mos.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link ReminderService} after a reminder has been created, updated or deleted.
+ */
+public record ReminderChangedEvent(UUID userId, UUID reminderId) {
+}
@@ -0,0 +1,436 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.ScheduledReminder;
+import com.attendo.mos.repo.ReminderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fires due reminder occurrences for the whole facility.
+ * <p>
+ * Occurrences within the next {@code app.dispatcher.horizon} are loaded into a
+ * {@link TimingWheel} and topped up every {@code app.dispatcher.refill-interval}. Changes made
+ * through {@link ReminderService} re-schedule only the affected reminder. Due occurrences are
+ * handed to every {@link ReminderSink} on a bounded delivery pool so slow sinks never delay
+ * the wheel.
+ * </p>
+ * <p>
+ * Every instance loads and fires the same occurrences. Before delivering, the delivery pool
+ * claims the occurrence with an insert into {@code reminder_dispatch} keyed by reminder and
+ * occurrence time; only the instance whose insert succeeds hands it to the sinks, so each
+ * occurrence is delivered once however many instances run. If the claim itself fails the
+ * occurrence is delivered anyway: a duplicate is preferable to a missed reminder. Claims older
+ * than {@code app.dispatcher.claim-retention} are pruned on refill.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.dispatcher", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderDispatcher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_LEVELS = 3;
+    private static final int RESCHEDULE_CHUNK = 500;
+
+    private record Pending(ScheduledReminder reminder, long atMs) {
+    }
+
+    private final ReminderRepository reminders;
+    private final JdbcTemplate jdbc;
+    private final List<ReminderSink> sinks;
+    private final ZoneId zone;
+    private final Clock clock = Clock.systemUTC();
+
+    private final long tickMs;
+    private final Duration horizon;
+    private final Duration refillInterval;
+    private final int maxPending;
+    private final Duration drainTimeout;
+    private final int deliveryThreads;
+    private final int deliveryQueue;
+    private final Duration claimRetention;
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private TimingWheel<Pending> wheel;
+    private final Map<UUID, List<TimingWheel.Timeout<Pending>>> byReminder = new HashMap<>();
+
+    // Reminders changed since the last reschedule pass
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rescheduleQueued = new AtomicBoolean();
+
+    // Only touched on the maintenance thread
+    private Instant loadedUntil;
+
+    private ScheduledExecutorService ticker;
+    private ScheduledExecutorService maintenance;
+    private ThreadPoolExecutor delivery;
+    private volatile boolean running;
+
+    private final Timer lag;
+    private final Counter fired;
+    private final Counter claimedElsewhere;
+    private final Counter droppedCapacity;
+    private final Counter droppedBackpressure;
+
+    public ReminderDispatcher(ReminderRepository reminders,
+                              JdbcTemplate jdbc,
+                              List<ReminderSink> sinks,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.timezone:Europe/Stockholm}") String timezone,
+                              @Value("${app.dispatcher.tick-ms:100}") long tickMs,
+                              @Value("${app.dispatcher.horizon:PT12H}") Duration horizon,
+                              @Value("${app.dispatcher.refill-interval:PT1H}") Duration refillInterval,
+                              @Value("${app.dispatcher.max-pending:250000}") int maxPending,
+                              @Value("${app.dispatcher.drain-timeout:PT10S}") Duration drainTimeout,
+                              @Value("${app.dispatcher.delivery-threads:2}") int deliveryThreads,
+                              @Value("${app.dispatcher.delivery-queue:10000}") int deliveryQueue,
+                              @Value("${app.dispatcher.claim-retention:P1D}") Duration claimRetention) {
+        if (refillInterval.compareTo(horizon) >= 0) {
+            throw new IllegalArgumentException("app.dispatcher.refill-interval must be shorter than app.dispatcher.horizon");
+        }
+        this.reminders = reminders;
+        this.jdbc = jdbc;
+        this.sinks = List.copyOf(sinks);
+        this.zone = ZoneId.of(timezone);
+        this.tickMs = tickMs;
+        this.horizon = horizon;
+        this.refillInterval = refillInterval;
+        this.maxPending = maxPending;
+        this.drainTimeout = drainTimeout;
+        this.deliveryThreads = deliveryThreads;
+        this.deliveryQueue = deliveryQueue;
+        this.claimRetention = claimRetention;
+
+        this.lag = Timer.builder("reminder.dispatcher.lag")
+            .description("Delay between an occurrence's scheduled time and its dispatch")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.fired = Counter.builder("reminder.dispatcher.fired").register(meterRegistry);
+        this.claimedElsewhere = Counter.builder("reminder.dispatcher.claimed-elsewhere")
+            .description("Due occurrences already delivered by another instance")
+            .register(meterRegistry);
+        this.droppedCapacity = Counter.builder("reminder.dispatcher.dropped")
+            .tag("reason", "capacity").register(meterRegistry);
+        this.droppedBackpressure = Counter.builder("reminder.dispatcher.dropped")
+            .tag("reason", "backpressure").register(meterRegistry);
+        Gauge.builder("reminder.dispatcher.pending", this, ReminderDispatcher::pendingCount)
+            .description("Occurrences waiting in the timing wheel")
+            .register(meterRegistry);
+        Gauge.builder("reminder.dispatcher.delivery.queue", this, d -> d.delivery == null ? 0 : d.delivery.getQueue().size())
+            .description("Due occurrences waiting for a sink")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            wheel = new TimingWheel<>(tickMs, WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+            byReminder.clear();
+        }
+        loadedUntil = null;
+        // The initial refill covers anything changed while stopped
+        changed.clear();
+        rescheduleQueued.set(false);
+        delivery = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(deliveryQueue),
+            Thread.ofPlatform().name("reminder-delivery-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        maintenance = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reminder-dispatcher-refill").daemon().factory());
+        ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reminder-dispatcher-tick").daemon().factory());
+
+        running = true;
+        maintenance.scheduleWithFixedDelay(this::refill, 0, refillInterval.toMillis(), TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("Reminder dispatcher started (tick={}ms, horizon={})", tickMs, horizon);
+    }
+
+    /**
+     * Stop loading and ticking, fire whatever is already due and wait for sinks to finish.
+     * Occurrences further ahead are simply reloaded from the database on the next start.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        maintenance.shutdownNow();
+        ticker.shutdown();
+        try {
+            if (!ticker.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                ticker.shutdownNow();
+            }
+            tick();
+            delivery.shutdown();
+            if (!delivery.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Reminder delivery did not drain within {}; {} occurrences dropped",
+                    drainTimeout, delivery.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            delivery.shutdownNow();
+        }
+        logger.info("Reminder dispatcher stopped ({} occurrences left pending)", pendingCount());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Re-schedule a single reminder after it was created, updated or deleted. Runs after the
+     * surrounding transaction commits, on the maintenance thread so it is serialised with refills.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderChanged(ReminderChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        try {
+            changed.add(event.reminderId());
+            // Coalesce bursts (e.g. a bulk import) into one reload on the maintenance thread
+            if (rescheduleQueued.compareAndSet(false, true)) {
+                maintenance.execute(this::rescheduleChanged);
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Drop everything scheduled for a purged user's reminders, on the maintenance thread.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRemindersPurged(UserRemindersPurgedEvent event) {
+        if (!running) {
+            return;
+        }
+        try {
+            maintenance.execute(() -> dropUser(event.userId()));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    int pendingCount() {
+        synchronized (lock) {
+            return wheel == null ? 0 : wheel.size();
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Pending> due = new ArrayList<>();
+            synchronized (lock) {
+                wheel.advanceTo(clock.millis(), due::add);
+                for (Pending pending : due) {
+                    forget(pending.reminder().id());
+                }
+            }
+            for (Pending pending : due) {
+                deliver(pending);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.error("Reminder dispatcher tick failed", e);
+        }
+    }
+
+    private void deliver(Pending pending) {
+        ScheduledReminder r = pending.reminder();
+        Instant firedAt = clock.instant();
+        lag.record(Math.max(0, firedAt.toEpochMilli() - pending.atMs()), TimeUnit.MILLISECONDS);
+        ReminderDueEvent event = new ReminderDueEvent(r.id(), r.userId(), Instant.ofEpochMilli(pending.atMs()),
+            firedAt, r.type(), r.category(), r.note());
+        try {
+            delivery.execute(() -> {
+                if (!claim(r.id(), pending.atMs())) {
+                    claimedElsewhere.increment();
+                    return;
+                }
+                fired.increment();
+                for (ReminderSink sink : sinks) {
+                    try {
+                        sink.onDue(event);
+                    } catch (RuntimeException e) {
+                        logger.warn("Reminder sink {} failed for reminder {}", sink.getClass().getSimpleName(), r.id(), e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedBackpressure.increment();
+        }
+    }
+
+    /**
+     * Claim one occurrence for this instance. Returns {@code false} if another instance already did.
+     */
+    private boolean claim(UUID reminderId, long atMs) {
+        try {
+            return jdbc.update("insert into reminder_dispatch (reminder_id, occurrence_at) values (?, ?) " +
+                "on conflict do nothing", reminderId, new Timestamp(atMs)) > 0;
+        } catch (DataAccessException e) {
+            logger.warn("Could not claim reminder {} at {}; delivering unclaimed", reminderId, Instant.ofEpochMilli(atMs), e);
+            return true;
+        }
+    }
+
+    private void pruneClaims(Instant now) {
+        try {
+            jdbc.update("delete from reminder_dispatch where occurrence_at < ?", Timestamp.from(now.minus(claimRetention)));
+        } catch (DataAccessException e) {
+            logger.warn("Reminder dispatch claim pruning failed", e);
+        }
+    }
+
+    private void refill() {
+        try {
+            Instant now = clock.instant();
+            Instant from = loadedUntil == null || loadedUntil.isBefore(now) ? now : loadedUntil;
+            Instant to = now.plus(horizon);
+            if (!from.isBefore(to)) {
+                return;
+            }
+            List<ScheduledReminder> candidates = new ArrayList<>(reminders.scheduleOnceBetween(
+                OffsetDateTime.ofInstant(from, ZoneOffset.UTC), OffsetDateTime.ofInstant(to, ZoneOffset.UTC)));
+            candidates.addAll(reminders.scheduleRecurring());
+
+            int before;
+            int after;
+            synchronized (lock) {
+                before = wheel.size();
+                for (ScheduledReminder r : candidates) {
+                    schedule(r, from, to);
+                }
+                after = wheel.size();
+            }
+            loadedUntil = to;
+            pruneClaims(now);
+            logger.debug("Reminder dispatcher loaded {} occurrences for [{}, {})", after - before, from, to);
+        } catch (RuntimeException e) {
+            logger.error("Reminder dispatcher refill failed", e);
+        }
+    }
+
+    private void rescheduleChanged() {
+        rescheduleQueued.set(false);
+        List<UUID> ids = new ArrayList<>();
+        for (var it = changed.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        for (int from = 0; from < ids.size(); from += RESCHEDULE_CHUNK) {
+            reschedule(ids.subList(from, Math.min(ids.size(), from + RESCHEDULE_CHUNK)));
+        }
+    }
+
+    private void reschedule(List<UUID> reminderIds) {
+        try {
+            Map<UUID, ScheduledReminder> current = new HashMap<>();
+            for (ScheduledReminder r : reminders.scheduleByIds(reminderIds)) {
+                current.put(r.id(), r);
+            }
+            Instant now = clock.instant();
+            synchronized (lock) {
+                for (UUID reminderId : reminderIds) {
+                    List<TimingWheel.Timeout<Pending>> previous = byReminder.remove(reminderId);
+                    if (previous != null) {
+                        previous.forEach(wheel::cancel);
+                    }
+                    ScheduledReminder r = current.get(reminderId);
+                    if (r != null && loadedUntil != null && now.isBefore(loadedUntil)) {
+                        schedule(r, now, loadedUntil);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Reminder dispatcher failed to re-schedule {} reminders", reminderIds.size(), e);
+        }
+    }
+
+    private void dropUser(UUID userId) {
+        synchronized (lock) {
+            for (var it = byReminder.values().iterator(); it.hasNext(); ) {
+                List<TimingWheel.Timeout<Pending>> timeouts = it.next();
+                if (!timeouts.isEmpty() && timeouts.get(0).payload.reminder().userId().equals(userId)) {
+                    timeouts.forEach(wheel::cancel);
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    // Caller holds lock
+    private void schedule(ScheduledReminder r, Instant from, Instant to) {
+        if (r.onceAt() != null) {
+            if (!r.onceAt().isBefore(from) && r.onceAt().isBefore(to)) {
+                add(r, r.onceAt().toEpochMilli());
+            }
+        } else if (r.rule() != null) {
+            r.rule().forEachOccurrence(from, to, zone, at -> add(r, at.toEpochMilli()));
+        }
+    }
+
+    // Caller holds lock
+    private void add(ScheduledReminder r, long atMs) {
+        if (wheel.size() >= maxPending) {
+            droppedCapacity.increment();
+            return;
+        }
+        TimingWheel.Timeout<Pending> timeout = wheel.add(atMs, new Pending(r, atMs));
+        if (timeout == null) {
+            droppedCapacity.increment();
+            return;
+        }
+        byReminder.computeIfAbsent(r.id(), id -> new ArrayList<>(2)).add(timeout);
+    }
+
+    // Caller holds lock
+    private void forget(UUID reminderId) {
+        List<TimingWheel.Timeout<Pending>> timeouts = byReminder.get(reminderId);
+        if (timeouts != null) {
+            timeouts.removeIf(t -> !t.isPending());
+            if (timeouts.isEmpty()) {
+                byReminder.remove(reminderId);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.attendo.mos.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Emitted by {@link ReminderDispatcher} when a reminder occurrence is due.
+ */
+public record ReminderDueEvent(
+        UUID reminderId,
+        UUID userId,
+        Instant scheduledAt, // occurrence time
+        Instant firedAt, // when the dispatcher fired it
+        String type,
+        String category,
+        String note) {
+}
@@ -0,0 +1,351 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.ReminderEventAction;
+import com.attendo.mos.errors.ReminderEventsThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-commit writer for the {@code reminder_event} table (V24).
+ * <p>
+ * Request threads queue validated events and wait; one writer thread drains whatever has queued
+ * up, up to {@code app.reminder-events.batch-size} events, into a single statement that inserts
+ * the events and adds them to the {@code reminder_adherence} counters. An occurrence's first
+ * outcome wins and later ones are dropped by the partial unique index, so a batch never fails
+ * on a duplicate. Nothing here touches {@code reminder}, and counters are only ever written by
+ * this thread, so ingestion does not contend on rows with anything else.
+ * </p>
+ * <p>
+ * At most {@code app.reminder-events.queue-capacity} events wait at once; beyond that, or after
+ * {@code app.reminder-events.wait-timeout}, callers get {@link ReminderEventsThrottledException}.
+ * A caller that times out withdraws its events, so a 429 always means none of them were stored
+ * and a retry cannot record a snooze twice; if the writer has already picked them up, the caller
+ * waits for that write instead and gets its result. Monthly partitions are
+ * created on startup and daily, from the previous month to
+ * {@code app.reminder-events.partitions-ahead} months ahead.
+ * </p>
+ */
+@Service
+public class ReminderEventIngestor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderEventIngestor.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String INSERT = "with e as (select * from "
+        + "unnest(?::uuid[], ?::uuid[], ?::text[], ?::timestamptz[], ?::text[], ?::timestamptz[], ?::uuid[]) "
+        + "with ordinality as e(reminder_id, user_id, category, occurrence_at, action, acted_at, recorded_by, n)), "
+        + "ins as (insert into reminder_event (reminder_id, user_id, category, occurrence_at, action, acted_at, recorded_by) "
+        + "select reminder_id, user_id, category, occurrence_at, action, acted_at, recorded_by from e order by n "
+        + "on conflict (reminder_id, occurrence_at) where action <> 'SNOOZED' do nothing "
+        + "returning reminder_id, user_id, category, occurrence_at, action, acted_at), "
+        + "counted as (insert into reminder_adherence (user_id, month, category, acknowledged, on_time, snoozed, missed) "
+        + "select user_id, date_trunc('month', occurrence_at at time zone ?)::date, category, "
+        + "count(*) filter (where action = 'ACKNOWLEDGED'), "
+        + "count(*) filter (where action = 'ACKNOWLEDGED' and acted_at between "
+        + "occurrence_at - make_interval(secs => ?) and occurrence_at + make_interval(secs => ?)), "
+        + "count(*) filter (where action = 'SNOOZED'), "
+        + "count(*) filter (where action = 'MISSED') "
+        + "from ins group by 1, 2, 3 "
+        + "on conflict (user_id, month, category) do update set "
+        + "acknowledged = reminder_adherence.acknowledged + excluded.acknowledged, "
+        + "on_time = reminder_adherence.on_time + excluded.on_time, "
+        + "snoozed = reminder_adherence.snoozed + excluded.snoozed, "
+        + "missed = reminder_adherence.missed + excluded.missed) "
+        + "select reminder_id, occurrence_at, action from ins";
+
+    /** One validated event, ready to store. */
+    public record Event(UUID reminderId, UUID userId, String category, Instant occurrenceAt,
+                        ReminderEventAction action, Instant actedAt, UUID recordedBy) {
+    }
+
+    record Submission(List<Event> events, CompletableFuture<Integer> recorded, AtomicBoolean taken) {
+
+        Submission(List<Event> events) {
+            this(events, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        /** Claim the submission, for the writer or for a caller withdrawing it; only one wins. */
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    private record Key(UUID reminderId, Instant occurrenceAt, String action) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ZoneId zone;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final Duration waitTimeout;
+    private final long onTimeSeconds;
+    private final int partitionsAhead;
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer writeTimer;
+    private final Counter rejected;
+
+    private Thread writer;
+    private ScheduledExecutorService maintenance;
+    private volatile boolean running;
+
+    public ReminderEventIngestor(JdbcTemplate jdbc, MeterRegistry meterRegistry,
+                                 @Value("${app.timezone:Europe/Stockholm}") String timezone,
+                                 @Value("${app.reminder-events.batch-size:1000}") int batchSize,
+                                 @Value("${app.reminder-events.queue-capacity:20000}") int queueCapacity,
+                                 @Value("${app.reminder-events.wait-timeout:PT10S}") Duration waitTimeout,
+                                 @Value("${app.reminder-events.on-time-window:PT30M}") Duration onTimeWindow,
+                                 @Value("${app.reminder-events.partitions-ahead:2}") int partitionsAhead) {
+        this.jdbc = jdbc;
+        this.zone = ZoneId.of(timezone);
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.waitTimeout = waitTimeout;
+        this.onTimeSeconds = onTimeWindow.toSeconds();
+        this.partitionsAhead = partitionsAhead;
+        this.writeTimer = Timer.builder("reminder.events.write")
+            .description("Time to write one batch of reminder events")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("reminder.events.rejected")
+            .description("Reminder events turned away because the queue was full or the wait timed out")
+            .register(meterRegistry);
+        Gauge.builder("reminder.events.queued", queued, AtomicInteger::get)
+            .description("Reminder events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue {@code events} and wait until they are stored. Returns how many were recorded; the
+     * rest were outcomes for occurrences that already had one.
+     *
+     * @throws ReminderEventsThrottledException if the queue is full or the wait times out
+     */
+    public int submit(List<Event> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        if (!running) {
+            throw new ReminderEventsThrottledException("Reminder events are not being accepted right now");
+        }
+        if (queued.addAndGet(events.size()) > queueCapacity) {
+            queued.addAndGet(-events.size());
+            rejected.increment(events.size());
+            throw new ReminderEventsThrottledException("Too many reminder events, try again shortly");
+        }
+        Submission submission = new Submission(List.copyOf(events));
+        queue.add(submission);
+        try {
+            return submission.recorded().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!submission.take()) {
+                // Already being written; report what was stored rather than invite a retry
+                return await(submission);
+            }
+            rejected.increment(events.size());
+            throw new ReminderEventsThrottledException("Too many reminder events, try again shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            submission.take();
+            throw new ReminderEventsThrottledException("Interrupted while recording reminder events");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    // The write is in flight and ends with the statement, so no timeout here
+    private int await(Submission submission) {
+        try {
+            return submission.recorded().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReminderEventsThrottledException("Interrupted while recording reminder events");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            Submission first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            int size = take(first, batch);
+            for (Submission next = queue.peek(); next != null && size + next.events().size() <= batchSize;
+                 next = queue.peek()) {
+                size += take(queue.poll(), batch);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                int[] recorded = writeTimer.record(() -> write(batch));
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).recorded().complete(recorded[i]);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Writing {} reminder events failed: {}", size, e.getMessage());
+                batch.forEach(submission -> submission.recorded().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    // Add the submission to the batch unless its caller already withdrew it; returns the events added
+    private int take(Submission submission, List<Submission> batch) {
+        int size = submission.events().size();
+        queued.addAndGet(-size);
+        if (!submission.take()) {
+            return 0;
+        }
+        batch.add(submission);
+        return size;
+    }
+
+    /**
+     * Store the events of {@code batch} in one statement. Returns, per submission, how many of
+     * its events were recorded.
+     */
+    int[] write(List<Submission> batch) {
+        int n = batch.stream().mapToInt(submission -> submission.events().size()).sum();
+        String[] reminderIds = new String[n];
+        String[] userIds = new String[n];
+        String[] categories = new String[n];
+        String[] occurrences = new String[n];
+        String[] actions = new String[n];
+        String[] actedAt = new String[n];
+        String[] recordedBy = new String[n];
+        // Rows come back without their position; hand each to the earliest submission with that key
+        Map<Key, Deque<Integer>> owners = new HashMap<>();
+        int i = 0;
+        for (int s = 0; s < batch.size(); s++) {
+            for (Event event : batch.get(s).events()) {
+                reminderIds[i] = event.reminderId().toString();
+                userIds[i] = event.userId().toString();
+                categories[i] = event.category();
+                occurrences[i] = event.occurrenceAt().toString();
+                actions[i] = event.action().name();
+                actedAt[i] = event.actedAt().toString();
+                recordedBy[i++] = event.recordedBy() != null ? event.recordedBy().toString() : null;
+                owners.computeIfAbsent(new Key(event.reminderId(), event.occurrenceAt(), event.action().name()),
+                    key -> new ArrayDeque<>()).add(s);
+            }
+        }
+        int[] recorded = new int[batch.size()];
+        jdbc.query(INSERT, rs -> {
+            Key key = new Key(rs.getObject("reminder_id", UUID.class),
+                rs.getObject("occurrence_at", OffsetDateTime.class).toInstant(), rs.getString("action"));
+            Deque<Integer> owner = owners.get(key);
+            if (owner != null && !owner.isEmpty()) {
+                recorded[owner.poll()]++;
+            }
+        }, reminderIds, userIds, categories, occurrences, actions, actedAt, recordedBy,
+            zone.getId(), onTimeSeconds, onTimeSeconds);
+        return recorded;
+    }
+
+    /**
+     * Create the monthly partitions from last month to {@code partitionsAhead} months ahead.
+     */
+    void createPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (YearMonth month = current.minusMonths(1); !month.isAfter(current.plusMonths(partitionsAhead));
+             month = month.plusMonths(1)) {
+            jdbc.execute("create table if not exists reminder_event_" + month.format(PARTITION_SUFFIX)
+                + " partition of reminder_event for values from ('" + month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC)
+                + "') to ('" + month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC) + "')");
+        }
+    }
+
+    private void createPartitionsQuietly() {
+        try {
+            createPartitions();
+        } catch (DataAccessException e) {
+            logger.warn("Creating reminder event partitions failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        // Before the first write, so this month's events never land in the default partition
+        createPartitionsQuietly();
+        maintenance = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reminder-event-partitions").daemon().factory());
+        maintenance.scheduleWithFixedDelay(this::createPartitionsQuietly, 1, 1, TimeUnit.DAYS);
+        running = true;
+        writer = Thread.ofPlatform().name("reminder-event-writer").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        maintenance.shutdownNow();
+        try {
+            writer.join(waitTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop (after writing what is queued) only once the web server has stopped taking events
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,140 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.ReminderAdherence;
+import com.attendo.mos.dto.ReminderEventAction;
+import com.attendo.mos.dto.ReminderEventRequest;
+import com.attendo.mos.dto.ReminderEventsResponse;
+import com.attendo.mos.dto.ScheduledReminder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Records what was done about reminder occurrences and reports adherence.
+ * <p>
+ * Each event is checked against the user's cached agenda ({@link ReminderOccurrenceService}):
+ * the reminder must be theirs and fire at {@code occurrenceAt}. Valid events are handed to
+ * {@link ReminderEventIngestor}, which also keeps the monthly {@code reminder_adherence}
+ * counters that {@link #getAdherence} reads.
+ * </p>
+ */
+@Service
+public class ReminderEventService {
+
+    /** Most events accepted in one request. */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /** How far back an occurrence may be recorded; keeps events inside the monthly partitions. */
+    static final Duration MAX_AGE = Duration.ofDays(28);
+
+    /** Tolerated clock difference for client-supplied times. */
+    static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final ReminderOccurrenceService occurrences;
+    private final ReminderEventIngestor ingestor;
+    private final JdbcTemplate jdbc;
+    private final Duration onTimeWindow;
+    private final Clock clock = Clock.systemUTC();
+
+    public ReminderEventService(ReminderOccurrenceService occurrences, ReminderEventIngestor ingestor,
+                                JdbcTemplate jdbc,
+                                @Value("${app.reminder-events.on-time-window:PT30M}") Duration onTimeWindow) {
+        this.occurrences = occurrences;
+        this.ingestor = ingestor;
+        this.jdbc = jdbc;
+        this.onTimeWindow = onTimeWindow;
+    }
+
+    /**
+     * Record events for {@code userId}'s reminders on behalf of {@code recordedBy}. Each event is
+     * validated on its own; invalid ones are reported by index and the rest are recorded.
+     *
+     * @throws IllegalArgumentException if the request is empty or too large
+     */
+    public ReminderEventsResponse record(UUID userId, UUID recordedBy, List<ReminderEventRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("at least one event is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("at most " + MAX_BATCH_SIZE + " events per request");
+        }
+
+        Instant now = clock.instant();
+        List<ReminderEventIngestor.Event> valid = new ArrayList<>(requests.size());
+        List<ReminderEventsResponse.Error> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                valid.add(validate(userId, recordedBy, requests.get(i), now));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ReminderEventsResponse.Error(i, e.getMessage()));
+            }
+        }
+        int recorded = ingestor.submit(valid);
+        return new ReminderEventsResponse(recorded, valid.size() - recorded, errors.size(), errors);
+    }
+
+    private ReminderEventIngestor.Event validate(UUID userId, UUID recordedBy, ReminderEventRequest req, Instant now) {
+        if (req == null || req.reminderId() == null) {
+            throw new IllegalArgumentException("reminderId is required");
+        }
+        if (req.occurrenceAt() == null) {
+            throw new IllegalArgumentException("occurrenceAt is required");
+        }
+        if (req.action() == null) {
+            throw new IllegalArgumentException("action is required");
+        }
+
+        Instant occurrenceAt = req.occurrenceAt().toInstant();
+        Instant actedAt = req.at() != null ? req.at().toInstant() : now;
+        if (actedAt.isAfter(now.plus(CLOCK_SKEW))) {
+            throw new IllegalArgumentException("at must not be in the future");
+        }
+        if (occurrenceAt.isBefore(now.minus(MAX_AGE))) {
+            throw new IllegalArgumentException("occurrence is older than " + MAX_AGE.toDays() + " days");
+        }
+        // An occurrence can be dealt with a little early, but only missed once it has passed
+        Instant latest = req.action() == ReminderEventAction.MISSED ? now.plus(CLOCK_SKEW) : now.plus(onTimeWindow);
+        if (occurrenceAt.isAfter(latest)) {
+            throw new IllegalArgumentException("occurrence has not happened yet");
+        }
+
+        ScheduledReminder reminder = occurrences.getReminder(userId, req.reminderId());
+        if (reminder == null) {
+            throw new IllegalArgumentException("Reminder not found for user");
+        }
+        if (!reminder.occursAt(occurrenceAt, occurrences.getZone())) {
+            throw new IllegalArgumentException("reminder does not fire at occurrenceAt");
+        }
+
+        return new ReminderEventIngestor.Event(reminder.id(), userId, reminder.category(), occurrenceAt,
+            req.action(), actedAt, recordedBy);
+    }
+
+    /**
+     * {@code userId}'s outcomes per category for {@code month}; categories without any events
+     * are left out.
+     */
+    public ReminderAdherence getAdherence(UUID userId, YearMonth month) {
+        List<ReminderAdherence.Entry> entries = jdbc.query(
+            "select category, acknowledged, on_time, snoozed, missed from reminder_adherence "
+                + "where user_id = ? and month = ? order by category",
+            (rs, i) -> {
+                int onTime = rs.getInt("on_time");
+                int outcomes = rs.getInt("acknowledged") + rs.getInt("missed");
+                return new ReminderAdherence.Entry(Category.valueOf(rs.getString("category")),
+                    rs.getInt("acknowledged"), onTime, rs.getInt("snoozed"), rs.getInt("missed"),
+                    outcomes == 0 ? null : (int) Math.round(onTime * 100.0 / outcomes));
+            },
+            userId, month.atDay(1));
+        return new ReminderAdherence(userId, month, entries);
+    }
+}
@@ -0,0 +1,133 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.RecurrenceRule;
+import com.attendo.mos.dto.ReminderOccurrence;
+import com.attendo.mos.dto.ScheduledReminder;
+import com.attendo.mos.repo.ReminderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expands a user's reminders into concrete occurrences.
+ * <p>
+ * Each user's reminders are compiled once (recurrence parsed into a {@link RecurrenceRule})
+ * and cached until {@link ReminderService} reports a change for that user, or for at most
+ * {@code app.occurrences.cache.ttl} so changes made elsewhere (another instance, direct SQL)
+ * show up too. At most {@code app.occurrences.cache.max-entries} users are held.
+ * </p>
+ */
+@Service
+public class ReminderOccurrenceService {
+
+    static final Duration MAX_RANGE = Duration.ofDays(62);
+
+    @Value("${app.occurrences.cache.max-entries:10000}")
+    private int cacheMaxEntries = 10000;
+
+    @Value("${app.occurrences.cache.ttl:PT10M}")
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    // reminders is null while a load is in flight; the entry itself is that load's per-user stamp
+    private record Agenda(List<ScheduledReminder> reminders, Instant cachedUntil) {
+    }
+
+    private final ReminderRepository reminders;
+    private final ZoneId zone;
+    private final Map<UUID, Agenda> agendas = new ConcurrentHashMap<>();
+    private final Clock clock = Clock.systemUTC();
+
+    public ReminderOccurrenceService(ReminderRepository reminders,
+                                     @Value("${app.timezone:Europe/Stockholm}") String timezone) {
+        this.reminders = reminders;
+        this.zone = ZoneId.of(timezone);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * All occurrences for the user in {@code [from, to)}, ordered by time.
+     */
+    public List<ReminderOccurrence> getOccurrences(UUID userId, OffsetDateTime from, OffsetDateTime to) {
+        checkRange(from, to);
+        Instant start = from.toInstant();
+        Instant end = to.toInstant();
+
+        List<ReminderOccurrence> result = new ArrayList<>();
+        for (ScheduledReminder reminder : agendaFor(userId)) {
+            reminder.expand(start, end, zone, result);
+        }
+        result.sort(Comparator.comparing(ReminderOccurrence::at));
+        return result;
+    }
+
+    /**
+     * The user's reminder {@code reminderId} as scheduled, or null if the user has no such reminder.
+     */
+    public ScheduledReminder getReminder(UUID userId, UUID reminderId) {
+        for (ScheduledReminder reminder : agendaFor(userId)) {
+            if (reminder.id().equals(reminderId)) {
+                return reminder;
+            }
+        }
+        return null;
+    }
+
+    static void checkRange(OffsetDateTime from, OffsetDateTime to) {
+        if (!from.toInstant().isBefore(to.toInstant())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("range must not exceed " + MAX_RANGE.toDays() + " days");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderChanged(ReminderChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRemindersPurged(UserRemindersPurgedEvent event) {
+        invalidate(event.userId());
+    }
+
+    public void invalidate(UUID userId) {
+        agendas.remove(userId);
+    }
+
+    private List<ScheduledReminder> agendaFor(UUID userId) {
+        Instant now = clock.instant();
+        Agenda hit = agendas.get(userId);
+        if (hit != null && hit.reminders() != null && now.isBefore(hit.cachedUntil())) {
+            return hit.reminders();
+        }
+        if (agendas.size() >= cacheMaxEntries) {
+            agendas.values().removeIf(a -> !now.isBefore(a.cachedUntil()));
+            if (agendas.size() >= cacheMaxEntries) {
+                agendas.clear();
+            }
+        }
+        // Load outside the map so a slow query never blocks other users. An invalidation for
+        // this user during the load removes the stamp, and the stale result is not cached.
+        Agenda stamp = new Agenda(null, now.plus(cacheTtl));
+        agendas.put(userId, stamp);
+        List<ScheduledReminder> agenda = reminders.scheduleForUser(userId);
+        agendas.replace(userId, stamp, new Agenda(agenda, now.plus(cacheTtl)));
+        return agenda;
+    }
+}
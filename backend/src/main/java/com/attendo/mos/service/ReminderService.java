@@ -1,26 +1,41 @@
 package com.attendo.mos.service;
 
+import com.attendo.mos.dto.BulkReminderResponse;
 import com.attendo.mos.dto.Category;
 import com.attendo.mos.dto.CreateReminderRequest;
+import com.attendo.mos.dto.Recurrence;
+import com.attendo.mos.dto.RecurrenceRule;
 import com.attendo.mos.dto.ReminderDto;
+import com.attendo.mos.dto.ReminderPage;
 import com.attendo.mos.dto.ReminderResponse;
 import com.attendo.mos.dto.UpdateReminderRequest;
 import com.attendo.mos.entity.Reminder;
+import com.attendo.mos.entity.User;
 import com.attendo.mos.repo.ReminderRepository;
 import com.attendo.mos.repo.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class ReminderService {
   private final ReminderRepository reminders;
   private final UserRepository users;
+  private final ApplicationEventPublisher events;
+  private final ReminderStats stats;
   private static final Map<String, Category> CATEGORY_MAP = new HashMap<>() {{
       // Swedish
       put("måltider", Category.MEAL);
@@ -52,20 +67,73 @@ public class ReminderService {
       put("other", Category.OTHER);
   }};
       
-  private Category mapCategory(String raw) {
+  static Category mapCategory(String raw) {
     if (raw == null)
       throw new IllegalArgumentException("category is required");
     var key = raw.toLowerCase(Locale.ROOT);
     return CATEGORY_MAP.getOrDefault(key, Category.MEAL); // default if needed
   }
 
-  public ReminderService(ReminderRepository reminders, UserRepository users) {
-    this.reminders = reminders; this.users = users;
+  public ReminderService(ReminderRepository reminders, UserRepository users, ApplicationEventPublisher events,
+                         ReminderStats stats) {
+    this.reminders = reminders; this.users = users; this.events = events; this.stats = stats;
   }
 
+  @Transactional
   public ReminderDto addReminder(UUID userId, CreateReminderRequest req) {
     var user = users.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+    var r = reminders.save(buildReminder(user, req));
+    stats.changed(userId, null, stats.bucket(r));
+    events.publishEvent(new ReminderChangedEvent(userId, r.getId()));
+    return new ReminderDto(r.getId(), r.getTime(), r.getCategory(), r.getNote(),
+        r.getCreatedAt(), r.getType(), Recurrence.of(r.getRecurrence()));
+  }
+
+  /**
+   * Create many reminders for one user in a single transaction. Every request is validated
+   * first; valid ones are inserted together (JDBC-batched) and invalid ones are reported
+   * per item without affecting the rest.
+   */
+  @Transactional
+  public BulkReminderResponse addReminders(UUID userId, List<CreateReminderRequest> reqs) {
+    if (reqs == null || reqs.isEmpty())
+      throw new IllegalArgumentException("at least one reminder is required");
+    if (reqs.size() > MAX_BULK_SIZE)
+      throw new IllegalArgumentException("at most " + MAX_BULK_SIZE + " reminders per request");
+    var user = users.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+    List<Reminder> valid = new ArrayList<>(reqs.size());
+    String[] errors = new String[reqs.size()];
+    for (int i = 0; i < reqs.size(); i++) {
+      var req = reqs.get(i);
+      try {
+        if (req == null)
+          throw new IllegalArgumentException("reminder is required");
+        valid.add(buildReminder(user, req));
+      } catch (IllegalArgumentException e) {
+        errors[i] = e.getMessage();
+      }
+    }
+
+    List<Reminder> saved = reminders.saveAll(valid);
+    stats.added(userId, saved.stream().map(stats::bucket).toList());
+
+    List<BulkReminderResponse.Item> results = new ArrayList<>(reqs.size());
+    int next = 0;
+    for (int i = 0; i < reqs.size(); i++) {
+      if (errors[i] != null) {
+        results.add(new BulkReminderResponse.Item(i, null, errors[i]));
+      } else {
+        UUID id = saved.get(next++).getId();
+        results.add(new BulkReminderResponse.Item(i, id, null));
+        events.publishEvent(new ReminderChangedEvent(userId, id));
+      }
+    }
+    return new BulkReminderResponse(saved.size(), reqs.size() - saved.size(), results);
+  }
+
+  private Reminder buildReminder(User user, CreateReminderRequest req) {
     var r = new Reminder();
     r.setUser(user);
     r.setCategory(mapCategory(req.category()));
@@ -78,56 +146,103 @@ public class ReminderService {
       r.setTime(req.dateTime());
       r.setRecurrence(null);
     } else {
-      // store the rule as-is; keep time null
+      // validate and compile the rule up front; keep time null
       r.setTime(null);
-      Map<String, Object> rec = new HashMap<>();
-      rec.put("days", Optional.ofNullable(req.days()).orElse(List.of()));
-      rec.put("times", Optional.ofNullable(req.times()).orElse(List.of()));
-      r.setRecurrence(rec);
+      r.setRecurrence(RecurrenceRule.parseStrict(req.days(), req.times()));
     }
+    return r;
+  }
 
-    r = reminders.save(r);
-    return new ReminderDto(r.getId(), r.getTime(), r.getCategory(), r.getNote(),
-        r.getCreatedAt(), r.getType(), r.getRecurrence());
+  /** Most reminders accepted by one bulk import. */
+  public static final int MAX_BULK_SIZE = 1000;
+
+  /** Page size used when the client does not ask for one. */
+  public static final int DEFAULT_PAGE_SIZE = 200;
+  /** Largest page a client may request. */
+  public static final int MAX_PAGE_SIZE = 500;
+
+  /**
+   * One page of a user's reminders, ordered by fire time (created time for recurring ones), then id.
+   * Pass the previous page's {@code nextCursor} as {@code after} to continue.
+   */
+  public ReminderPage getReminders(UUID userId, String after, Integer limit) {
+    int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+    if (size < 1 || size > MAX_PAGE_SIZE)
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+
+    // Fetch one extra row to learn whether another page follows
+    Limit fetch = Limit.of(size + 1);
+    List<Reminder> rows;
+    if (after == null || after.isBlank()) {
+      rows = reminders.listForUser(userId, fetch);
+    } else {
+      var cursor = decodeCursor(after);
+      rows = reminders.listForUserAfter(userId, cursor.key(), cursor.id(), fetch);
+    }
+
+    boolean more = rows.size() > size;
+    List<Reminder> page = more ? rows.subList(0, size) : rows;
+    String next = more ? encodeCursor(page.get(size - 1)) : null;
+    return new ReminderPage(page.stream().map(ReminderService::toResponse).toList(), next);
   }
 
-  // ReminderService.java
-  public List<ReminderResponse> getReminders(UUID userId) {
-    return reminders.listForUser(userId).stream().map(r -> {
-      List<String> days = null, times = null;
-      if ("recurring".equalsIgnoreCase(r.getType()) && r.getRecurrence() != null) {
-        @SuppressWarnings("unchecked")
-        List<String> daysList = (List<String>) r.getRecurrence().getOrDefault("days", List.of());
-        @SuppressWarnings("unchecked")
-        List<String> timesList = (List<String>) r.getRecurrence().getOrDefault("times", List.of());
-        days = daysList;
-        times = timesList;
-      }
-      return new ReminderResponse(
-          r.getId(),
-          r.getType(),
-          r.getCategory().name(), // or keep your mapping if you localize
-          r.getNote(),
-          "once".equalsIgnoreCase(r.getType()) ? r.getTime() : null,
-          days,
-          times,
-          r.getCreatedAt());
-    }).toList();
+  static ReminderResponse toResponse(Reminder r) {
+    List<String> days = null, times = null;
+    RecurrenceRule rule = r.getRecurrence();
+    if ("recurring".equalsIgnoreCase(r.getType()) && rule != null) {
+      days = rule.dayLabels();
+      times = rule.timeLabels();
+    }
+    return new ReminderResponse(
+        r.getId(),
+        r.getType(),
+        r.getCategory().name(), // or keep your mapping if you localize
+        r.getNote(),
+        "once".equalsIgnoreCase(r.getType()) ? r.getTime() : null,
+        days,
+        times,
+        r.getCreatedAt());
   }
 
+  private record Cursor(OffsetDateTime key, UUID id) {}
+
+  // Cursor = base64url("<sort key as ISO instant>|<id>"); the key mirrors coalesce(time, createdAt)
+  private static String encodeCursor(Reminder r) {
+    OffsetDateTime key = r.getTime() != null ? r.getTime() : r.getCreatedAt();
+    String raw = key.toInstant() + "|" + r.getId();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Cursor decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int sep = raw.indexOf('|');
+      return new Cursor(
+          OffsetDateTime.ofInstant(Instant.parse(raw.substring(0, sep)), ZoneOffset.UTC),
+          UUID.fromString(raw.substring(sep + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("invalid cursor");
+    }
+  }
+
+  @Transactional
   public void deleteReminder(UUID userId, UUID reminderId) {
     Reminder r = reminders.findById(reminderId)
         .filter(rem -> rem.getUser().getId().equals(userId))
         .orElseThrow(() -> new IllegalArgumentException(
             "Reminder not found for user " + userId));
     reminders.delete(r);
+    stats.changed(userId, stats.bucket(r), null);
+    events.publishEvent(new ReminderChangedEvent(userId, reminderId));
   }
 
+  @Transactional
   public ReminderDto updateReminder(UUID userId, UUID reminderId, UpdateReminderRequest req) {
     Reminder r = reminders.findById(reminderId)
         .filter(rem -> rem.getUser().getId().equals(userId))
         .orElseThrow(() -> new IllegalArgumentException(
             "Reminder not found for user " + userId));
+    ReminderStats.Bucket before = stats.bucket(r);
 
     // Update fields only if provided (partial update)
     if (req.type() != null) {
@@ -155,17 +270,20 @@ public class ReminderService {
       r.setRecurrence(null);
     } else if ("recurring".equalsIgnoreCase(currentType)) {
       r.setTime(null);
-      Map<String, Object> rec = new HashMap<>();
-      rec.put("days", req.days() != null ? req.days() : 
-          (r.getRecurrence() != null ? r.getRecurrence().getOrDefault("days", List.of()) : List.of()));
-      rec.put("times", req.times() != null ? req.times() : 
-          (r.getRecurrence() != null ? r.getRecurrence().getOrDefault("times", List.of()) : List.of()));
-      r.setRecurrence(rec);
+      RecurrenceRule existing = r.getRecurrence();
+      if (req.days() != null || req.times() != null || existing == null) {
+        // Fill whichever half was omitted from the stored rule, then re-validate
+        r.setRecurrence(RecurrenceRule.parseStrict(
+            req.days() != null ? req.days() : existing != null ? existing.dayLabels() : null,
+            req.times() != null ? req.times() : existing != null ? existing.timeLabels() : null));
+      }
     }
 
     r = reminders.save(r);
+    stats.changed(userId, before, stats.bucket(r));
+    events.publishEvent(new ReminderChangedEvent(userId, r.getId()));
     return new ReminderDto(r.getId(), r.getTime(), r.getCategory(), r.getNote(),
-        r.getCreatedAt(), r.getType(), r.getRecurrence());
+        r.getCreatedAt(), r.getType(), Recurrence.of(r.getRecurrence()));
   }
 
 }
@@ -0,0 +1,13 @@
+package com.attendo.mos.service;
+
+/**
+ * Receives due reminder occurrences from {@link ReminderDispatcher}.
+ * <p>
+ * Every Spring bean implementing this interface is registered automatically. Sinks are called
+ * from the dispatcher's delivery threads and should hand off slow work (push, SMS) themselves.
+ * </p>
+ */
+public interface ReminderSink {
+
+    void onDue(ReminderDueEvent event);
+}
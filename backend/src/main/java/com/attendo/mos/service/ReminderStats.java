@@ -0,0 +1,294 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.ReminderStatistics;
+import com.attendo.mos.entity.Reminder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code reminder_stats} table (V23): reminder counts per user and per caregiver, by
+ * category, type and day. Facility totals are summed from the user rows when read (V27), so
+ * no single row is updated by every write.
+ * <p>
+ * {@link ReminderService} reports each reminder's bucket before and after a change, and the
+ * counters of every scope the owner belongs to are adjusted in one statement inside the same
+ * transaction. Assignment changes move a caretaker's counts into or out of the caregiver's, and
+ * retiring a user drops theirs. Everything else that touches reminders (the purge, direct SQL)
+ * is corrected by {@link #reconcile}, which runs on startup and every
+ * {@code app.stats.reconcile-interval}. Statistics are then a read of at most one row per
+ * category, type and day in the requested range for a user or caregiver, and one per user for
+ * the facility.
+ * </p>
+ * <p>
+ * Every write holds a shared transaction-level advisory lock keyed by the reminder owner;
+ * reconciliation takes it exclusively for the owners of the one scope it is recounting, so a
+ * concurrent change is either already visible to the recount or applied on top of it.
+ * </p>
+ */
+@Service
+public class ReminderStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderStats.class);
+
+    static final UUID FACILITY = new UUID(0L, 0L);
+
+    // Advisory lock key of a reminder owner, shared by writers and taken exclusively by reconcile
+    private static final String OWNER_KEY = "hashtextextended(?::text, 0)";
+
+    /** A reminder's counter key within a scope. */
+    public record Bucket(Category category, String type, LocalDate day) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ZoneId zone;
+    private final Duration reconcileInterval;
+    private ScheduledExecutorService reconciler;
+
+    public ReminderStats(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                         @Value("${app.timezone:Europe/Stockholm}") String timezone,
+                         @Value("${app.stats.reconcile-interval:PT1H}") Duration reconcileInterval) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.zone = ZoneId.of(timezone);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * The bucket {@code reminder} counts in; must match the expression {@link #reconcile} uses.
+     */
+    public Bucket bucket(Reminder reminder) {
+        OffsetDateTime at = reminder.getTime() != null ? reminder.getTime() : reminder.getCreatedAt();
+        return new Bucket(reminder.getCategory(), reminder.getType().toLowerCase(Locale.ROOT),
+            at.atZoneSameInstant(zone).toLocalDate());
+    }
+
+    /**
+     * Move one of {@code userId}'s reminders from {@code before} to {@code after}; either is null
+     * when the reminder was created or deleted.
+     */
+    public void changed(UUID userId, Bucket before, Bucket after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<Bucket, Integer> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            deltas.merge(before, -1, Integer::sum);
+        }
+        if (after != null) {
+            deltas.merge(after, 1, Integer::sum);
+        }
+        apply(userId, deltas);
+    }
+
+    /**
+     * Count reminders just created for {@code userId}.
+     */
+    public void added(UUID userId, Collection<Bucket> buckets) {
+        Map<Bucket, Integer> deltas = new LinkedHashMap<>();
+        buckets.forEach(bucket -> deltas.merge(bucket, 1, Integer::sum));
+        apply(userId, deltas);
+    }
+
+    // One upsert covering the user's own scope and each of their caregivers
+    private void apply(UUID userId, Map<Bucket, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        int n = deltas.size();
+        String[] categories = new String[n];
+        String[] types = new String[n];
+        String[] days = new String[n];
+        Integer[] counts = new Integer[n];
+        int i = 0;
+        for (Map.Entry<Bucket, Integer> delta : deltas.entrySet()) {
+            categories[i] = delta.getKey().category().name();
+            types[i] = delta.getKey().type();
+            days[i] = delta.getKey().day().toString();
+            counts[i++] = delta.getValue();
+        }
+        // The one-row lock join is produced before any counter row, so the lock is held first
+        jdbc.update("insert into reminder_stats (scope, scope_id, day, category, type, reminder_count) "
+            + "select s.scope, s.scope_id, d.day::date, d.category, d.type, d.delta "
+            + "from (select pg_advisory_xact_lock_shared(" + OWNER_KEY + ")) l "
+            + "cross join unnest(?::text[], ?::text[], ?::text[], ?::int[]) as d(category, type, day, delta) "
+            + "cross join (select 'USER' as scope, ?::uuid as scope_id "
+            + "union all select 'CAREGIVER', caregiver_id from user_assignments where caretaker_id = ?) s "
+            + "on conflict (scope, scope_id, day, category, type) do update "
+            + "set reminder_count = reminder_stats.reminder_count + excluded.reminder_count",
+            userId, categories, types, days, counts, userId, userId);
+    }
+
+    /**
+     * Add ({@code assigned}) or remove {@code caretakerId}'s counts to or from the caregiver's.
+     * Runs inside the transaction that changes the assignment.
+     */
+    @EventListener
+    public void onAssignmentChanged(AssignmentChangedEvent event) {
+        jdbc.update("insert into reminder_stats (scope, scope_id, day, category, type, reminder_count) "
+            + "select 'CAREGIVER', ?, day, category, type, reminder_count * ? "
+            + "from (select pg_advisory_xact_lock_shared(" + OWNER_KEY + ")) l "
+            + "cross join reminder_stats where scope = 'USER' and scope_id = ? and reminder_count <> 0 "
+            + "on conflict (scope, scope_id, day, category, type) do update "
+            + "set reminder_count = reminder_stats.reminder_count + excluded.reminder_count",
+            event.caregiverId(), event.assigned() ? 1 : -1, event.caretakerId(), event.caretakerId());
+    }
+
+    /**
+     * Stop counting {@code userId}'s reminders, e.g. when the user is deleted. Their assignments
+     * must already be gone.
+     */
+    public void removeUser(UUID userId) {
+        jdbc.update("delete from reminder_stats where scope = 'USER' and scope_id = ?", userId);
+    }
+
+    /**
+     * Recompute every user's and caregiver's counters from {@code reminder}, one scope per short
+     * transaction; rewrite those that differ and drop those left at zero. Returns the number of
+     * counters that were wrong. Only writes for the owners of the scope being recounted wait, and
+     * only for that one transaction.
+     */
+    public int reconcile() {
+        int corrected = 0;
+        for (UUID userId : jdbc.queryForList("select id from app_user where is_active "
+            + "union select distinct scope_id from reminder_stats where scope = 'USER'", UUID.class)) {
+            corrected += reconcileScope("USER", userId,
+                "select count(pg_advisory_xact_lock(" + OWNER_KEY + "))",
+                "r.user_id = ?");
+        }
+        for (UUID caregiverId : jdbc.queryForList("select caregiver_id from user_assignments "
+            + "union select distinct scope_id from reminder_stats where scope = 'CAREGIVER'", UUID.class)) {
+            // In id order, so concurrent reconcilers on other instances cannot deadlock
+            corrected += reconcileScope("CAREGIVER", caregiverId,
+                "select count(pg_advisory_xact_lock(hashtextextended(caretaker_id::text, 0))) "
+                    + "from (select caretaker_id from user_assignments where caregiver_id = ? order by caretaker_id) c",
+                "r.user_id in (select caretaker_id from user_assignments where caregiver_id = ?)");
+        }
+        return corrected;
+    }
+
+    // Lock the scope's owners, then recount it against a snapshot taken after the lock
+    private int reconcileScope(String scope, UUID scopeId, String lockOwners, String ownedBy) {
+        Integer corrected = tx.execute(status -> {
+            jdbc.queryForObject(lockOwners, Long.class, scopeId);
+            return jdbc.queryForObject("with actual as ("
+                + "select (coalesce(r.time_at, r.created_at) at time zone ?)::date as day, "
+                + "r.category, lower(r.type) as type, count(*)::int as reminder_count "
+                + "from reminder r join app_user u on u.id = r.user_id "
+                + "where u.is_active and " + ownedBy + " group by 1, 2, 3), "
+                + "fixed as (insert into reminder_stats (scope, scope_id, day, category, type, reminder_count) "
+                + "select ?, ?::uuid, day, category, type, reminder_count from actual "
+                + "on conflict (scope, scope_id, day, category, type) do update "
+                + "set reminder_count = excluded.reminder_count "
+                + "where reminder_stats.reminder_count <> excluded.reminder_count returning 1), "
+                + "stale as (delete from reminder_stats s where s.scope = ? and s.scope_id = ? "
+                + "and not exists (select 1 from actual a "
+                + "where a.day = s.day and a.category = s.category and a.type = s.type) returning s.reminder_count) "
+                // Counters decremented to zero are only tidied up, not corrected
+                + "select (select count(*) from fixed) + (select count(*) from stale where reminder_count <> 0)",
+                Integer.class, zone.getId(), scopeId, scope, scopeId, scope, scopeId);
+        });
+        return corrected == null ? 0 : corrected;
+    }
+
+    public ReminderStatistics forFacility(LocalDate from, LocalDate to) {
+        return read("FACILITY", FACILITY, "select day, category, type, sum(reminder_count) as reminder_count "
+            + "from reminder_stats where scope = 'USER' and day between coalesce(?::date, '-infinity') "
+            + "and coalesce(?::date, 'infinity') group by day, category, type having sum(reminder_count) <> 0",
+            from, to, from, to);
+    }
+
+    public ReminderStatistics forUser(UUID userId, LocalDate from, LocalDate to) {
+        return read("USER", userId, from, to);
+    }
+
+    public ReminderStatistics forCaregiver(UUID caregiverId, LocalDate from, LocalDate to) {
+        return read("CAREGIVER", caregiverId, from, to);
+    }
+
+    private ReminderStatistics read(String scope, UUID scopeId, LocalDate from, LocalDate to) {
+        return read(scope, scopeId, "select day, category, type, reminder_count from reminder_stats "
+            + "where scope = ? and scope_id = ? and day between coalesce(?::date, '-infinity') "
+            + "and coalesce(?::date, 'infinity') and reminder_count <> 0",
+            from, to, scope, scopeId, from, to);
+    }
+
+    private ReminderStatistics read(String scope, UUID scopeId, String sql, LocalDate from, LocalDate to, Object... args) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        Map<Category, Long> byCategory = new EnumMap<>(Category.class);
+        Map<String, Long> byType = new TreeMap<>();
+        Map<LocalDate, Map<Category, Long>> byDay = new TreeMap<>();
+        long[] total = { 0 };
+        jdbc.query(sql,
+            rs -> {
+                LocalDate day = rs.getObject("day", LocalDate.class);
+                Category category = Category.valueOf(rs.getString("category"));
+                long count = rs.getLong("reminder_count");
+                total[0] += count;
+                byCategory.merge(category, count, Long::sum);
+                byType.merge(rs.getString("type"), count, Long::sum);
+                byDay.computeIfAbsent(day, d -> new EnumMap<>(Category.class)).merge(category, count, Long::sum);
+            },
+            args);
+
+        List<ReminderStatistics.Day> days = new ArrayList<>(byDay.size());
+        byDay.forEach((day, counts) -> days.add(new ReminderStatistics.Day(day,
+            counts.values().stream().mapToLong(Long::longValue).sum(), counts)));
+        return new ReminderStatistics(scope, scopeId, from, to, total[0], byCategory, byType, days);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reminder-stats-reconcile").daemon().factory());
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                logger.info("Reconciled reminder statistics: {} counters corrected", corrected);
+            }
+        } catch (RuntimeException e) {
+            // Anything escaping here would cancel the periodic task
+            logger.warn("Reminder statistics reconciliation failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+}
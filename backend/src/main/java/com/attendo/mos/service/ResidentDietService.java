@@ -0,0 +1,77 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.ResidentDiet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds active residents by diet code using {@code app_user.diet_mask} (V22).
+ * <p>
+ * Every filter is a bitwise test on that one column. When at least one code is required the
+ * query also states {@code diet_mask <> 0}, which lets Postgres use the partial index over
+ * residents that have any code at all. Residents whose mask has not been backfilled yet are
+ * left out.
+ * </p>
+ */
+@Service
+public class ResidentDietService {
+
+    private final JdbcTemplate jdbc;
+
+    public ResidentDietService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Residents with at least one of {@code any}, all of {@code all} and none of {@code none},
+     * by display name. Empty collections do not filter.
+     */
+    public List<ResidentDiet> find(Collection<MealRequirementType> any, Collection<MealRequirementType> all,
+                                   Collection<MealRequirementType> none) {
+        long anyMask = mask(any);
+        long allMask = mask(all);
+        long noneMask = mask(none);
+
+        StringBuilder sql = new StringBuilder("select id, display_name, diet_mask from app_user "
+            + "where user_type = 'RESIDENT' and is_active and diet_mask is not null");
+        List<Object> args = new ArrayList<>();
+        if (anyMask != 0 || allMask != 0) {
+            sql.append(" and diet_mask <> 0");
+        }
+        if (anyMask != 0) {
+            sql.append(" and diet_mask & ? <> 0");
+            args.add(anyMask);
+        }
+        if (allMask != 0) {
+            sql.append(" and diet_mask & ? = ?");
+            args.add(allMask);
+            args.add(allMask);
+        }
+        if (noneMask != 0) {
+            sql.append(" and diet_mask & ? = 0");
+            args.add(noneMask);
+        }
+        sql.append(" order by display_name, id");
+
+        return jdbc.query(sql.toString(), (rs, i) -> new ResidentDiet(
+            rs.getObject("id", UUID.class),
+            rs.getString("display_name"),
+            MealRequirementType.fromMask(rs.getLong("diet_mask"))), args.toArray());
+    }
+
+    private static long mask(Collection<MealRequirementType> types) {
+        if (types == null) {
+            return 0L;
+        }
+        if (types.contains(MealRequirementType.OTHER)) {
+            throw new IllegalArgumentException("OTHER is not a filterable diet code");
+        }
+        return MealRequirementType.mask(types);
+    }
+}
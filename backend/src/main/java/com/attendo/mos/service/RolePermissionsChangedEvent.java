@@ -0,0 +1,9 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.UserType;
+
+/**
+ * Published when the permissions granted to every user of a type change.
+ */
+public record RolePermissionsChangedEvent(UserType userType) {
+}
@@ -0,0 +1,211 @@
+package com.attendo.mos.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * Level 0 has {@code wheelSize} slots of {@code tickMs} each; every higher level has the same
+ * number of slots, each spanning a full rotation of the level below. Adding and cancelling are
+ * O(1); advancing costs O(1) per tick plus the work of firing or cascading the entries in the
+ * slots passed. Entries are fired at most one tick after their deadline.
+ * </p>
+ * <p>
+ * Not thread-safe: callers must serialise access.
+ * </p>
+ */
+final class TimingWheel<T> {
+
+    /**
+     * A scheduled entry. Kept by callers that need to cancel it later.
+     */
+    static final class Timeout<T> {
+        final long deadline;
+        final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout<T> t) {
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        /**
+         * Detach and return the whole chain; entries keep their links until re-placed.
+         */
+        Timeout<T> clear() {
+            Timeout<T> first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final long tickMs;
+    private final int mask;
+    private final long[] levelTick;
+    private final Bucket<T>[][] buckets;
+    private final Bucket<T> expired = new Bucket<>();
+    private long now;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("tickMs must be positive, wheelSize a power of two and levels >= 1");
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.levelTick = new long[levels];
+        this.buckets = new Bucket[levels][wheelSize];
+        long tick = tickMs;
+        for (int level = 0; level < levels; level++) {
+            levelTick[level] = tick;
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets[level][slot] = new Bucket<>();
+            }
+            tick = Math.multiplyExact(tick, wheelSize);
+        }
+        this.now = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    /**
+     * Furthest deadline (exclusive) that can currently be scheduled.
+     */
+    long horizon() {
+        return now + levelTick[levelTick.length - 1] * (mask + 1);
+    }
+
+    long currentTime() {
+        return now;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedule {@code payload} at {@code deadlineMs}. Returns {@code null} if the deadline lies
+     * beyond {@link #horizon()}.
+     */
+    Timeout<T> add(long deadlineMs, T payload) {
+        if (deadlineMs >= horizon()) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(deadlineMs, payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to {@code targetMs}, passing every entry whose deadline is at or before
+     * the new current time to {@code fire}.
+     */
+    void advanceTo(long targetMs, Consumer<T> fire) {
+        drain(expired, fire);
+        while (now + tickMs <= targetMs) {
+            now += tickMs;
+            for (int level = 1; level < levelTick.length; level++) {
+                long tick = levelTick[level];
+                if (now % tick != 0) {
+                    break;
+                }
+                cascade(buckets[level][(int) ((now / tick) & mask)]);
+            }
+            // Slot covering [now - tick, now) is now due
+            drain(buckets[0][(int) (((now - tickMs) / tickMs) & mask)], fire);
+            drain(expired, fire);
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadline = timeout.deadline;
+        if (deadline < now) {
+            expired.add(timeout);
+            return;
+        }
+        for (int level = 0; level < levelTick.length; level++) {
+            long tick = levelTick[level];
+            if (deadline < now + tick * (mask + 1) || level == levelTick.length - 1) {
+                buckets[level][(int) ((deadline / tick) & mask)].add(timeout);
+                return;
+            }
+        }
+    }
+
+    private void cascade(Bucket<T> bucket) {
+        Timeout<T> t = bucket.clear();
+        while (t != null) {
+            Timeout<T> next = t.next;
+            t.bucket = null;
+            place(t);
+            t = next;
+        }
+    }
+
+    private void drain(Bucket<T> bucket, Consumer<T> fire) {
+        Timeout<T> t = bucket.clear();
+        while (t != null) {
+            Timeout<T> next = t.next;
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+            if (t.deadline < now || bucket == expired) {
+                size--;
+                fire.accept(t.payload);
+            } else {
+                // Belongs to a later rotation; put it back
+                place(t);
+            }
+            t = next;
+        }
+    }
+}
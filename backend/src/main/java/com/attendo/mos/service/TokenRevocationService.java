@@ -0,0 +1,134 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deny-list of token ids (jti) revoked before they expire.
+ * <p>
+ * The {@code revoked_token} table is authoritative; an in-memory {@link UuidBloomFilter} over
+ * its live rows answers the per-request check, so the common "not revoked" case is a few bit
+ * reads with no allocation and no query. Only filter hits (real revocations or the rare false
+ * positive) are confirmed against the table. The filter is rebuilt every
+ * {@code app.revocation.rebuild-interval}, which also drops tokens past their expiry and picks
+ * up revocations made by other instances.
+ * </p>
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository repository;
+    private final int expectedEntries;
+    private final Duration rebuildInterval;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    private volatile UuidBloomFilter filter;
+    // Filter being loaded by rebuild(); revocations are added to it too so none are lost in the swap
+    private volatile UuidBloomFilter next;
+    private int lastLiveCount;
+    private ScheduledExecutorService rebuilder;
+
+    public TokenRevocationService(RevokedTokenRepository repository, MeterRegistry meterRegistry,
+                                  @Value("${app.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${app.revocation.rebuild-interval:PT10M}") Duration rebuildInterval) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.rebuildInterval = rebuildInterval;
+        this.filter = new UuidBloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+        this.revokedHits = Counter.builder("auth.revocation.hits").tag("result", "revoked").register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.revocation.hits").tag("result", "false_positive").register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token until its expiry. Tokens without an id or already expired are ignored.
+     *
+     * @return 1 if this call revoked the token, 0 if it was already revoked or was ignored
+     */
+    public int revoke(UUID tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return 0;
+        }
+        int revoked = repository.revoke(tokenId, OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+        filter.put(tokenId);
+        UuidBloomFilter pending = next;
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+        return revoked;
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        boolean revoked = repository.existsById(tokenId);
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    /**
+     * Replace the filter with one built from the live rows, deleting expired ones first.
+     */
+    public synchronized void rebuild() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        UuidBloomFilter fresh = new UuidBloomFilter(Math.max(expectedEntries, 2 * lastLiveCount), FALSE_POSITIVE_RATE);
+        next = fresh;
+        try {
+            repository.deleteExpired(now);
+            List<UUID> live = repository.findLiveTokenIds(now);
+            live.forEach(fresh::put);
+            lastLiveCount = live.size();
+            filter = fresh;
+        } finally {
+            next = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuildQuietly();
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("token-revocation-rebuild").daemon().factory());
+        long intervalMs = rebuildInterval.toMillis();
+        rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            // Keep the current filter; the next rebuild retries
+            logger.warn("Revocation filter rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.UserInfoResponse;
+import com.attendo.mos.dto.UserPage;
+import com.attendo.mos.dto.UserType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Admin user directory: keyset-paginated listing and streaming export.
+ * <p>
+ * Both read the listed columns straight into {@link UserInfoResponse} with JDBC, so no
+ * {@code User} entity (or password hash) is ever loaded. Listing pages are ordered by the
+ * chosen sort column plus {@code id} and continue from an opaque cursor; the indexes from V18
+ * back each order. Export walks a server-side cursor {@value #EXPORT_FETCH_SIZE} rows at a time,
+ * writing each row out as it arrives.
+ * </p>
+ */
+@Service
+public class UserDirectoryService {
+
+    /** Page size when the client does not ask for one. */
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    /** Largest page a client may request. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    static final int EXPORT_FETCH_SIZE = 500;
+
+    private static final String COLUMNS =
+        "id, email, display_name, phone, user_type, is_active, last_login_at, created_at";
+
+    private static final RowMapper<UserInfoResponse> ROW = (rs, i) -> new UserInfoResponse(
+        rs.getObject("id", UUID.class),
+        rs.getString("email"),
+        rs.getString("display_name"),
+        rs.getString("phone"),
+        UserType.valueOf(rs.getString("user_type")),
+        rs.getBoolean("is_active"),
+        rs.getObject("last_login_at", OffsetDateTime.class),
+        rs.getObject("created_at", OffsetDateTime.class));
+
+    /**
+     * Sortable columns. {@code unique} columns need no id tiebreak in the keyset predicate.
+     */
+    public enum Sort {
+        DISPLAY_NAME("displayName", "display_name", false),
+        EMAIL("email", "email", true),
+        CREATED_AT("createdAt", "created_at", false);
+
+        private final String param;
+        private final String column;
+        private final boolean unique;
+
+        Sort(String param, String column, boolean unique) {
+            this.param = param;
+            this.column = column;
+            this.unique = unique;
+        }
+
+        static Sort fromParam(String param) {
+            for (Sort sort : values()) {
+                if (sort.param.equals(param)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException("unknown sort: " + param);
+        }
+    }
+
+    public enum ExportFormat {
+        NDJSON, CSV;
+
+        public static ExportFormat fromParam(String param) {
+            try {
+                return valueOf(param.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown format: " + param);
+            }
+        }
+    }
+
+    private record Order(Sort sort, boolean descending) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate streaming;
+    private final TransactionTemplate readOnly;
+    private final ObjectMapper json;
+
+    public UserDirectoryService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ObjectMapper json) {
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(EXPORT_FETCH_SIZE);
+        this.streaming = new NamedParameterJdbcTemplate(cursor);
+        // The Postgres driver only honours the fetch size inside a transaction
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.json = json;
+    }
+
+    /**
+     * One page of users matching the filters.
+     *
+     * @param sort  {@code displayName}, {@code email} or {@code createdAt}, optionally followed by
+     *              {@code ,asc} or {@code ,desc}; defaults to {@code displayName,asc}
+     * @param after cursor from the previous page, or null for the first
+     */
+    public UserPage getUsers(UserType userType, Boolean active, String sort, String after, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Order order = parseOrder(sort);
+        String column = order.sort().column;
+        String direction = order.descending() ? "desc" : "asc";
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> where = filters(userType, active, params);
+        if (after != null && !after.isBlank()) {
+            String comparison = order.descending() ? "<" : ">";
+            Cursor cursor = decodeCursor(after, order.sort());
+            params.addValue("afterKey", cursor.key()).addValue("afterId", cursor.id());
+            where.add(order.sort().unique
+                ? column + " " + comparison + " :afterKey"
+                : "(" + column + ", id) " + comparison + " (:afterKey, :afterId)");
+        }
+        // Fetch one extra row to learn whether another page follows
+        params.addValue("fetch", size + 1);
+        String sql = "select " + COLUMNS + " from app_user" + whereClause(where)
+            + " order by " + column + " " + direction + ", id " + direction + " limit :fetch";
+
+        List<UserInfoResponse> rows = jdbc.query(sql, params, ROW);
+        boolean more = rows.size() > size;
+        List<UserInfoResponse> page = more ? rows.subList(0, size) : rows;
+        String next = more ? encodeCursor(page.get(size - 1), order.sort()) : null;
+        return new UserPage(List.copyOf(page), next);
+    }
+
+    /**
+     * Write every user matching the filters to {@code out}, ordered by display name. Rows are
+     * streamed from the database; memory use does not grow with the directory size.
+     */
+    public void export(ExportFormat format, UserType userType, Boolean active, OutputStream out) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "select " + COLUMNS + " from app_user" + whereClause(filters(userType, active, params))
+            + " order by display_name, id";
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write("id,email,displayName,phone,userType,isActive,lastLoginAt,createdAt\n");
+            }
+            readOnly.executeWithoutResult(status -> streaming.query(sql, params, rs -> {
+                try {
+                    write(format, ROW.mapRow(rs, 0), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(ExportFormat format, UserInfoResponse user, Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(json.writeValueAsString(user));
+        } else {
+            writer.write(csv(user.id()) + "," + csv(user.email()) + "," + csv(user.displayName()) + ","
+                + csv(user.phone()) + "," + csv(user.userType()) + "," + user.isActive() + ","
+                + csv(user.lastLoginAt()) + "," + csv(user.createdAt()));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> filters(UserType userType, Boolean active, MapSqlParameterSource params) {
+        List<String> where = new ArrayList<>();
+        // Deleted users stay in app_user until UserPurgeService has removed their data
+        where.add("not exists (select 1 from user_purge p where p.user_id = app_user.id)");
+        if (userType != null) {
+            where.add("user_type = :userType");
+            params.addValue("userType", userType.name());
+        }
+        if (active != null) {
+            where.add("is_active = :active");
+            params.addValue("active", active);
+        }
+        return where;
+    }
+
+    private static String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " where " + String.join(" and ", where);
+    }
+
+    private static Order parseOrder(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return new Order(Sort.DISPLAY_NAME, false);
+        }
+        String[] parts = sort.split(",", 2);
+        boolean descending = false;
+        if (parts.length == 2) {
+            String direction = parts[1].trim().toLowerCase(Locale.ROOT);
+            if (!direction.equals("asc") && !direction.equals("desc")) {
+                throw new IllegalArgumentException("unknown sort direction: " + parts[1]);
+            }
+            descending = direction.equals("desc");
+        }
+        return new Order(Sort.fromParam(parts[0].trim()), descending);
+    }
+
+    private record Cursor(Object key, UUID id) {
+    }
+
+    private static String encodeCursor(UserInfoResponse last, Sort sort) {
+        String key = switch (sort) {
+            case DISPLAY_NAME -> last.displayName();
+            case EMAIL -> last.email();
+            case CREATED_AT -> last.createdAt().toInstant().toString();
+        };
+        String raw = last.id() + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor, Sort sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            UUID id = UUID.fromString(raw.substring(0, sep));
+            String key = raw.substring(sep + 1);
+            return new Cursor(sort == Sort.CREATED_AT
+                ? OffsetDateTime.ofInstant(Instant.parse(key), ZoneOffset.UTC)
+                : key, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
@@ -2,17 +2,21 @@ package com.attendo.mos.service;
 
 import com.attendo.mos.entity.User;
 import com.attendo.mos.entity.UserAssignment;
+import com.attendo.mos.dto.UserPurgeStatus;
 import com.attendo.mos.dto.UserType;
 import com.attendo.mos.repository.UserAssignmentRepository;
 import com.attendo.mos.repo.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -23,17 +27,32 @@ public class UserManagementService {
     
     private final UserRepository userRepository;
     private final UserAssignmentRepository userAssignmentRepository;
+    private final AssignmentIndex assignmentIndex;
     private final UserPermissionService userPermissionService;
+    private final UserPurgeService userPurgeService;
+    private final MealRequirementRollup mealRequirementRollup;
+    private final ReminderStats reminderStats;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
     
     public UserManagementService(UserRepository userRepository, 
                                 UserAssignmentRepository userAssignmentRepository,
+                                AssignmentIndex assignmentIndex,
                                 UserPermissionService userPermissionService,
-                                PasswordEncoder passwordEncoder) {
+                                UserPurgeService userPurgeService,
+                                MealRequirementRollup mealRequirementRollup,
+                                ReminderStats reminderStats,
+                                PasswordEncoder passwordEncoder,
+                                ApplicationEventPublisher events) {
         this.userRepository = userRepository;
         this.userAssignmentRepository = userAssignmentRepository;
+        this.assignmentIndex = assignmentIndex;
         this.userPermissionService = userPermissionService;
+        this.userPurgeService = userPurgeService;
+        this.mealRequirementRollup = mealRequirementRollup;
+        this.reminderStats = reminderStats;
         this.passwordEncoder = passwordEncoder;
+        this.events = events;
     }
     
     public User createCaretaker(String name, String email, String phone, UUID caregiverId) {
@@ -52,20 +71,32 @@ public class UserManagementService {
         
         UserAssignment assignment = new UserAssignment(caregiver, savedCaretaker);
         userAssignmentRepository.save(assignment);
+        events.publishEvent(new AssignmentChangedEvent(caregiverId, savedCaretaker.getId(), true));
         
         return savedCaretaker;
     }
     
+    /**
+     * Caretakers assigned to the caregiver, by display name: ids from {@link AssignmentIndex},
+     * users in one batched fetch.
+     */
     public List<User> getCaretakersByCaregiver(UUID caregiverId) {
-        return userAssignmentRepository.findCaretakersByCaregiverId(caregiverId);
+        List<User> caretakers = userRepository.findAllById(assignmentIndex.caretakersOf(caregiverId));
+        caretakers.sort(Comparator.comparing(User::getDisplayName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return caretakers;
+    }
+    
+    public boolean isCaretakerOf(UUID caregiverId, UUID caretakerId) {
+        return assignmentIndex.isAssigned(caregiverId, caretakerId);
     }
     
     public Optional<User> getCaregiverByCaretaker(UUID caretakerId) {
-        return userAssignmentRepository.findCaregiverByCaretakerId(caretakerId);
+        return assignmentIndex.caregiversOf(caretakerId).stream().findFirst()
+            .flatMap(userRepository::findById);
     }
     
     public void assignCaretakerToCaregiver(UUID caregiverId, UUID caretakerId) {
-        if (userAssignmentRepository.existsByCaregiverIdAndCaretakerId(caregiverId, caretakerId)) {
+        if (assignmentIndex.isAssigned(caregiverId, caretakerId)) {
             throw new RuntimeException("Assignment already exists");
         }
         
@@ -76,22 +107,20 @@ public class UserManagementService {
         
         UserAssignment assignment = new UserAssignment(caregiver, caretaker);
         userAssignmentRepository.save(assignment);
+        events.publishEvent(new AssignmentChangedEvent(caregiverId, caretakerId, true));
     }
     
     public void removeCaretakerFromCaregiver(UUID caregiverId, UUID caretakerId) {
         userAssignmentRepository.deleteByCaregiverIdAndCaretakerId(caregiverId, caretakerId);
+        events.publishEvent(new AssignmentChangedEvent(caregiverId, caretakerId, false));
     }
     
-    public void deleteCaretaker(UUID caretakerId) {
-        // Remove all assignments
-        userAssignmentRepository.findByCaretakerId(caretakerId)
-            .forEach(assignment -> userAssignmentRepository.delete(assignment));
-        
-        // Remove all permissions
-        userPermissionService.deleteAllUserPermissions(caretakerId);
-        
-        // Delete the user
-        userRepository.deleteById(caretakerId);
+    /**
+     * Delete a caretaker. Returns once the caretaker is deactivated and unassigned; their data is
+     * removed in the background by {@link UserPurgeService}.
+     */
+    public UserPurgeStatus deleteCaretaker(UUID caretakerId, UUID deletedBy) {
+        return retireUser(caretakerId, deletedBy);
     }
     
     public void setCaretakerPermissions(UUID caretakerId, List<String> permissionNames, UUID grantedBy) {
@@ -103,7 +132,7 @@ public class UserManagementService {
     }
     
     /**
-     * Admin-only method to create any type of user with automatic permission assignment
+     * Admin-only method to create any type of user; permissions follow the user type's role
      */
     public User createUser(String name, String email, String phone, UserType userType, UUID createdBy) {
         // Verify the creator is an admin
@@ -124,40 +153,15 @@ public class UserManagementService {
         newUser.setUserType(userType);
         newUser.setPasswordHash(passwordEncoder.encode("defaultPassword123")); // TODO: Generate secure password
         
-        User savedUser = userRepository.save(newUser);
-        
-        // Assign default permissions based on user type
-        assignDefaultPermissions(savedUser, createdBy);
-        
-        return savedUser;
-    }
-    
-    private void assignDefaultPermissions(User user, UUID grantedBy) {
-        switch (user.getUserType()) {
-            case ADMIN:
-                // Admins get all permissions
-                userPermissionService.grantPermission(user.getId(), "VIEW_REMINDERS", grantedBy);
-                userPermissionService.grantPermission(user.getId(), "CREATE_REMINDERS", grantedBy);
-                userPermissionService.grantPermission(user.getId(), "MEAL_REQUIREMENTS", grantedBy);
-                break;
-            case CAREGIVER:
-                // Caregivers get permissions to manage reminders and meal requirements
-                userPermissionService.grantPermission(user.getId(), "VIEW_REMINDERS", grantedBy);
-                userPermissionService.grantPermission(user.getId(), "CREATE_REMINDERS", grantedBy);
-                userPermissionService.grantPermission(user.getId(), "MEAL_REQUIREMENTS", grantedBy);
-                break;
-            case RESIDENT:
-                // Residents get permissions to view and manage their own reminders
-                userPermissionService.grantPermission(user.getId(), "VIEW_REMINDERS", grantedBy);
-                userPermissionService.grantPermission(user.getId(), "CREATE_REMINDERS", grantedBy);
-                break;
-        }
+        // Default permissions come from the user type's role; nothing to store per user
+        return userRepository.save(newUser);
     }
     
     /**
-     * Admin-only method to delete any user with proper protection checks
+     * Admin-only method to delete any user with proper protection checks. Returns once the user is
+     * deactivated; their data is removed in the background by {@link UserPurgeService}.
      */
-    public void deleteUser(UUID userId, UUID deletedBy) {
+    public UserPurgeStatus deleteUser(UUID userId, UUID deletedBy) {
         // Verify the deleter is an admin
         User deleter = userRepository.findById(deletedBy)
             .orElseThrow(() -> new RuntimeException("Deleter not found"));
@@ -177,7 +181,7 @@ public class UserManagementService {
         }
         
         // Delete the user and clean up all related data
-        performUserDeletion(userId);
+        return retireUser(userId, deletedBy);
     }
     
     /**
@@ -188,11 +192,8 @@ public class UserManagementService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Check if caregiver has assigned caretakers
-        if (user.getUserType() == UserType.CAREGIVER) {
-            List<User> assignedCaretakers = userAssignmentRepository.findCaretakersByCaregiverId(userId);
-            if (!assignedCaretakers.isEmpty()) {
-                return false; // Cannot delete caregiver with assigned caretakers
-            }
+        if (user.getUserType() == UserType.CAREGIVER && !assignmentIndex.caretakersOf(userId).isEmpty()) {
+            return false; // Cannot delete caregiver with assigned caretakers
         }
         
         // Check if user has any reminders (optional - you might want to allow deletion with reminders)
@@ -240,8 +241,7 @@ public class UserManagementService {
      */
     public User updateCaretaker(UUID caretakerId, String name, String email, String phone, UUID caregiverId) {
         // Verify the caregiver manages this caretaker
-        List<User> assignedCaretakers = userAssignmentRepository.findCaretakersByCaregiverId(caregiverId);
-        if (assignedCaretakers.stream().noneMatch(caretaker -> caretaker.getId().equals(caretakerId))) {
+        if (!assignmentIndex.isAssigned(caregiverId, caretakerId)) {
             throw new RuntimeException("Caregiver is not assigned to this caretaker");
         }
         
@@ -285,24 +285,6 @@ public class UserManagementService {
         return userRepository.save(userToUpdate);
     }
     
-    /**
-     * Get all users (admin only)
-     */
-    public List<com.attendo.mos.dto.UserInfoResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-            .map(user -> new com.attendo.mos.dto.UserInfoResponse(
-                user.getId(),
-                user.getEmail(),
-                user.getDisplayName(),
-                user.getPhone(),
-                user.getUserType(),
-                user.isActive(),
-                user.getLastLoginAt(),
-                user.getCreatedAt()
-            ))
-            .toList();
-    }
-    
     /**
      * Find user by ID
      */
@@ -312,21 +294,27 @@ public class UserManagementService {
     }
     
     /**
-     * Perform the actual user deletion with cleanup
+     * Unassign and deactivate the user in this transaction (a few single-row or single-statement
+     * writes however much data the user has), then hand the rest to the purge job.
      */
-    private void performUserDeletion(UUID userId) {
-        // Remove all assignments where this user is a caregiver
-        userAssignmentRepository.findByCaregiverId(userId)
-            .forEach(assignment -> userAssignmentRepository.delete(assignment));
-        
-        // Remove all assignments where this user is a caretaker
-        userAssignmentRepository.findByCaretakerId(userId)
-            .forEach(assignment -> userAssignmentRepository.delete(assignment));
+    private UserPurgeStatus retireUser(UUID userId, UUID deletedBy) {
+        // Remove all assignments on either side in one statement
+        Set<UUID> caretakers = assignmentIndex.caretakersOf(userId);
+        Set<UUID> caregivers = assignmentIndex.caregiversOf(userId);
+        userAssignmentRepository.deleteAllByUserId(userId);
+        caretakers.forEach(caretakerId -> events.publishEvent(new AssignmentChangedEvent(userId, caretakerId, false)));
+        caregivers.forEach(caregiverId -> events.publishEvent(new AssignmentChangedEvent(caregiverId, userId, false)));
         
         // Remove all permissions
         userPermissionService.deleteAllUserPermissions(userId);
         
-        // Delete the user
-        userRepository.deleteById(userId);
+        // Deactivated users cannot log in, refresh or pass authorization checks
+        userRepository.deactivate(userId);
+        events.publishEvent(new AuthorizationChangedEvent(userId));
+        mealRequirementRollup.removeResident(userId);
+        reminderStats.removeUser(userId);
+        
+        // Reminders, meal requirements and finally the user row go in the background
+        return userPurgeService.request(userId, deletedBy);
     }
 }
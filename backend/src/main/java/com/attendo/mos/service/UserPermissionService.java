@@ -1,82 +1,189 @@
 package com.attendo.mos.service;
 
-import com.attendo.mos.entity.User;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
 import com.attendo.mos.entity.UserPermission;
+import com.attendo.mos.repository.RolePermissionRepository;
 import com.attendo.mos.repository.UserPermissionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Reads and edits permissions. Every user of a type gets that type's role permissions
+ * ({@code role_permission}); {@code user_permissions} only holds per-user deviations from it, an
+ * enabled row for a permission the role lacks and a disabled row for one the role has. Edits
+ * store the smallest such set, so users who match their role have no rows at all.
+ */
 @Service
 @Transactional
 public class UserPermissionService {
     
     private final UserPermissionRepository userPermissionRepository;
+    private final RolePermissionRepository rolePermissionRepository;
+    private final AuthorizationService authorizationService;
+    private final ApplicationEventPublisher events;
     
-    public UserPermissionService(UserPermissionRepository userPermissionRepository) {
+    public UserPermissionService(UserPermissionRepository userPermissionRepository,
+                                 RolePermissionRepository rolePermissionRepository,
+                                 AuthorizationService authorizationService,
+                                 ApplicationEventPublisher events) {
         this.userPermissionRepository = userPermissionRepository;
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.authorizationService = authorizationService;
+        this.events = events;
     }
     
     public boolean hasPermission(UUID userId, String permissionName) {
-        return userPermissionRepository.existsByUserIdAndPermissionNameAndIsEnabledTrue(userId, permissionName);
+        return authorizationService.hasPermission(userId, permissionName);
     }
     
+    /**
+     * The user's effective permissions: role permissions plus overrides.
+     */
     public List<String> getUserPermissions(UUID userId) {
-        return userPermissionRepository.findEnabledPermissionNamesByUserId(userId);
+        return authorizationService.getPermissionNames(userId);
     }
     
+    /**
+     * The user's overrides of their role's permissions.
+     */
     public List<UserPermission> getUserPermissionDetails(UUID userId) {
         return userPermissionRepository.findByUserId(userId);
     }
     
     public void grantPermission(UUID userId, String permissionName, UUID grantedBy) {
-        // Check if permission already exists
-        Optional<UserPermission> existingPermission = userPermissionRepository.findByUserIdAndPermissionName(userId, permissionName);
-        
-        if (existingPermission.isPresent()) {
-            // Update existing permission
-            UserPermission permission = existingPermission.get();
-            permission.setIsEnabled(true);
-            userPermissionRepository.save(permission);
-        } else {
-            // Create new permission using the constructor that sets all fields
-            User user = new User();
-            user.setId(userId);
-            
-            User grantedByUser = new User();
-            grantedByUser.setId(grantedBy);
-            
-            UserPermission newPermission = new UserPermission(user, permissionName, true, grantedByUser);
-            userPermissionRepository.save(newPermission);
-        }
+        grantPermissions(userId, List.of(permissionName), grantedBy);
+    }
+    
+    /**
+     * Enable the given permissions, leaving others as they are.
+     */
+    public void grantPermissions(UUID userId, Collection<String> permissionNames, UUID grantedBy) {
+        change(userId, checkedMask(permissionNames), true, grantedBy);
     }
     
     public void revokePermission(UUID userId, String permissionName) {
-        userPermissionRepository.findByUserIdAndPermissionName(userId, permissionName)
-            .ifPresent(permission -> {
-                permission.setIsEnabled(false);
-                userPermissionRepository.save(permission);
-            });
+        change(userId, checkedMask(List.of(permissionName)), false, null);
     }
     
+    /**
+     * Make {@code permissionNames} exactly the user's effective permissions.
+     * <p>
+     * The overrides needed for that are written as at most two upserts and one delete, all
+     * expressed against the desired set rather than a read diff. Under READ COMMITTED two
+     * concurrent replacements could still interleave and leave the union of both sets, so the
+     * user's row is locked first: replacements for one user run one after another and the last to
+     * commit wins. Whether anything changes is decided under that lock from the stored role and
+     * overrides, never from the authorization cache, which can lag a change made on another
+     * instance. Unchanged sets write nothing.
+     * </p>
+     */
     public void setUserPermissions(UUID userId, List<String> permissionNames, UUID grantedBy) {
-        // First, disable all existing permissions
-        List<UserPermission> existingPermissions = userPermissionRepository.findByUserId(userId);
-        for (UserPermission permission : existingPermissions) {
-            permission.setIsEnabled(false);
+        long desired = checkedMask(permissionNames);
+        UserType type = userPermissionRepository.lockUserType(userId).map(UserType::valueOf)
+            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        long role = PermissionConstants.mask(rolePermissionRepository.findPermissionNamesByUserType(type));
+        long granted = desired & ~role;
+        long denied = role & ~desired;
+        
+        long storedGranted = 0;
+        long storedDenied = 0;
+        for (UserPermission override : userPermissionRepository.findByUserId(userId)) {
+            long bit = PermissionConstants.bit(override.getPermissionName());
+            if (Boolean.TRUE.equals(override.getIsEnabled())) {
+                storedGranted |= bit;
+            } else {
+                storedDenied |= bit;
+            }
+        }
+        if (storedGranted == granted && storedDenied == denied) {
+            return;
         }
-        userPermissionRepository.saveAll(existingPermissions);
         
-        // Then, enable the specified permissions
-        for (String permissionName : permissionNames) {
-            grantPermission(userId, permissionName, grantedBy);
+        if (granted != 0) {
+            userPermissionRepository.upsertOverrides(userId, names(granted), true, grantedBy);
+        }
+        if (denied != 0) {
+            userPermissionRepository.upsertOverrides(userId, names(denied), false, grantedBy);
         }
+        userPermissionRepository.deleteOverridesExcept(userId, names(granted | denied));
+        events.publishEvent(new AuthorizationChangedEvent(userId));
     }
     
+    /**
+     * Drop all of the user's overrides, leaving exactly their role's permissions.
+     */
     public void deleteAllUserPermissions(UUID userId) {
         userPermissionRepository.deleteByUserId(userId);
+        events.publishEvent(new AuthorizationChangedEvent(userId));
+    }
+    
+    public List<String> getRolePermissions(UserType userType) {
+        return PermissionConstants.names(authorizationService.roleMask(userType));
+    }
+    
+    /**
+     * Make {@code permissionNames} exactly the permissions of every {@code userType} user without
+     * an override. One or two statements however many users have the type.
+     */
+    public void setRolePermissions(UserType userType, List<String> permissionNames) {
+        long desired = checkedMask(permissionNames);
+        long current = authorizationService.roleMask(userType);
+        if (current == desired) {
+            return;
+        }
+        
+        String[] keep = names(desired);
+        if ((desired & ~current) != 0) {
+            rolePermissionRepository.addAll(userType.name(), keep);
+        }
+        if ((current & ~desired) != 0) {
+            rolePermissionRepository.deleteAllExcept(userType.name(), keep);
+        }
+        events.publishEvent(new RolePermissionsChangedEvent(userType));
+    }
+    
+    // For each permission, a role that already agrees with the target state makes the override
+    // redundant, so it is dropped; otherwise an override with that state is stored.
+    private void change(UUID userId, long permissions, boolean enabled, UUID grantedBy) {
+        if (permissions == 0) {
+            return;
+        }
+        long role = authorizationService.roleMask(grantsOf(userId).type());
+        long redundant = enabled ? permissions & role : permissions & ~role;
+        long overrides = permissions & ~redundant;
+        if (overrides != 0) {
+            userPermissionRepository.upsertOverrides(userId, names(overrides), enabled, grantedBy);
+        }
+        if (redundant != 0) {
+            userPermissionRepository.deleteOverrides(userId, names(redundant));
+        }
+        events.publishEvent(new AuthorizationChangedEvent(userId));
+    }
+    
+    private AuthorizationService.Grants grantsOf(UUID userId) {
+        AuthorizationService.Grants grants = authorizationService.grantsFor(userId);
+        if (grants.type() == null) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return grants;
+    }
+    
+    private static long checkedMask(Collection<String> permissionNames) {
+        for (String name : permissionNames) {
+            if (PermissionConstants.bit(name) == 0) {
+                throw new IllegalArgumentException("Unknown permission: " + name);
+            }
+        }
+        return PermissionConstants.mask(permissionNames);
+    }
+    
+    private static String[] names(long mask) {
+        return PermissionConstants.names(mask).toArray(String[]::new);
     }
 }
@@ -0,0 +1,9 @@
+package com.attendo.mos.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link UserPurgeService#request} so the purge starts once the deletion has committed.
+ */
+public record UserPurgeRequestedEvent(UUID userId) {
+}
@@ -0,0 +1,193 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.UserPurgeStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Removes a deleted user's data in the background.
+ * <p>
+ * {@link #request} only records a {@code user_purge} row; once the deleting transaction has
+ * committed, a single worker thread deletes the user's reminders and then meal requirements
+ * {@code app.purge.chunk-size} rows at a time, each chunk committed together with its progress
+ * counter, and finally the {@code app_user} row. Locks are therefore held for one chunk at a
+ * time, and a purge interrupted by a restart or an error resumes where it stopped on the next
+ * start (or the next deletion request for the same user).
+ * </p>
+ */
+@Service
+public class UserPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private static final RowMapper<UserPurgeStatus> ROW = (rs, i) -> new UserPurgeStatus(
+        rs.getObject("user_id", UUID.class),
+        rs.getString("status"),
+        rs.getLong("reminders_deleted"),
+        rs.getLong("meal_requirements_deleted"),
+        rs.getObject("requested_at", OffsetDateTime.class),
+        rs.getObject("updated_at", OffsetDateTime.class),
+        rs.getObject("completed_at", OffsetDateTime.class),
+        rs.getString("last_error"));
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("user-purge").daemon().factory());
+    // Users queued or being purged on this instance, so a purge never runs twice at once
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+
+    public UserPurgeService(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher events,
+                            @Value("${app.purge.chunk-size:1000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Record that {@code userId} is to be purged, within the caller's transaction. Re-requesting
+     * an unfinished purge clears its error; a finished one is left as is.
+     */
+    public UserPurgeStatus request(UUID userId, UUID requestedBy) {
+        jdbc.update("insert into user_purge (user_id, requested_by) values (?, ?) "
+            + "on conflict (user_id) do update set status = 'PENDING', last_error = null, updated_at = now() "
+            + "where user_purge.completed_at is null", userId, requestedBy);
+        events.publishEvent(new UserPurgeRequestedEvent(userId));
+        return getStatus(userId).orElseThrow();
+    }
+
+    public Optional<UserPurgeStatus> getStatus(UUID userId) {
+        return jdbc.query("select * from user_purge where user_id = ?", ROW, userId).stream().findFirst();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPurgeRequested(UserPurgeRequestedEvent event) {
+        schedule(event.userId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            List<UUID> unfinished = jdbc.queryForList(
+                "select user_id from user_purge where completed_at is null order by requested_at", UUID.class);
+            unfinished.forEach(this::schedule);
+        } catch (DataAccessException e) {
+            logger.warn("Could not resume user purges: {}", e.getMessage());
+        }
+    }
+
+    private void schedule(UUID userId) {
+        if (!scheduled.add(userId)) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                try {
+                    purge(userId);
+                } finally {
+                    scheduled.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; resumed on the next start
+            scheduled.remove(userId);
+        }
+    }
+
+    /**
+     * Run the purge of {@code userId} to completion on the calling thread.
+     */
+    void purge(UUID userId) {
+        try {
+            long reminders = 0;
+            List<UUID> deleted;
+            do {
+                deleted = deleteReminderChunk(userId);
+                reminders += deleted.size();
+            } while (deleted.size() == chunkSize);
+            // One notice for the whole user, so the occurrence cache and dispatcher drop them all at once
+            events.publishEvent(new UserRemindersPurgedEvent(userId));
+
+            int meals;
+            do {
+                meals = deleteMealRequirementChunk(userId);
+            } while (meals == chunkSize);
+
+            tx.executeWithoutResult(status -> {
+                // Permissions this user granted to others outlive them
+                jdbc.update("update user_permissions set granted_by = null where granted_by = ?", userId);
+                // Reminder history has no foreign keys, so it is not covered by the cascade
+                jdbc.update("delete from reminder_event where user_id = ?", userId);
+                jdbc.update("delete from reminder_adherence where user_id = ?", userId);
+                // Cascades to whatever was added since the chunks ran
+                jdbc.update("delete from app_user where id = ?", userId);
+                jdbc.update("update user_purge set status = 'DONE', completed_at = now(), updated_at = now() "
+                    + "where user_id = ?", userId);
+            });
+            logger.info("Purged user {} ({} reminders)", userId, reminders);
+        } catch (RuntimeException e) {
+            // Whatever went wrong, record it and leave the worker free for the next user
+            logger.warn("Purge of user {} stopped, will resume: {}", userId, e.getMessage());
+            try {
+                jdbc.update("update user_purge set status = 'FAILED', last_error = ?, updated_at = now() where user_id = ?",
+                    e.getMessage(), userId);
+            } catch (RuntimeException ignored) {
+                // Status stays RUNNING; the purge is resumed on the next start either way
+            }
+        }
+    }
+
+    private List<UUID> deleteReminderChunk(UUID userId) {
+        return tx.execute(status -> {
+            List<UUID> ids = jdbc.queryForList("delete from reminder where id in "
+                + "(select id from reminder where user_id = ? limit ?) returning id", UUID.class, userId, chunkSize);
+            progress(userId, "reminders_deleted", ids.size());
+            return ids;
+        });
+    }
+
+    private int deleteMealRequirementChunk(UUID userId) {
+        return tx.execute(status -> {
+            int count = jdbc.update("delete from meal_requirement where id in "
+                + "(select id from meal_requirement where user_id = ? limit ?)", userId, chunkSize);
+            progress(userId, "meal_requirements_deleted", count);
+            return count;
+        });
+    }
+
+    private void progress(UUID userId, String column, int count) {
+        jdbc.update("update user_purge set status = 'RUNNING', " + column + " = " + column + " + ?, "
+            + "updated_at = now() where user_id = ?", count, userId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+}
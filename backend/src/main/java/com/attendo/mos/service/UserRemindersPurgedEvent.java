@@ -0,0 +1,10 @@
+package com.attendo.mos.service;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link UserPurgeService} once all of a deleted user's reminders are gone, in place
+ * of a {@link ReminderChangedEvent} per reminder.
+ */
+public record UserRemindersPurgedEvent(UUID userId) {
+}
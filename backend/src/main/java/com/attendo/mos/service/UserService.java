@@ -35,18 +35,7 @@ public class UserService {
     }
     
     public List<UserInfoResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-            .map(user -> new UserInfoResponse(
-                user.getId(),
-                user.getEmail(),
-                user.getDisplayName(),
-                user.getPhone(),
-                user.getUserType(),
-                user.isActive(),
-                user.getLastLoginAt(),
-                user.getCreatedAt()
-            ))
-            .toList();
+        return userRepository.findAllInfo();
     }
     
     public User findUserByEmail(String email) {
@@ -0,0 +1,11 @@
+-- V15__reminder_listing_index.sql
+-- Composite index backing the keyset-paginated reminder listing:
+--   where user_id = ? [and (coalesce(time_at, created_at), id) > (?, ?)]
+--   order by coalesce(time_at, created_at), id
+-- The expression must stay identical to the one in ReminderRepository.listForUser.
+
+CREATE INDEX IF NOT EXISTS idx_reminder_user_sort
+    ON reminder (user_id, (coalesce(time_at, created_at)), id);
+
+-- user_id is the leading column of the new index, so the single-column one is redundant
+DROP INDEX IF EXISTS idx_reminder_user_id;
@@ -0,0 +1,21 @@
+-- V16__typed_reminder_recurrence.sql
+-- Typed recurrence columns replacing the jsonb {"days": [...], "times": [...]} map:
+--   recurrence_days    weekday bitmask, bit 0 = Monday ... bit 6 = Sunday
+--   recurrence_minutes sorted, distinct minute-of-day values (0..1439)
+-- Both are NULL for type=once.
+--
+-- Existing rows are converted by RecurrenceBackfillJob after startup, in chunks, using the
+-- same day/time parser as the API. The jsonb column is no longer written by the application
+-- and can be dropped once the backfill has finished everywhere.
+
+ALTER TABLE reminder
+    ADD COLUMN recurrence_days    SMALLINT,
+    ADD COLUMN recurrence_minutes SMALLINT[];
+
+ALTER TABLE reminder
+    ADD CONSTRAINT chk_reminder_recurrence_days CHECK (recurrence_days BETWEEN 0 AND 127);
+
+-- Rows still waiting for the backfill
+CREATE INDEX IF NOT EXISTS idx_reminder_recurrence_backfill
+    ON reminder (id)
+    WHERE recurrence IS NOT NULL AND recurrence_days IS NULL;
@@ -0,0 +1,12 @@
+-- V17__revoked_token.sql
+-- Token ids (jti) revoked before their natural expiry: logout and refresh-token rotation.
+-- Rows are only needed until expires_at; TokenRevocationService loads the live ones into an
+-- in-memory Bloom filter and deletes the rest when it rebuilds.
+
+CREATE TABLE IF NOT EXISTS revoked_token (
+    jti        UUID PRIMARY KEY,
+    expires_at TIMESTAMPTZ NOT NULL,
+    revoked_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_expires_at ON revoked_token (expires_at);
@@ -0,0 +1,7 @@
+-- V18__user_directory_indexes.sql
+-- Keyset pagination of the admin user directory (UserDirectoryService):
+--   order by <column>, id  with  (<column>, id) > (?, ?)
+-- email is already covered by its unique index.
+
+CREATE INDEX IF NOT EXISTS idx_app_user_display_name ON app_user (display_name, id);
+CREATE INDEX IF NOT EXISTS idx_app_user_created_at ON app_user (created_at, id);
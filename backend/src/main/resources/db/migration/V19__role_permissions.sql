@@ -0,0 +1,38 @@
+-- V19__role_permissions.sql
+-- Permission templates per user type. A user's effective permissions are their role's
+-- permissions plus per-user overrides in user_permissions: an enabled row grants a permission
+-- the role lacks, a disabled row withholds one the role has (see AuthorizationService).
+
+CREATE TABLE role_permission (
+    user_type VARCHAR(20) NOT NULL,
+    permission_name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (user_type, permission_name)
+);
+
+-- The defaults UserManagementService used to copy onto every new user
+INSERT INTO role_permission (user_type, permission_name) VALUES
+('ADMIN', 'VIEW_REMINDERS'),
+('ADMIN', 'CREATE_REMINDERS'),
+('ADMIN', 'MEAL_REQUIREMENTS'),
+('CAREGIVER', 'VIEW_REMINDERS'),
+('CAREGIVER', 'CREATE_REMINDERS'),
+('CAREGIVER', 'MEAL_REQUIREMENTS'),
+('RESIDENT', 'VIEW_REMINDERS'),
+('RESIDENT', 'CREATE_REMINDERS');
+
+-- Reduce user_permissions to overrides without changing anyone's effective permissions.
+-- 1. Users lacking a role permission (no row at all) get an explicit denial
+INSERT INTO user_permissions (user_id, permission_name, is_enabled)
+SELECT u.id, rp.permission_name, false
+FROM app_user u
+JOIN role_permission rp ON rp.user_type = u.user_type
+ON CONFLICT (user_id, permission_name) DO NOTHING;
+
+-- 2. Rows that merely repeat the role are dropped: enabled rows for role permissions and
+--    disabled rows for permissions the role does not grant anyway
+DELETE FROM user_permissions up
+USING app_user u
+WHERE u.id = up.user_id
+  AND up.is_enabled = EXISTS (
+      SELECT 1 FROM role_permission rp
+      WHERE rp.user_type = u.user_type AND rp.permission_name = up.permission_name);
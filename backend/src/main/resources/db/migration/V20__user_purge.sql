@@ -0,0 +1,19 @@
+-- V20__user_purge.sql
+-- Progress of background user deletions (UserPurgeService). A deleted user is deactivated at
+-- once; their reminders and meal requirements are then removed in chunks and the app_user row
+-- last. No foreign key: the row outlives the user as a record of the deletion.
+
+CREATE TABLE user_purge (
+    user_id UUID PRIMARY KEY,
+    requested_by UUID,
+    requested_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    reminders_deleted BIGINT NOT NULL DEFAULT 0,
+    meal_requirements_deleted BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    completed_at TIMESTAMPTZ,
+    last_error TEXT
+);
+
+-- Unfinished purges are resumed on startup
+CREATE INDEX idx_user_purge_unfinished ON user_purge (requested_at) WHERE completed_at IS NULL;
@@ -0,0 +1,21 @@
+-- V21__meal_requirement_rollup.sql
+-- Facility-wide roll-up of meal requirements for the kitchen: one row per normalized requirement
+-- (trimmed, whitespace collapsed, lower-cased) with the active residents who have it. Maintained
+-- by MealRequirementService alongside every change, so the kitchen view never scans
+-- meal_requirement.
+
+CREATE TABLE meal_requirement_rollup (
+    requirement_key TEXT PRIMARY KEY,
+    requirement TEXT NOT NULL,
+    resident_ids UUID[] NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+INSERT INTO meal_requirement_rollup (requirement_key, requirement, resident_ids)
+SELECT lower(regexp_replace(btrim(mr.notes), '\s+', ' ', 'g')),
+       min(btrim(mr.notes)),
+       array_agg(DISTINCT mr.user_id)
+FROM meal_requirement mr
+JOIN app_user u ON u.id = mr.user_id
+WHERE u.user_type = 'RESIDENT' AND u.is_active AND btrim(coalesce(mr.notes, '')) <> ''
+GROUP BY 1;
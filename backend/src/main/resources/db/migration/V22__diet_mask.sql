@@ -0,0 +1,14 @@
+-- V22__diet_mask.sql
+-- One bit per MealRequirementType code (except OTHER) for each user's meal requirements, so
+-- "residents who need / must avoid X" is a bitwise test on one column instead of a text match
+-- over meal_requirement. Existing users start as NULL (not yet classified) and are filled in by
+-- DietMaskBackfillJob after startup; new users start with no codes. MealRequirementService keeps
+-- the mask current from then on.
+
+ALTER TABLE app_user ADD COLUMN diet_mask BIGINT;
+ALTER TABLE app_user ALTER COLUMN diet_mask SET DEFAULT 0;
+
+-- "Has any / all of X" filters only ever match residents with at least one code; the partial
+-- index covers just those and answers the filter without touching the table
+CREATE INDEX idx_app_user_diet_mask ON app_user (diet_mask) INCLUDE (id, display_name)
+    WHERE user_type = 'RESIDENT' AND is_active AND diet_mask <> 0;
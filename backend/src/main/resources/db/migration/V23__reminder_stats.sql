@@ -0,0 +1,21 @@
+-- V23__reminder_stats.sql
+-- Reminder counters for the statistics API, per scope and (category, type, day):
+--   scope USER       scope_id = the reminder's owner
+--   scope CAREGIVER  scope_id = a caregiver the owner is assigned to
+--   scope FACILITY   scope_id = the nil UUID
+-- day is the local date (app.timezone) of coalesce(time_at, created_at), the same key the
+-- reminder listing sorts on. Only active users' reminders are counted.
+--
+-- ReminderService and assignment changes apply deltas inside their own transactions; ReminderStats
+-- reconciles the table against reminder on startup (which also fills it the first time, since the
+-- bucket depends on the configured time zone) and then periodically.
+
+CREATE TABLE reminder_stats (
+    scope          VARCHAR(10) NOT NULL,
+    scope_id       UUID        NOT NULL,
+    day            DATE        NOT NULL,
+    category       VARCHAR(40) NOT NULL,
+    type           VARCHAR(20) NOT NULL,
+    reminder_count INTEGER     NOT NULL,
+    PRIMARY KEY (scope, scope_id, day, category, type)
+);
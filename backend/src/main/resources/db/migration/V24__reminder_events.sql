@@ -0,0 +1,43 @@
+-- V24__reminder_events.sql
+-- What residents and staff did when a reminder fired. reminder_event is append-only and
+-- range-partitioned by occurrence time, one partition per UTC month (reminder_event_YYYY_MM);
+-- ReminderEventIngestor creates the partitions for the previous, current and coming months on
+-- startup and daily. The default partition only catches rows outside those months.
+--
+-- There is deliberately no foreign key to reminder: recording an event must not lock the
+-- reminder row, and the history outlives the reminder. user_id and category are copied from
+-- the reminder when the event is recorded.
+--
+-- An occurrence has at most one outcome (ACKNOWLEDGED or MISSED); the first one recorded wins.
+-- It may be SNOOZED any number of times before that.
+
+CREATE TABLE reminder_event (
+    reminder_id   UUID        NOT NULL,
+    user_id       UUID        NOT NULL,
+    category      VARCHAR(40) NOT NULL,
+    occurrence_at TIMESTAMPTZ NOT NULL,
+    action        VARCHAR(12) NOT NULL CHECK (action IN ('ACKNOWLEDGED', 'SNOOZED', 'MISSED')),
+    acted_at      TIMESTAMPTZ NOT NULL,
+    recorded_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    recorded_by   UUID
+) PARTITION BY RANGE (occurrence_at);
+
+CREATE UNIQUE INDEX uq_reminder_event_outcome ON reminder_event (reminder_id, occurrence_at)
+    WHERE action <> 'SNOOZED';
+CREATE INDEX idx_reminder_event_user ON reminder_event (user_id, occurrence_at);
+
+CREATE TABLE reminder_event_default PARTITION OF reminder_event DEFAULT;
+
+-- Adherence counters per resident, category and local month (app.timezone), maintained by the
+-- same statement that inserts the events. on_time counts acknowledgements within
+-- app.reminder-events.on-time-window of the occurrence.
+CREATE TABLE reminder_adherence (
+    user_id      UUID        NOT NULL,
+    month        DATE        NOT NULL,
+    category     VARCHAR(40) NOT NULL,
+    acknowledged INTEGER     NOT NULL DEFAULT 0,
+    on_time      INTEGER     NOT NULL DEFAULT 0,
+    snoozed      INTEGER     NOT NULL DEFAULT 0,
+    missed       INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, month, category)
+);
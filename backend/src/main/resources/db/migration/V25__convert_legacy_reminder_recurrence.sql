@@ -0,0 +1,49 @@
+-- V25__convert_legacy_reminder_recurrence.sql
+-- Convert every reminder still holding only the legacy jsonb recurrence into the typed
+-- recurrence_days / recurrence_minutes columns from V16, as part of the migration itself.
+--
+-- Until this ran, such rows were unreadable to the application (no rule) and recurring
+-- reminders disappeared from listings, occurrences and dispatch until RecurrenceBackfillJob
+-- caught up. The conversion mirrors the lenient RecurrenceRule reader: Swedish and English
+-- day names in any case, "H:mm"/"HH:mm" times; unknown entries are dropped. The jsonb column
+-- is left untouched. RecurrenceBackfillJob stays as a safety net for rows written by an older
+-- instance during a rolling deploy.
+
+WITH day_names (name, bit) AS (
+    VALUES ('mån', 1), ('måndag', 1), ('man', 1), ('mandag', 1), ('mon', 1), ('monday', 1),
+           ('tis', 2), ('tisdag', 2), ('tue', 2), ('tues', 2), ('tuesday', 2),
+           ('ons', 4), ('onsdag', 4), ('wed', 4), ('wednesday', 4),
+           ('tor', 8), ('torsdag', 8), ('thu', 8), ('thur', 8), ('thurs', 8), ('thursday', 8),
+           ('fre', 16), ('fredag', 16), ('fri', 16), ('friday', 16),
+           ('lör', 32), ('lördag', 32), ('lor', 32), ('lordag', 32), ('sat', 32), ('saturday', 32),
+           ('sön', 64), ('söndag', 64), ('son', 64), ('sondag', 64), ('sun', 64), ('sunday', 64)
+),
+legacy AS (
+    SELECT id,
+           CASE WHEN jsonb_typeof(recurrence -> 'days') = 'array' THEN recurrence -> 'days' ELSE '[]'::jsonb END  AS days,
+           CASE WHEN jsonb_typeof(recurrence -> 'times') = 'array' THEN recurrence -> 'times' ELSE '[]'::jsonb END AS times
+    FROM reminder
+    WHERE recurrence IS NOT NULL
+      AND recurrence_days IS NULL
+      AND lower(type) = 'recurring'
+)
+UPDATE reminder r
+SET recurrence_days    = (
+        SELECT coalesce(bit_or(d.bit), 0)::smallint
+        FROM jsonb_array_elements_text(l.days) AS e(label)
+        JOIN day_names d ON d.name = translate(lower(btrim(e.label)), 'ÅÄÖ', 'åäö')
+    ),
+    recurrence_minutes = (
+        SELECT coalesce(array_agg(DISTINCT t.minute ORDER BY t.minute), '{}'::smallint[])
+        FROM (
+            SELECT CASE
+                       WHEN btrim(e.value) ~ '^([01]?[0-9]|2[0-3]):[0-5][0-9]$'
+                           THEN (split_part(btrim(e.value), ':', 1)::int * 60
+                                 + split_part(btrim(e.value), ':', 2)::int)::smallint
+                   END AS minute
+            FROM jsonb_array_elements_text(l.times) AS e(value)
+        ) t
+        WHERE t.minute IS NOT NULL
+    )
+FROM legacy l
+WHERE r.id = l.id;
@@ -0,0 +1,14 @@
+-- V26__reminder_dispatch_claims.sql
+-- One row per reminder occurrence handed to the sinks. Every ReminderDispatcher instance
+-- fires the same occurrences; each inserts here first and only the instance whose insert
+-- succeeds delivers, so an occurrence is delivered once however many instances run.
+-- Rows older than app.dispatcher.claim-retention are pruned by the dispatcher on refill.
+
+CREATE TABLE reminder_dispatch (
+    reminder_id   UUID        NOT NULL,
+    occurrence_at TIMESTAMPTZ NOT NULL,
+    claimed_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (reminder_id, occurrence_at)
+);
+
+CREATE INDEX idx_reminder_dispatch_occurrence ON reminder_dispatch (occurrence_at);
@@ -0,0 +1,8 @@
+-- V27__reminder_stats_facility_from_users.sql
+-- Facility statistics are now summed from the USER rows at read time instead of being kept in
+-- FACILITY rows that every reminder write had to update. Drop those rows and index the USER
+-- rows by day for the facility read.
+
+DELETE FROM reminder_stats WHERE scope = 'FACILITY';
+
+CREATE INDEX IF NOT EXISTS idx_reminder_stats_scope_day ON reminder_stats (scope, day);
@@ -0,0 +1,48 @@
+package com.attendo.mos.config;
+
+import com.attendo.mos.dto.UserType;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotPathTimingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil target = new JwtUtil();
+        ReflectionTestUtils.setField(target, "secret", "mySecretKeyThatIsAtLeast64CharactersLongForJWT512AlgorithmSecurityRequirements");
+        ReflectionTestUtils.setField(target, "expiration", 900);
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new HotPathTimingAspect(meterRegistry));
+        jwtUtil = factory.getProxy();
+    }
+
+    @Test
+    void time_ShouldRecordCallsPerMethodAndFailuresByException() {
+        // When
+        String token = jwtUtil.generateToken(UUID.randomUUID(), "test@mos.test", UserType.ADMIN);
+        jwtUtil.parse(token);
+        jwtUtil.parse(token);
+        assertThrows(JwtException.class, () -> jwtUtil.parse("garbage"));
+
+        // Then
+        assertThat(meterRegistry.get("mos.service").tag("class", "JwtUtil").tag("method", "parse")
+            .tag("exception", "none").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("mos.service").tag("method", "generateToken").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("mos.service").tag("method", "parse")
+            .tag("exception", "MalformedJwtException").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.attendo.mos.config;
+
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.service.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private TokenRevocationService revocations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtUtil, revocations, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filter_ShouldCountAnInvalidTokenOncePerRequest() throws Exception {
+        // Given
+        when(jwtUtil.parse("bad")).thenThrow(new JwtException("bad signature"));
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(bearer("bad"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertEquals(1.0, failures("invalid"));
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void filter_ShouldCheckRevocationAndCountARevokedTokenOncePerRequest() throws Exception {
+        // Given
+        UUID tokenId = UUID.randomUUID();
+        when(jwtUtil.parse("revoked")).thenReturn(new JwtPrincipal(UUID.randomUUID(), UserType.CAREGIVER,
+                "caregiver@mos.test", Instant.now().plusSeconds(60), tokenId));
+        when(revocations.isRevoked(tokenId)).thenReturn(true);
+
+        // When
+        filter.doFilter(bearer("revoked"), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertEquals(1.0, failures("revoked"));
+        verify(revocations, times(1)).isRevoked(tokenId);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void filter_ShouldNotBeRegisteredAsAServletFilterBean() {
+        // A @Component filter is also added to the servlet chain by Boot, so every request would
+        // pass through it twice: once there and once in the security chain from JwtSecurityConfig
+        assertFalse(JwtAuthenticationFilter.class.isAnnotationPresent(Component.class));
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reminders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private double failures(String reason) {
+        return meterRegistry.counter("auth.jwt.failures", "reason", reason).count();
+    }
+}
@@ -1,6 +1,7 @@
 package com.attendo.mos.config;
 
 import com.attendo.mos.dto.UserType;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -101,4 +102,73 @@ class JwtUtilTest {
         // Then
         assertFalse(isValid);
     }
+
+    @Test
+    void parse_ShouldReturnPrincipalWithAllClaims() {
+        // Given
+        String token = jwtUtil.generateToken(testUserId, testEmail, testUserType);
+
+        // When
+        JwtPrincipal principal = jwtUtil.parse(token);
+
+        // Then
+        assertEquals(testUserId, principal.userId());
+        assertEquals(testUserType, principal.userType());
+        assertEquals(testEmail, principal.email());
+        assertEquals(testUserId.toString(), principal.getName());
+        assertTrue(principal.expiresAt().isAfter(OffsetDateTime.now().toInstant()));
+    }
+
+    @Test
+    void parse_ShouldServeRepeatedTokenFromCache() {
+        // Given
+        String token = jwtUtil.generateToken(testUserId, testEmail, testUserType);
+        JwtPrincipal first = jwtUtil.parse(token);
+
+        // When
+        JwtPrincipal second = jwtUtil.parse(token);
+
+        // Then - same instance, so the signature was not verified again
+        assertSame(first, second);
+    }
+
+    @Test
+    void parse_ShouldRejectTokenAfterSecretChange() {
+        // Given
+        String token = jwtUtil.generateToken(testUserId, testEmail, testUserType);
+        jwtUtil.parse(token);
+
+        // When
+        ReflectionTestUtils.setField(jwtUtil, "secret", testSecret + "-rotated");
+
+        // Then - the cache is dropped together with the old key
+        assertThrows(JwtException.class, () -> jwtUtil.parse(token));
+    }
+
+    @Test
+    void parse_ShouldRejectRefreshTokenAsAccessToken() {
+        // Given
+        String refreshToken = jwtUtil.generateRefreshToken(testUserId, testEmail, testUserType);
+
+        // When / Then
+        assertThrows(JwtException.class, () -> jwtUtil.parse(refreshToken));
+        assertFalse(jwtUtil.validateToken(refreshToken));
+        assertEquals(testUserId, jwtUtil.parseRefreshToken(refreshToken).userId());
+    }
+
+    @Test
+    void parseRefreshToken_ShouldRejectAccessToken() {
+        String token = jwtUtil.generateToken(testUserId, testEmail, testUserType);
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseRefreshToken(token));
+    }
+
+    @Test
+    void generateToken_ShouldGiveEachTokenItsOwnId() {
+        JwtPrincipal first = jwtUtil.parse(jwtUtil.generateToken(testUserId, testEmail, testUserType));
+        JwtPrincipal second = jwtUtil.parse(jwtUtil.generateToken(testUserId, testEmail, testUserType));
+
+        assertNotNull(first.tokenId());
+        assertNotEquals(first.tokenId(), second.tokenId());
+    }
 }
@@ -0,0 +1,55 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.MealSuggestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MealSuggestionControllerTest {
+
+    @Mock
+    private MealSuggestionService mealSuggestionService;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @InjectMocks
+    private MealSuggestionController controller;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID otherResidentId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+
+    @Test
+    void getSuggestions_ForAnotherUsersResident_ShouldReturn403() {
+        // Given - a resident granted MEAL_SUGGESTIONS asks for someone else's
+        JwtPrincipal principal = new JwtPrincipal(residentId, UserType.RESIDENT, "resident@mos.test",
+            Instant.now().plusSeconds(900), UUID.randomUUID());
+        when(authorizationService.hasPermission(residentId, PermissionConstants.MEAL_SUGGESTIONS)).thenReturn(true);
+        when(authorizationService.canViewUser(residentId, otherResidentId)).thenReturn(false);
+
+        // When
+        ResponseEntity<?> response = controller.getSuggestions(principal, otherResidentId, null, null);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verify(mealSuggestionService, never()).suggest(any(), any(), any());
+    }
+}
@@ -2,6 +2,7 @@ package com.attendo.mos.controller;
 
 import com.attendo.mos.dto.Category;
 import com.attendo.mos.dto.CreateReminderRequest;
+import com.attendo.mos.dto.Recurrence;
 import com.attendo.mos.dto.ReminderDto;
 import com.attendo.mos.entity.Reminder;
 import com.attendo.mos.entity.User;
@@ -147,7 +148,7 @@ class ReminderControllerTest {
             "Medication reminder",
             OffsetDateTime.now(ZoneOffset.UTC),
             "recurring",
-            java.util.Map.of("days", List.of("Mon", "Wed", "Fri"), "times", List.of("08:00", "20:00"))
+            new Recurrence(List.of("Mån", "Ons", "Fre"), List.of("08:00", "20:00"))
         );
 
         when(reminderService.addReminder(testUserId, request)).thenReturn(expectedResponse);
@@ -1,6 +1,7 @@
 package com.attendo.mos.controller;
 
 import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.Recurrence;
 import com.attendo.mos.dto.ReminderDto;
 import com.attendo.mos.dto.UpdateReminderRequest;
 import com.attendo.mos.entity.Reminder;
@@ -20,7 +21,6 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -180,10 +180,7 @@ class ReminderControllerUpdateTest {
             "Recurring medication reminder"
         );
 
-        Map<String, Object> recurrence = Map.of(
-            "days", request.days(),
-            "times", request.times()
-        );
+        Recurrence recurrence = new Recurrence(request.days(), request.times());
 
         ReminderDto expectedDto = new ReminderDto(
             reminderId,
@@ -0,0 +1,67 @@
+package com.attendo.mos.controller;
+
+import com.attendo.mos.config.JwtPrincipal;
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.service.AuthorizationService;
+import com.attendo.mos.service.ReminderStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsControllerTest {
+
+    @Mock
+    private ReminderStats reminderStats;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @InjectMocks
+    private StatisticsController controller;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID otherResidentId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+    private final UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private JwtPrincipal resident;
+
+    @BeforeEach
+    void setUp() {
+        // A resident who was granted STATISTICS
+        resident = new JwtPrincipal(residentId, UserType.RESIDENT, "resident@mos.test",
+            Instant.now().plusSeconds(900), UUID.randomUUID());
+        when(authorizationService.hasPermission(residentId, PermissionConstants.STATISTICS)).thenReturn(true);
+    }
+
+    @Test
+    void getUserStatistics_ForAnotherUser_ShouldReturn403() {
+        when(authorizationService.canViewUser(residentId, otherResidentId)).thenReturn(false);
+
+        assertThat(controller.getUserStatistics(resident, otherResidentId, null, null).getStatusCode())
+            .isEqualTo(HttpStatus.FORBIDDEN);
+        verifyNoInteractions(reminderStats);
+    }
+
+    @Test
+    void getCaregiverAndFacilityStatistics_ForNonAdmin_ShouldReturn403() {
+        when(authorizationService.isAdmin(residentId)).thenReturn(false);
+
+        assertThat(controller.getCaregiverStatistics(resident, caregiverId, null, null).getStatusCode())
+            .isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(controller.getFacilityStatistics(resident, null, null).getStatusCode())
+            .isEqualTo(HttpStatus.FORBIDDEN);
+        verifyNoInteractions(reminderStats);
+    }
+}
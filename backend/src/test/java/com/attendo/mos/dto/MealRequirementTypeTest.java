@@ -0,0 +1,42 @@
+package com.attendo.mos.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealRequirementTypeTest {
+
+    @Test
+    void fromText_ShouldAcceptSwedishAndEnglishSpellings() {
+        assertEquals(MealRequirementType.GLUTEN_FREE, MealRequirementType.fromText("Glutenfri"));
+        assertEquals(MealRequirementType.GLUTEN_FREE, MealRequirementType.fromText("  gluten   FREE "));
+        assertEquals(MealRequirementType.NUT_ALLERGY, MealRequirementType.fromText("Nötfri"));
+        assertEquals(MealRequirementType.LOW_FODMAP, MealRequirementType.fromText("low_fodmap"));
+        assertEquals(MealRequirementType.OTHER, MealRequirementType.fromText("Inga tomater"));
+        assertEquals(MealRequirementType.OTHER, MealRequirementType.fromText(null));
+    }
+
+    @Test
+    void mask_ShouldRoundTripAndIgnoreOther() {
+        List<MealRequirementType> types = List.of(MealRequirementType.VEGAN, MealRequirementType.OTHER, MealRequirementType.KOSHER);
+
+        long mask = MealRequirementType.mask(types);
+
+        assertEquals(List.of(MealRequirementType.VEGAN, MealRequirementType.KOSHER), MealRequirementType.fromMask(mask));
+    }
+
+    @Test
+    void bits_ShouldBeDistinct() {
+        Set<Long> bits = new HashSet<>();
+        for (MealRequirementType type : MealRequirementType.values()) {
+            if (type != MealRequirementType.OTHER) {
+                assertTrue(bits.add(type.bit()), type.name());
+            }
+        }
+        assertEquals(0L, MealRequirementType.OTHER.bit());
+    }
+}
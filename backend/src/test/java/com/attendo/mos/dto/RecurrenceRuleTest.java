@@ -0,0 +1,68 @@
+package com.attendo.mos.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    @Test
+    void parse_ShouldAcceptSwedishAndEnglishDayNames() {
+        RecurrenceRule rule = RecurrenceRule.parse(List.of("Mån", "onsdag", "Fri", "SÖN"), List.of("08:00"));
+
+        assertTrue(rule.firesOn(DayOfWeek.MONDAY));
+        assertTrue(rule.firesOn(DayOfWeek.WEDNESDAY));
+        assertTrue(rule.firesOn(DayOfWeek.FRIDAY));
+        assertTrue(rule.firesOn(DayOfWeek.SUNDAY));
+        assertFalse(rule.firesOn(DayOfWeek.TUESDAY));
+    }
+
+    @Test
+    void parse_ShouldSortAndDeduplicateTimes() {
+        RecurrenceRule rule = RecurrenceRule.parse(List.of("Mon"), List.of("19:00", "7:05", "19:00"));
+
+        assertEquals(2, rule.minuteCount());
+        assertEquals(7 * 60 + 5, rule.minuteAt(0));
+        assertEquals(19 * 60, rule.minuteAt(1));
+    }
+
+    @Test
+    void parse_ShouldSkipUnknownDaysAndMalformedTimes() {
+        RecurrenceRule rule = RecurrenceRule.parse(Arrays.asList("Someday", null, "Tis"), List.of("25:00", "ab:cd", "12:30"));
+
+        assertEquals(1 << 1, rule.dayMask());
+        assertEquals(1, rule.minuteCount());
+        assertEquals(12 * 60 + 30, rule.minuteAt(0));
+    }
+
+    @Test
+    void isEmpty_ShouldBeTrueWithoutDaysOrTimes() {
+        assertTrue(RecurrenceRule.parse(List.of(), List.of("08:00")).isEmpty());
+        assertTrue(RecurrenceRule.parse(List.of("Mon"), null).isEmpty());
+    }
+
+    @Test
+    void parseStrict_ShouldRejectUnknownDaysMalformedTimesAndEmptyLists() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parseStrict(List.of("Someday"), List.of("08:00")));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parseStrict(List.of("Mån"), List.of("8am")));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parseStrict(List.of(), List.of("08:00")));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parseStrict(List.of("Mån"), null));
+    }
+
+    @Test
+    void of_ShouldRoundTripStoredFormAndRenderCanonicalLabels() {
+        RecurrenceRule rule = RecurrenceRule.parseStrict(List.of("fredag", "Mon"), List.of("20:00", "7:05"));
+
+        RecurrenceRule stored = RecurrenceRule.of(rule.dayMask(), rule.minutesArray());
+
+        assertEquals(rule, stored);
+        assertEquals(List.of("Mån", "Fre"), stored.dayLabels());
+        assertEquals(List.of("07:05", "20:00"), stored.timeLabels());
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.of(1 << 7, new short[0]));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.of(1, new short[] {1440}));
+    }
+}
@@ -0,0 +1,113 @@
+package com.attendo.mos.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssignmentIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private AssignmentIndex index;
+
+    private final UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private final UUID otherCaregiverId = UUID.fromString("33333333-3333-3333-3333-333333333333");
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID otherResidentId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+
+    @BeforeEach
+    void setUp() {
+        index = new AssignmentIndex(jdbc, Duration.ofMinutes(5));
+    }
+
+    private void givenRows(UUID[]... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (UUID[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("caregiver_id", UUID.class)).thenReturn(row[0]);
+                when(rs.getObject("caretaker_id", UUID.class)).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void shouldLoadOnceAndAnswerBothDirections() {
+        // Given
+        givenRows(new UUID[] { caregiverId, residentId }, new UUID[] { otherCaregiverId, residentId },
+            new UUID[] { caregiverId, otherResidentId });
+
+        // When / Then
+        assertThat(index.caretakersOf(caregiverId)).containsExactlyInAnyOrder(residentId, otherResidentId);
+        assertThat(index.caregiversOf(residentId)).containsExactlyInAnyOrder(caregiverId, otherCaregiverId);
+        assertThat(index.isAssigned(otherCaregiverId, otherResidentId)).isFalse();
+        assertThat(index.caretakersOf(residentId)).isEmpty();
+        verify(jdbc, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void onAssignmentChanged_ShouldUpdateBothDirections() {
+        // Given
+        givenRows(new UUID[] { caregiverId, residentId });
+        index.caretakersOf(caregiverId);
+
+        // When
+        index.onAssignmentChanged(new AssignmentChangedEvent(caregiverId, otherResidentId, true));
+        index.onAssignmentChanged(new AssignmentChangedEvent(caregiverId, residentId, false));
+
+        // Then
+        assertThat(index.caretakersOf(caregiverId)).containsExactly(otherResidentId);
+        assertThat(index.caregiversOf(otherResidentId)).containsExactly(caregiverId);
+        assertThat(index.caregiversOf(residentId)).isEmpty();
+    }
+
+    @Test
+    void reload_ShouldPickUpChangesMadeWithoutAnEvent() {
+        // Given - loaded, then the table changes on another instance
+        givenRows(new UUID[] { caregiverId, residentId });
+        index.caretakersOf(caregiverId);
+        givenRows(new UUID[] { caregiverId, otherResidentId });
+
+        // When
+        index.reload();
+
+        // Then
+        assertThat(index.caretakersOf(caregiverId)).containsExactly(otherResidentId);
+        assertThat(index.caregiversOf(residentId)).isEmpty();
+    }
+
+    @Test
+    void onAssignmentChanged_BeforeFirstLoad_ShouldLeaveItToTheLoad() {
+        // Given - the committed row is already in the table
+        givenRows(new UUID[] { caregiverId, residentId });
+
+        // When
+        index.onAssignmentChanged(new AssignmentChangedEvent(caregiverId, residentId, true));
+
+        // Then
+        assertThat(index.caretakersOf(caregiverId)).containsExactly(residentId);
+        verify(jdbc, times(1)).query(eq("select caregiver_id, caretaker_id from user_assignments"), any(RowCallbackHandler.class));
+    }
+}
@@ -1,12 +1,15 @@
 package com.attendo.mos.service;
 
+import com.attendo.mos.config.JwtPrincipal;
 import com.attendo.mos.config.JwtUtil;
 import com.attendo.mos.dto.LoginRequest;
 import com.attendo.mos.dto.LoginResponse;
 import com.attendo.mos.dto.UserInfoResponse;
 import com.attendo.mos.dto.UserType;
 import com.attendo.mos.entity.User;
+import com.attendo.mos.repo.RevokedTokenRepository;
 import com.attendo.mos.repo.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +18,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +49,9 @@ class AuthenticationServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -129,6 +145,47 @@ class AuthenticationServiceTest {
         verify(userRepository, never()).save(any(User.class));
     } */
 
+    @Test
+    void refresh_WhenSameTokenPresentedConcurrently_ShouldRotateOnlyOnce() throws Exception {
+        // Given - the repository behaves like "insert ... on conflict do nothing"
+        String refreshToken = "test.refresh.token";
+        UUID tokenId = UUID.randomUUID();
+        when(jwtUtil.parseRefreshToken(refreshToken)).thenReturn(
+            new JwtPrincipal(testUserId, UserType.ADMIN, testEmail, Instant.now().plusSeconds(3600), tokenId));
+        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        Set<UUID> revoked = ConcurrentHashMap.newKeySet();
+        when(revokedTokenRepository.revoke(any(), any()))
+            .thenAnswer(inv -> revoked.add(inv.getArgument(0)) ? 1 : 0);
+        when(jwtUtil.generateToken(testUserId, testEmail, UserType.ADMIN)).thenReturn(testToken);
+        TokenRevocationService tokenRevocation = new TokenRevocationService(
+            revokedTokenRepository, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+        AuthenticationService service = new AuthenticationService(userRepository, jwtUtil, null, tokenRevocation, null);
+
+        // When - two refreshes with the same token race
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> refresh = () -> {
+            start.await();
+            try {
+                service.refresh(refreshToken);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = List.of(pool.submit(refresh), pool.submit(refresh));
+            start.countDown();
+
+            // Then
+            assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(true, false);
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(jwtUtil, times(1)).generateToken(testUserId, testEmail, UserType.ADMIN);
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
     @Test
     void getUserInfo_ShouldReturnUserInfoResponseWhenUserExists() {
         // Given
@@ -0,0 +1,217 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.entity.User;
+import com.attendo.mos.entity.UserPermission;
+import com.attendo.mos.repo.UserRepository;
+import com.attendo.mos.repository.RolePermissionRepository;
+import com.attendo.mos.repository.UserPermissionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserPermissionRepository permissionRepository;
+
+    @Mock
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Mock
+    private AssignmentIndex assignmentIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthorizationService authorizationService;
+
+    private final UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID otherResidentId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        authorizationService = new AuthorizationService(userRepository, permissionRepository, rolePermissionRepository, assignmentIndex,
+            meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    private void givenRole(UserType type, String... permissions) {
+        when(rolePermissionRepository.findPermissionNamesByUserType(type)).thenReturn(List.of(permissions));
+    }
+
+    private void givenUser(UUID id, UserType type, UserPermission... overrides) {
+        User user = new User();
+        user.setId(id);
+        user.setUserType(type);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(permissionRepository.findByUserId(id)).thenReturn(List.of(overrides));
+    }
+
+    private static UserPermission override(String permission, boolean enabled) {
+        return new UserPermission(null, permission, enabled, null);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("authz.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void canManageReminders_ShouldUseCaretakerAdjacencyHitCacheOnRepeatAndCountDenials() {
+        // Given
+        givenRole(UserType.CAREGIVER, PermissionConstants.VIEW_REMINDERS);
+        givenUser(caregiverId, UserType.CAREGIVER);
+        when(assignmentIndex.isAssigned(caregiverId, residentId)).thenReturn(true);
+
+        // When / Then
+        assertThat(authorizationService.canManageReminders(caregiverId, residentId)).isTrue();
+        assertThat(authorizationService.canManageReminders(caregiverId, otherResidentId)).isFalse();
+        assertThat(authorizationService.hasPermission(caregiverId, PermissionConstants.VIEW_REMINDERS)).isTrue();
+        assertThat(authorizationService.hasPermission(caregiverId, PermissionConstants.STATISTICS)).isFalse();
+
+        verify(userRepository, times(1)).findById(caregiverId);
+        assertThat(count("miss")).isEqualTo(1);
+        assertThat(count("hit")).isEqualTo(3);
+        assertThat(meterRegistry.get("authz.denied").tag("check", "MANAGE_REMINDERS").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("authz.denied").tag("check", PermissionConstants.STATISTICS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void canManageReminders_ShouldRequireCreatePermissionForOwnReminders() {
+        // Given
+        givenRole(UserType.RESIDENT, PermissionConstants.VIEW_REMINDERS);
+        givenUser(residentId, UserType.RESIDENT);
+
+        // When / Then
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isFalse();
+        assertThat(authorizationService.canManageReminders(residentId, otherResidentId)).isFalse();
+    }
+
+    @Test
+    void canViewUser_ShouldAllowSelfAssignedCaregiverAndAdminOnly() {
+        // Given - a resident who holds a feature permission still only sees their own data
+        UUID adminId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+        givenRole(UserType.RESIDENT, PermissionConstants.MEAL_SUGGESTIONS);
+        givenRole(UserType.CAREGIVER);
+        givenRole(UserType.ADMIN);
+        givenUser(residentId, UserType.RESIDENT);
+        givenUser(caregiverId, UserType.CAREGIVER);
+        givenUser(adminId, UserType.ADMIN);
+        when(assignmentIndex.isAssigned(caregiverId, residentId)).thenReturn(true);
+
+        // When / Then
+        assertThat(authorizationService.canViewUser(residentId, residentId)).isTrue();
+        assertThat(authorizationService.canViewUser(residentId, otherResidentId)).isFalse();
+        assertThat(authorizationService.canViewUser(caregiverId, residentId)).isTrue();
+        assertThat(authorizationService.canViewUser(caregiverId, otherResidentId)).isFalse();
+        assertThat(authorizationService.canViewUser(adminId, otherResidentId)).isTrue();
+        assertThat(meterRegistry.get("authz.denied").tag("check", "VIEW_USER").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void canManageReminders_ShouldDenyUnknownUsersWithoutCachingThem() {
+        // Given - not there yet, then created through another instance
+        when(userRepository.findById(residentId)).thenReturn(Optional.empty());
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isFalse();
+        givenRole(UserType.RESIDENT, PermissionConstants.CREATE_REMINDERS);
+        givenUser(residentId, UserType.RESIDENT);
+
+        // When / Then
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isTrue();
+    }
+
+    @Test
+    void grantsFor_ShouldReloadEntriesOlderThanTheTtl() {
+        // Given - no ttl, so every check sees the tables as they are now
+        AuthorizationService uncached = new AuthorizationService(userRepository, permissionRepository, rolePermissionRepository,
+            assignmentIndex, new SimpleMeterRegistry(), 100, Duration.ZERO);
+        givenRole(UserType.RESIDENT);
+        givenUser(residentId, UserType.RESIDENT);
+        assertThat(uncached.hasPermission(residentId, PermissionConstants.STATISTICS)).isFalse();
+
+        // When - STATISTICS is granted on another instance, so no event arrives here
+        when(permissionRepository.findByUserId(residentId))
+            .thenReturn(List.of(override(PermissionConstants.STATISTICS, true)));
+
+        // Then
+        assertThat(uncached.hasPermission(residentId, PermissionConstants.STATISTICS)).isTrue();
+        verify(rolePermissionRepository, times(2)).findPermissionNamesByUserType(UserType.RESIDENT);
+    }
+
+    @Test
+    void onAuthorizationChanged_ShouldReloadOnlyTheAffectedUser() {
+        // Given
+        givenRole(UserType.RESIDENT);
+        givenUser(residentId, UserType.RESIDENT);
+        givenUser(otherResidentId, UserType.RESIDENT, override(PermissionConstants.CREATE_REMINDERS, true));
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isFalse();
+        authorizationService.canManageReminders(otherResidentId, otherResidentId);
+
+        // When - the resident is granted CREATE_REMINDERS
+        when(permissionRepository.findByUserId(residentId))
+            .thenReturn(List.of(override(PermissionConstants.CREATE_REMINDERS, true)));
+        authorizationService.onAuthorizationChanged(new AuthorizationChangedEvent(residentId));
+
+        // Then
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isTrue();
+        assertThat(authorizationService.canManageReminders(otherResidentId, otherResidentId)).isTrue();
+        verify(userRepository, times(2)).findById(residentId);
+        verify(userRepository, times(1)).findById(otherResidentId);
+    }
+
+    @Test
+    void getPermissionNames_ShouldApplyOverridesToRoleMask() {
+        // Given
+        givenRole(UserType.CAREGIVER, PermissionConstants.VIEW_REMINDERS, PermissionConstants.CREATE_REMINDERS);
+        givenUser(caregiverId, UserType.CAREGIVER,
+            override(PermissionConstants.CREATE_REMINDERS, false),
+            override(PermissionConstants.STATISTICS, true));
+
+        // When / Then
+        assertThat(authorizationService.getPermissionNames(caregiverId))
+            .containsExactly(PermissionConstants.VIEW_REMINDERS, PermissionConstants.STATISTICS);
+        assertThat(authorizationService.hasPermission(caregiverId, PermissionConstants.CREATE_REMINDERS)).isFalse();
+    }
+
+    @Test
+    void onRolePermissionsChanged_ShouldReloadOnlyUsersOfThatType() {
+        // Given - the role is read once for both residents
+        givenRole(UserType.RESIDENT, PermissionConstants.VIEW_REMINDERS);
+        givenRole(UserType.CAREGIVER, PermissionConstants.VIEW_REMINDERS);
+        givenUser(residentId, UserType.RESIDENT);
+        givenUser(otherResidentId, UserType.RESIDENT);
+        givenUser(caregiverId, UserType.CAREGIVER);
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isFalse();
+        assertThat(authorizationService.canManageReminders(otherResidentId, otherResidentId)).isFalse();
+        authorizationService.hasPermission(caregiverId, PermissionConstants.VIEW_REMINDERS);
+
+        // When - residents are given CREATE_REMINDERS
+        givenRole(UserType.RESIDENT, PermissionConstants.VIEW_REMINDERS, PermissionConstants.CREATE_REMINDERS);
+        authorizationService.onRolePermissionsChanged(new RolePermissionsChangedEvent(UserType.RESIDENT));
+
+        // Then
+        assertThat(authorizationService.canManageReminders(residentId, residentId)).isTrue();
+        assertThat(authorizationService.canManageReminders(otherResidentId, otherResidentId)).isTrue();
+        assertThat(authorizationService.hasPermission(caregiverId, PermissionConstants.VIEW_REMINDERS)).isTrue();
+        verify(rolePermissionRepository, times(2)).findPermissionNamesByUserType(UserType.RESIDENT);
+        verify(userRepository, times(2)).findById(residentId);
+        verify(userRepository, times(1)).findById(caregiverId);
+    }
+}
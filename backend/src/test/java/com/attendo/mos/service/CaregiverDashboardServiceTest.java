@@ -0,0 +1,84 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.CaretakerReminders;
+import com.attendo.mos.dto.RecurrenceRule;
+import com.attendo.mos.dto.ScheduledReminder;
+import com.attendo.mos.entity.User;
+import com.attendo.mos.repo.ReminderRepository;
+import com.attendo.mos.repository.UserAssignmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CaregiverDashboardServiceTest {
+
+    @Mock
+    private ReminderRepository reminderRepository;
+
+    @Mock
+    private UserAssignmentRepository assignmentRepository;
+
+    private CaregiverDashboardService dashboardService;
+
+    private final UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private final User anna = caretaker("aaaaaaaa-0000-0000-0000-000000000001", "Anna");
+    private final User bertil = caretaker("bbbbbbbb-0000-0000-0000-000000000002", "bertil");
+
+    @BeforeEach
+    void setUp() {
+        ReminderOccurrenceService occurrenceService = new ReminderOccurrenceService(reminderRepository, "Europe/Stockholm");
+        dashboardService = new CaregiverDashboardService(reminderRepository, assignmentRepository, occurrenceService);
+    }
+
+    private static User caretaker(String id, String name) {
+        User user = new User();
+        user.setId(UUID.fromString(id));
+        user.setDisplayName(name);
+        return user;
+    }
+
+    @Test
+    void getReminders_ShouldGroupOccurrencesByCaretakerWithOneReminderQuery() {
+        // Given - Monday 2025-03-03, Stockholm is UTC+1
+        OffsetDateTime from = OffsetDateTime.parse("2025-03-03T00:00:00+01:00");
+        OffsetDateTime to = from.plusDays(1);
+        when(reminderRepository.scheduleForCaregiver(caregiverId, from, to)).thenReturn(List.of(
+            new ScheduledReminder(UUID.randomUUID(), anna.getId(), "recurring", "MEDICATION", null, null,
+                RecurrenceRule.parseStrict(List.of("Mån"), List.of("20:00", "08:00"))),
+            new ScheduledReminder(UUID.randomUUID(), anna.getId(), "once", "MEAL", "Lunch",
+                from.plusHours(12).toInstant(), null)));
+        when(assignmentRepository.findCaretakersByCaregiverId(caregiverId)).thenReturn(List.of(bertil, anna));
+
+        // When
+        List<CaretakerReminders> result = dashboardService.getReminders(caregiverId, from, to);
+
+        // Then - sorted by name; caretakers without reminders are still listed
+        assertThat(result).extracting(CaretakerReminders::displayName).containsExactly("Anna", "bertil");
+        assertThat(result.get(0).occurrences()).extracting(o -> o.at().toLocalTime().toString())
+            .containsExactly("08:00", "12:00", "20:00");
+        assertThat(result.get(1).occurrences()).isEmpty();
+        verify(reminderRepository).scheduleForCaregiver(caregiverId, from, to);
+    }
+
+    @Test
+    void getReminders_WithInvalidRange_ShouldThrowException() {
+        OffsetDateTime from = OffsetDateTime.parse("2025-03-03T00:00:00Z");
+
+        assertThatThrownBy(() -> dashboardService.getReminders(caregiverId, from, from.minusHours(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reminderRepository, assignmentRepository);
+    }
+}
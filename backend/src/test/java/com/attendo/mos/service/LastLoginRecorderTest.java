@@ -0,0 +1,80 @@
+package com.attendo.mos.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LastLoginRecorder recorder;
+
+    private final UUID anna = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000001");
+    private final UUID bertil = UUID.fromString("bbbbbbbb-0000-0000-0000-000000000002");
+    private final OffsetDateTime t0 = OffsetDateTime.parse("2025-03-03T07:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LastLoginRecorder(jdbc, meterRegistry, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteLatestTimestampPerUserInOneBatch() {
+        // Given - three logins for Anna (out of order) and one for Bertil
+        recorder.record(anna, t0.plusMinutes(1));
+        recorder.record(anna, t0.plusMinutes(3));
+        recorder.record(anna, t0.plusMinutes(2));
+        recorder.record(bertil, t0);
+        assertThat(meterRegistry.get("auth.last_login.pending").gauge().value()).isEqualTo(2);
+
+        // When
+        int flushed = recorder.flush();
+
+        // Then
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbc, times(1)).batchUpdate(anyString(), rows.capture());
+        assertThat(flushed).isEqualTo(2);
+        assertThat(rows.getValue()).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(anna);
+            assertThat(row[0]).isEqualTo(t0.plusMinutes(3));
+        });
+        assertThat(meterRegistry.get("auth.last_login.pending").gauge().value()).isZero();
+        assertThat(recorder.flush()).isZero();
+    }
+
+    @Test
+    void flush_ShouldKeepEntriesWhenWriteFails() {
+        // Given
+        recorder.record(anna, t0);
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When / Then
+        assertThatThrownBy(() -> recorder.flush()).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(meterRegistry.get("auth.last_login.pending").gauge().value()).isEqualTo(1);
+    }
+}
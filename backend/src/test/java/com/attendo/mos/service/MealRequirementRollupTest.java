@@ -0,0 +1,59 @@
+package com.attendo.mos.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MealRequirementRollupTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private MealRequirementRollup rollup;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+
+    @BeforeEach
+    void setUp() {
+        rollup = new MealRequirementRollup(jdbc);
+    }
+
+    @Test
+    void key_ShouldIgnoreCaseAndSpacing() {
+        assertThat(MealRequirementRollup.key("  Ingen   Fläskkött ")).isEqualTo("ingen fläskkött");
+    }
+
+    @Test
+    void update_ShouldWriteOnlyChangedKeys() {
+        // When - "laktosfri" is only respelled; "Glutenfri" goes and "Halal" comes
+        rollup.update(residentId, List.of("Laktosfri", "Glutenfri"), List.of("laktosfri", "Halal"));
+
+        // Then
+        verify(jdbc).update(startsWith("delete from meal_requirement_rollup"),
+            eq(new String[] { "glutenfri" }), eq(residentId));
+        verify(jdbc).update(startsWith("update meal_requirement_rollup"),
+            eq(residentId), eq(new String[] { "glutenfri" }), eq(residentId));
+        verify(jdbc).update(startsWith("insert into meal_requirement_rollup"),
+            eq(residentId), eq(new String[] { "halal" }), eq(new String[] { "Halal" }));
+    }
+
+    @Test
+    void update_WhenOnlySpellingChanges_ShouldNotWrite() {
+        rollup.update(residentId, List.of("Laktosfri"), List.of("LAKTOSFRI"));
+
+        verifyNoInteractions(jdbc);
+    }
+}
@@ -0,0 +1,114 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.MealRequirementsRequest;
+import com.attendo.mos.dto.MealRequirementsResponse;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.entity.MealRequirement;
+import com.attendo.mos.entity.User;
+import com.attendo.mos.repo.MealRequirementRepository;
+import com.attendo.mos.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MealRequirementServiceTest {
+
+    @Mock
+    private MealRequirementRepository mealRequirementRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MealRequirementRollup rollup;
+
+    private MealRequirementService mealRequirementService;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final OffsetDateTime createdAt = OffsetDateTime.parse("2025-01-01T08:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        mealRequirementService = new MealRequirementService(mealRequirementRepository, userRepository, rollup);
+        User resident = new User();
+        resident.setId(residentId);
+        resident.setUserType(UserType.RESIDENT);
+        when(userRepository.findById(residentId)).thenReturn(Optional.of(resident));
+    }
+
+    private MealRequirement stored(String notes) {
+        MealRequirement mr = new MealRequirement();
+        ReflectionTestUtils.setField(mr, "id", UUID.randomUUID());
+        mr.setType(MealRequirementType.OTHER);
+        mr.setNotes(notes);
+        mr.setCreatedAt(createdAt);
+        return mr;
+    }
+
+    @Test
+    void setMealRequirements_ShouldWriteOnlyTheDifference() {
+        // Given
+        MealRequirement lactose = stored("Laktosfri");
+        MealRequirement gluten = stored("Glutenfri");
+        when(mealRequirementRepository.findByUserId(residentId)).thenReturn(List.of(lactose, gluten));
+
+        // When
+        MealRequirementsResponse response = mealRequirementService.setMealRequirements(residentId,
+            new MealRequirementsRequest(Arrays.asList(" Laktosfri ", "Halal", null, "Halal")));
+
+        // Then
+        verify(mealRequirementRepository).deleteAllByIdInBatch(List.of(gluten.getId()));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MealRequirement>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mealRequirementRepository).saveAll(inserted.capture());
+        assertThat(inserted.getValue()).extracting(MealRequirement::getNotes).containsExactly("Halal");
+
+        assertThat(response.requirements()).extracting(MealRequirementsResponse.MealRequirementDto::requirement)
+            .containsExactly("Laktosfri", "Halal");
+        assertThat(response.requirements().get(0).id()).isEqualTo(lactose.getId());
+        assertThat(response.requirements().get(0).createdAt()).isEqualTo(createdAt);
+        assertThat(response.changes()).isEqualTo(new MealRequirementsResponse.Changes(1, 1, 1));
+        assertThat(inserted.getValue().get(0).getType()).isEqualTo(MealRequirementType.HALAL);
+        verify(userRepository).updateDietMask(residentId,
+            MealRequirementType.LACTOSE_FREE.bit() | MealRequirementType.HALAL.bit());
+        verify(rollup).update(residentId, List.of("Laktosfri", "Glutenfri"), List.of("Laktosfri", "Halal"));
+    }
+
+    @Test
+    void setMealRequirements_WhenUnchanged_ShouldNotWrite() {
+        // Given
+        when(mealRequirementRepository.findByUserId(residentId)).thenReturn(List.of(stored("Vegetarisk")));
+
+        // When
+        MealRequirementsResponse response = mealRequirementService.setMealRequirements(residentId,
+            new MealRequirementsRequest(List.of("Vegetarisk")));
+
+        // Then
+        verify(mealRequirementRepository, never()).deleteAllByIdInBatch(any());
+        verify(mealRequirementRepository, never()).saveAll(anyList());
+        assertThat(response.changes()).isEqualTo(new MealRequirementsResponse.Changes(0, 0, 1));
+        verify(userRepository, never()).updateDietMask(any(), anyLong());
+        verifyNoInteractions(rollup);
+    }
+}
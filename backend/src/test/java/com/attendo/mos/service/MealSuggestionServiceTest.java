@@ -0,0 +1,100 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.MealSuggestions;
+import com.attendo.mos.dto.Recipe;
+import com.attendo.mos.repo.MealRequirementRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MealSuggestionServiceTest {
+
+    @Mock
+    private MealRequirementRepository mealRequirementRepository;
+
+    private MealSuggestionService suggestionService;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+
+    @BeforeEach
+    void setUp() {
+        suggestionService = new MealSuggestionService(mealRequirementRepository, new ObjectMapper(),
+            new ClassPathResource("recipes/catalog.json"), 100);
+    }
+
+    private record Row(MealRequirementType getType, String getNotes) implements MealRequirementRepository.TypeAndNotes {
+    }
+
+    private void givenRequirements(String... notes) {
+        List<MealRequirementRepository.TypeAndNotes> requirements = Arrays.stream(notes)
+            .<MealRequirementRepository.TypeAndNotes>map(text -> new Row(MealRequirementType.fromText(text), text))
+            .toList();
+        when(mealRequirementRepository.findTypeAndNotesByUserId(residentId)).thenReturn(requirements);
+    }
+
+    @Test
+    void suggest_ShouldExcludeRecipesRuledOutByDietCodes() {
+        // Given
+        givenRequirements("Vegetarisk", "Glutenfri");
+
+        // When
+        MealSuggestions suggestions = suggestionService.suggest(residentId, null, 50);
+
+        // Then
+        assertThat(suggestions.diets()).containsExactly(MealRequirementType.VEGETARIAN, MealRequirementType.GLUTEN_FREE);
+        assertThat(suggestions.recipes()).isNotEmpty().allSatisfy(recipe -> assertThat(recipe.contains())
+            .doesNotContain(Recipe.Contains.MEAT, Recipe.Contains.PORK, Recipe.Contains.FISH, Recipe.Contains.GLUTEN));
+        assertThat(suggestions.totalResults()).isEqualTo(suggestions.recipes().size());
+    }
+
+    @Test
+    void suggest_ShouldLeaveOutIngredientsNamedInFreeText() {
+        // Given
+        givenRequirements("Inga tomater");
+
+        // When
+        MealSuggestions suggestions = suggestionService.suggest(residentId, null, 50);
+
+        // Then
+        assertThat(suggestions.excludedIngredients()).contains("krossade tomater", "tomat", "körsbärstomater");
+        assertThat(suggestions.recipes()).isNotEmpty().allSatisfy(recipe -> assertThat(recipe.ingredients())
+            .noneMatch(ingredient -> ingredient.item().contains("tomat")));
+    }
+
+    @Test
+    void suggest_ShouldNarrowByQueryAndRankQuickestFirst() {
+        // Given
+        givenRequirements("Laktosfri");
+
+        // When
+        MealSuggestions suggestions = suggestionService.suggest(residentId, "kyck", 3);
+
+        // Then
+        assertThat(suggestions.recipes()).hasSize(3).allSatisfy(recipe -> {
+            assertThat(recipe.title().toLowerCase()).contains("kyckling");
+            assertThat(recipe.contains()).doesNotContain(Recipe.Contains.LACTOSE);
+        });
+        assertThat(suggestions.totalResults()).isGreaterThan(3);
+        assertThat(suggestions.recipes().get(0).title()).isEqualTo("Caesarsallad med kyckling"); // 25 min, 4 ingredients
+    }
+
+    @Test
+    void suggest_ShouldRejectLimitOutOfRange() {
+        assertThatThrownBy(() -> suggestionService.suggest(residentId, null, MealSuggestionService.MAX_LIMIT + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.MealRequirementType;
+import com.attendo.mos.dto.Recipe;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.dto.WeeklyMenu;
+import com.attendo.mos.repo.MealRequirementRepository;
+import com.attendo.mos.repo.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MenuPlannerServiceTest {
+
+    @Mock
+    private MealRequirementRepository mealRequirementRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MealSuggestionService suggestionService;
+    private MenuPlannerService plannerService;
+
+    private final LocalDate monday = LocalDate.of(2025, 3, 3);
+    private final UUID r1 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000001");
+    private final UUID r2 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000002");
+    private final UUID r3 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000003");
+
+    @BeforeEach
+    void setUp() {
+        suggestionService = new MealSuggestionService(mealRequirementRepository, new ObjectMapper(),
+            new ClassPathResource("recipes/catalog.json"), 100);
+        plannerService = new MenuPlannerService(mealRequirementRepository, userRepository, suggestionService,
+            "Europe/Stockholm", new String[] { "Lunch", "Middag" }, Duration.ofSeconds(5), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        plannerService.shutdown();
+    }
+
+    private record Row(UUID getUserId, MealRequirementType getType, String getNotes)
+        implements MealRequirementRepository.ResidentTypeAndNotes {
+    }
+
+    private static Row row(UUID userId, String text) {
+        return new Row(userId, MealRequirementType.fromText(text), text);
+    }
+
+    @Test
+    void plan_ShouldOfferADishForEveryGroupAtEveryMeal() {
+        // Given - two vegetarians, one gluten- and lactose-free resident and one without requirements
+        when(userRepository.countByUserTypeAndIsActiveTrue(UserType.RESIDENT)).thenReturn(4L);
+        when(mealRequirementRepository.findActiveResidentTypeAndNotes()).thenReturn(List.of(
+            row(r1, "Vegetarisk"), row(r2, "vegetarisk"), row(r3, "Glutenfri"), row(r3, "Laktosfri")));
+
+        // When
+        WeeklyMenu menu = plannerService.plan(monday, 2);
+
+        // Then
+        assertThat(menu.complete()).isTrue();
+        assertThat(menu.unserved()).isEmpty();
+        assertThat(menu.groups()).extracting(WeeklyMenu.Group::residentCount).containsExactly(2, 1, 1);
+        assertThat(menu.days()).hasSize(7);
+        assertThat(menu.days().get(6).date()).isEqualTo(monday.plusDays(6));
+
+        Map<Long, Recipe> recipes = suggestionService.recipes().stream()
+            .collect(Collectors.toMap(Recipe::id, Function.identity()));
+        Set<Recipe.Contains> vegetarian = EnumSet.of(Recipe.Contains.MEAT, Recipe.Contains.PORK,
+            Recipe.Contains.FISH, Recipe.Contains.SHELLFISH);
+        Set<Recipe.Contains> glutenAndLactose = EnumSet.of(Recipe.Contains.GLUTEN, Recipe.Contains.LACTOSE);
+        Set<Long> served = new HashSet<>();
+        for (WeeklyMenu.Day day : menu.days()) {
+            assertThat(day.meals()).extracting(WeeklyMenu.Meal::name).containsExactly("Lunch", "Middag");
+            for (WeeklyMenu.Meal meal : day.meals()) {
+                assertThat(meal.dishes()).hasSizeBetween(1, 2);
+                List<Recipe> dishes = meal.dishes().stream().map(dish -> recipes.get(dish.recipeId())).toList();
+                assertThat(dishes).anyMatch(recipe -> recipe.contains().stream().noneMatch(vegetarian::contains));
+                assertThat(dishes).anyMatch(recipe -> recipe.contains().stream().noneMatch(glutenAndLactose::contains));
+                meal.dishes().forEach(dish -> served.add(dish.recipeId()));
+            }
+        }
+        // The week is varied rather than one safe dish every meal
+        assertThat(served).hasSizeGreaterThan(7);
+    }
+
+    @Test
+    void plan_WhenNoRecipeSuitsAGroup_ShouldListItAsUnserved() {
+        // Given
+        when(userRepository.countByUserTypeAndIsActiveTrue(UserType.RESIDENT)).thenReturn(2L);
+        when(mealRequirementRepository.findActiveResidentTypeAndNotes()).thenReturn(List.of(
+            row(r1, "Vegansk"), row(r1, "Låg FODMAP")));
+
+        // When
+        WeeklyMenu menu = plannerService.plan(monday, null);
+
+        // Then
+        assertThat(menu.unserved()).singleElement().satisfies(group -> {
+            assertThat(group.diets()).containsExactly(MealRequirementType.VEGAN, MealRequirementType.LOW_FODMAP);
+            assertThat(group.residentCount()).isEqualTo(1);
+        });
+        assertThat(menu.groups()).singleElement().extracting(WeeklyMenu.Group::diets, as(InstanceOfAssertFactories.LIST)).isEmpty();
+        assertThat(menu.days()).allSatisfy(day -> assertThat(day.meals())
+            .allSatisfy(meal -> assertThat(meal.dishes()).singleElement()
+                .extracting(WeeklyMenu.Dish::residentCount).isEqualTo(1)));
+    }
+
+    @Test
+    void plan_ShouldRejectMaxDishesOutOfRange() {
+        assertThatThrownBy(() -> plannerService.plan(monday, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> plannerService.plan(monday, MenuPlannerService.MAX_DISHES + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(mealRequirementRepository);
+    }
+}
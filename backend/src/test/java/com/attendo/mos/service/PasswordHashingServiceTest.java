@@ -0,0 +1,123 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.errors.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService hashingService;
+
+    private final UUID userId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private final String hash = "$2a$10$WbOd/JiKwBuiIIZe0JwuPuQHEWI9ltUu9vffhqEa4biZvrbQYsmFu";
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One worker, one queue slot
+        hashingService = new PasswordHashingService(passwordEncoder, meterRegistry, 1, 1, Duration.ofSeconds(5));
+        // Like BCrypt, a started check ignores interrupts and runs to completion
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            awaitUninterruptibly(release);
+            return "secret".equals(invocation.getArgument(0));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingService.shutdown();
+    }
+
+    @Test
+    void matches_ShouldShareOneHashForConcurrentIdenticalAttempts() throws Exception {
+        // Given - two logins for the same account and password while the first is hashing
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> hashingService.matches(userId, "secret", hash));
+        verify(passwordEncoder, after(200).times(1)).matches("secret", hash);
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> hashingService.matches(userId, "secret", hash));
+        Thread.sleep(100);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+        verify(passwordEncoder, times(1)).matches("secret", hash);
+        assertThat(meterRegistry.get("auth.login.deduplicated").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void matches_ShouldRejectWhenWorkerAndQueueAreFull() {
+        // Given - one attempt running, one queued
+        CompletableFuture.supplyAsync(() -> hashingService.matches(userId, "secret", hash));
+        verify(passwordEncoder, after(200).times(1)).matches("secret", hash);
+        CompletableFuture.supplyAsync(() -> hashingService.matches(userId, "wrong-1", hash));
+        verify(passwordEncoder, after(100).times(1)).matches(anyString(), anyString());
+
+        // When / Then
+        assertThatThrownBy(() -> hashingService.matches(userId, "wrong-2", hash))
+            .isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.get("auth.login.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void matches_WhenWaitTimesOut_ShouldCancelTheQueuedCheck() throws Exception {
+        // Given - a service that gives up quickly, one attempt hashing and one queued
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService impatient = new PasswordHashingService(passwordEncoder, registry, 1, 1, Duration.ofMillis(500));
+        try {
+            CompletableFuture.runAsync(() -> impatient.matches(userId, "secret", hash));
+            verify(passwordEncoder, after(100).times(1)).matches("secret", hash);
+
+            // When
+            assertThatThrownBy(() -> impatient.matches(userId, "wrong-1", hash))
+                .isInstanceOf(LoginThrottledException.class);
+
+            // Then - the queued check is gone and never hashes once the worker is free
+            assertThat(registry.get("auth.password.queue.size").gauge().value()).isZero();
+            release.countDown();
+            verify(passwordEncoder, after(200).times(1)).matches(anyString(), anyString());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (latch.getCount() > 0 && System.nanoTime() < deadline) {
+            try {
+                latch.await(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // keep waiting
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.ReminderEventAction;
+import com.attendo.mos.errors.ReminderEventsThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderEventIngestorTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private ReminderEventIngestor ingestor;
+
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Object> written = new CopyOnWriteArrayList<>();
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+
+    @BeforeEach
+    void setUp() {
+        ingestor = new ReminderEventIngestor(jdbc, new SimpleMeterRegistry(), "Europe/Stockholm",
+            1000, 100, Duration.ofMillis(200), Duration.ofMinutes(30), 0);
+        // Each write records the reminder ids it was given, then holds the writer until released
+        doAnswer(invocation -> {
+            written.addAll(List.of((String[]) invocation.getArgument(2)));
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbc).query(startsWith("with e as"), any(RowCallbackHandler.class), any(Object[].class));
+        doAnswer(invocation -> null).when(jdbc).execute(anyString());
+        ingestor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ingestor.stop();
+    }
+
+    @Test
+    void submit_WhenTimedOutWhileQueued_ShouldWithdrawTheEvents() throws Exception {
+        // Given - the writer is busy with another caller's events
+        ReminderEventIngestor.Event first = snooze();
+        CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() -> ingestor.submit(List.of(first)));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When - the next caller gives up before the writer gets to it
+        ReminderEventIngestor.Event abandoned = snooze();
+        assertThrows(ReminderEventsThrottledException.class, () -> ingestor.submit(List.of(abandoned)));
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        ingestor.stop();
+
+        // Then - a retry of the throttled events would be their only write
+        assertThat(written).containsExactly(first.reminderId().toString());
+    }
+
+    @Test
+    void submit_WhenTimedOutWhileBeingWritten_ShouldWaitForTheWrite() throws Exception {
+        // Given - the writer has taken the events but the write outlasts the wait timeout
+        CompletableFuture<Integer> caller = CompletableFuture.supplyAsync(() -> ingestor.submit(List.of(snooze())));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(400);
+
+        // When
+        release.countDown();
+
+        // Then - the caller gets the outcome instead of a 429 that would invite a duplicate
+        assertThat(caller.get(5, TimeUnit.SECONDS)).isZero();
+        assertThat(written).hasSize(1);
+    }
+
+    private ReminderEventIngestor.Event snooze() {
+        Instant now = Instant.now();
+        return new ReminderEventIngestor.Event(UUID.randomUUID(), residentId, "MEDICATION", now,
+            ReminderEventAction.SNOOZED, now, null);
+    }
+}
@@ -0,0 +1,143 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.RecurrenceRule;
+import com.attendo.mos.dto.ReminderEventAction;
+import com.attendo.mos.dto.ReminderEventRequest;
+import com.attendo.mos.dto.ReminderEventsResponse;
+import com.attendo.mos.dto.ScheduledReminder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderEventServiceTest {
+
+    @Mock
+    private ReminderOccurrenceService occurrences;
+
+    @Mock
+    private ReminderEventIngestor ingestor;
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    private ReminderEventService service;
+
+    private final ZoneId zone = ZoneId.of("Europe/Stockholm");
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+    private final UUID reminderId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @BeforeEach
+    void setUp() {
+        service = new ReminderEventService(occurrences, ingestor, jdbc, Duration.ofMinutes(30));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_ShouldSubmitValidEventsAndReportInvalidOnesByIndex() {
+        // Given - a reminder firing every minute, so any whole minute is an occurrence
+        ScheduledReminder reminder = new ScheduledReminder(reminderId, residentId, "recurring", "MEDICATION", null, null,
+            RecurrenceRule.parseStrict(List.of("Mån", "Tis", "Ons", "Tor", "Fre", "Lör", "Sön"), everyMinute()));
+        when(occurrences.getReminder(residentId, reminderId)).thenReturn(reminder);
+        when(occurrences.getZone()).thenReturn(zone);
+        when(ingestor.submit(anyList())).thenReturn(1);
+        OffsetDateTime occurrence = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES).minusHours(1);
+
+        // When - one ack, one repeated outcome, one off-schedule and one far-future miss
+        ReminderEventsResponse result = service.record(residentId, caregiverId, List.of(
+            new ReminderEventRequest(reminderId, occurrence, ReminderEventAction.ACKNOWLEDGED, occurrence.plusMinutes(5)),
+            new ReminderEventRequest(reminderId, occurrence, ReminderEventAction.MISSED, null),
+            new ReminderEventRequest(reminderId, occurrence.plusSeconds(30), ReminderEventAction.ACKNOWLEDGED, null),
+            new ReminderEventRequest(reminderId, occurrence.plusDays(1), ReminderEventAction.MISSED, null)));
+
+        // Then
+        ArgumentCaptor<List<ReminderEventIngestor.Event>> submitted = ArgumentCaptor.forClass(List.class);
+        verify(ingestor).submit(submitted.capture());
+        assertThat(submitted.getValue()).hasSize(2);
+        ReminderEventIngestor.Event ack = submitted.getValue().get(0);
+        assertThat(ack.category()).isEqualTo("MEDICATION");
+        assertThat(ack.occurrenceAt()).isEqualTo(occurrence.toInstant());
+        assertThat(ack.actedAt()).isEqualTo(occurrence.plusMinutes(5).toInstant());
+        assertThat(ack.recordedBy()).isEqualTo(caregiverId);
+
+        assertThat(result.recorded()).isEqualTo(1);
+        assertThat(result.duplicates()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ReminderEventsResponse.Error::index).containsExactly(2, 3);
+    }
+
+    @Test
+    void record_WhenReminderBelongsToSomeoneElse_ShouldRejectIt() {
+        // Given
+        when(occurrences.getReminder(residentId, reminderId)).thenReturn(null);
+        OffsetDateTime occurrence = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1);
+
+        // When
+        ReminderEventsResponse result = service.record(residentId, residentId, List.of(
+            new ReminderEventRequest(reminderId, occurrence, ReminderEventAction.ACKNOWLEDGED, null)));
+
+        // Then
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors().get(0).message()).isEqualTo("Reminder not found for user");
+        verify(ingestor).submit(List.of());
+    }
+
+    @Test
+    void record_WhenEmptyOrOversized_ShouldThrow() {
+        // Given
+        ReminderEventRequest req = new ReminderEventRequest(reminderId, OffsetDateTime.now(), ReminderEventAction.SNOOZED, null);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> service.record(residentId, residentId, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.record(residentId, residentId,
+            Collections.nCopies(ReminderEventService.MAX_BATCH_SIZE + 1, req)));
+        verifyNoInteractions(occurrences, ingestor);
+    }
+
+    @Test
+    void occursAt_ShouldMatchOnlyExactFireTimes() {
+        // Given
+        Instant at = Instant.parse("2025-03-03T07:00:00Z"); // Monday 08:00 in Stockholm
+        ScheduledReminder recurring = new ScheduledReminder(reminderId, residentId, "recurring", "MEAL", null, null,
+            RecurrenceRule.parseStrict(List.of("Mån"), List.of("08:00")));
+        ScheduledReminder once = new ScheduledReminder(reminderId, residentId, "once", "MEAL", null, at, null);
+
+        // When / Then
+        assertThat(recurring.occursAt(at, zone)).isTrue();
+        assertThat(recurring.occursAt(at.plusSeconds(60), zone)).isFalse();
+        assertThat(recurring.occursAt(at.plus(Duration.ofDays(1)), zone)).isFalse();
+        assertThat(once.occursAt(at, zone)).isTrue();
+        assertThat(once.occursAt(at.plusSeconds(1), zone)).isFalse();
+    }
+
+    private static List<String> everyMinute() {
+        List<String> times = new ArrayList<>();
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            times.add(String.format("%02d:%02d", minute / 60, minute % 60));
+        }
+        return times;
+    }
+}
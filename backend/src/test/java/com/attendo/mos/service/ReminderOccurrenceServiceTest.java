@@ -0,0 +1,174 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.RecurrenceRule;
+import com.attendo.mos.dto.ReminderOccurrence;
+import com.attendo.mos.dto.ScheduledReminder;
+import com.attendo.mos.repo.ReminderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderOccurrenceServiceTest {
+
+    @Mock
+    private ReminderRepository reminderRepository;
+
+    private ReminderOccurrenceService occurrenceService;
+
+    private final UUID userId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @BeforeEach
+    void setUp() {
+        occurrenceService = new ReminderOccurrenceService(reminderRepository, "Europe/Stockholm");
+    }
+
+    private ScheduledReminder recurring(List<String> days, List<String> times) {
+        return new ScheduledReminder(UUID.randomUUID(), userId, "recurring", Category.MEDICATION.name(), null,
+            null, RecurrenceRule.parseStrict(days, times));
+    }
+
+    private ScheduledReminder once(OffsetDateTime at) {
+        return new ScheduledReminder(UUID.randomUUID(), userId, "once", Category.MEAL.name(), null, at.toInstant(), null);
+    }
+
+    @Test
+    void getOccurrences_ShouldExpandRecurringRuleWithinRange() {
+        // Given - Monday 2025-09-15 to Monday 2025-09-22 (local time)
+        when(reminderRepository.scheduleForUser(userId))
+            .thenReturn(List.of(recurring(List.of("Mån", "Onsdag"), List.of("19:00", "07:00"))));
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+
+        // When
+        List<ReminderOccurrence> result = occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+
+        // Then
+        assertThat(result).extracting(o -> o.at().toLocalDateTime().toString())
+            .containsExactly("2025-09-15T07:00", "2025-09-15T19:00", "2025-09-17T07:00", "2025-09-17T19:00");
+        assertThat(result).allMatch(o -> o.category().equals("MEDICATION") && o.type().equals("recurring"));
+    }
+
+    @Test
+    void getOccurrences_ShouldMergeOnceRemindersInTimeOrder() {
+        // Given
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+        when(reminderRepository.scheduleForUser(userId)).thenReturn(List.of(
+            recurring(List.of("Mon"), List.of("08:00")),
+            once(OffsetDateTime.parse("2025-09-15T06:30:00+02:00")),
+            once(OffsetDateTime.parse("2025-09-30T12:00:00+02:00")) // outside range
+        ));
+
+        // When
+        List<ReminderOccurrence> result = occurrenceService.getOccurrences(userId, from, from.plusDays(2));
+
+        // Then
+        assertThat(result).extracting(ReminderOccurrence::type).containsExactly("once", "recurring");
+    }
+
+    @Test
+    void getOccurrences_ShouldResolveLocalTimeAcrossDstChange() {
+        // Given - Sweden switches to winter time on Sunday 2025-10-26
+        when(reminderRepository.scheduleForUser(userId))
+            .thenReturn(List.of(recurring(List.of("Lör", "Sön"), List.of("08:00"))));
+        OffsetDateTime from = OffsetDateTime.parse("2025-10-25T00:00:00+02:00");
+
+        // When
+        List<ReminderOccurrence> result = occurrenceService.getOccurrences(userId, from, from.plusDays(2));
+
+        // Then
+        assertThat(result).extracting(o -> o.at().toString())
+            .containsExactly("2025-10-25T08:00+02:00", "2025-10-26T08:00+01:00");
+    }
+
+    @Test
+    void getOccurrences_ShouldCacheCompiledRulesUntilReminderChanges() {
+        // Given
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+        when(reminderRepository.scheduleForUser(userId))
+            .thenReturn(List.of(recurring(List.of("Mon"), List.of("08:00"))));
+
+        // When
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+        occurrenceService.onReminderChanged(new ReminderChangedEvent(userId, UUID.randomUUID()));
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+
+        // Then
+        verify(reminderRepository, times(2)).scheduleForUser(userId);
+    }
+
+    @Test
+    void getOccurrences_WhenUserChangesDuringLoad_ShouldNotCacheStaleAgenda() {
+        // Given - the user's reminders change while the first load is running
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+        when(reminderRepository.scheduleForUser(userId)).thenAnswer(invocation -> {
+            occurrenceService.invalidate(userId);
+            return List.of(recurring(List.of("Mon"), List.of("08:00")));
+        });
+
+        // When
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+
+        // Then
+        verify(reminderRepository, times(2)).scheduleForUser(userId);
+    }
+
+    @Test
+    void getOccurrences_WhenOtherUserChangesDuringLoad_ShouldStillCache() {
+        // Given
+        UUID otherUserId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+        when(reminderRepository.scheduleForUser(userId)).thenAnswer(invocation -> {
+            occurrenceService.invalidate(otherUserId);
+            return List.of(recurring(List.of("Mon"), List.of("08:00")));
+        });
+
+        // When
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+
+        // Then
+        verify(reminderRepository, times(1)).scheduleForUser(userId);
+    }
+
+    @Test
+    void getOccurrences_ShouldReloadAgendasOlderThanTheTtl() {
+        // Given
+        ReflectionTestUtils.setField(occurrenceService, "cacheTtl", Duration.ZERO);
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+        when(reminderRepository.scheduleForUser(userId))
+            .thenReturn(List.of(recurring(List.of("Mon"), List.of("08:00"))));
+
+        // When
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+        occurrenceService.getOccurrences(userId, from, from.plusDays(7));
+
+        // Then
+        verify(reminderRepository, times(2)).scheduleForUser(userId);
+    }
+
+    @Test
+    void getOccurrences_ShouldRejectTooLongRange() {
+        OffsetDateTime from = OffsetDateTime.parse("2025-09-15T00:00:00+02:00");
+
+        assertThatThrownBy(() -> occurrenceService.getOccurrences(userId, from, from.plusDays(90)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("62 days");
+    }
+}
@@ -1,8 +1,12 @@
 package com.attendo.mos.service;
 
+import com.attendo.mos.dto.BulkReminderResponse;
 import com.attendo.mos.dto.Category;
 import com.attendo.mos.dto.CreateReminderRequest;
+import com.attendo.mos.dto.RecurrenceRule;
 import com.attendo.mos.dto.ReminderDto;
+import com.attendo.mos.dto.ReminderPage;
+import com.attendo.mos.dto.UpdateReminderRequest;
 import com.attendo.mos.entity.Reminder;
 import com.attendo.mos.entity.User;
 import com.attendo.mos.repo.ReminderRepository;
@@ -13,7 +17,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -22,6 +30,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +42,12 @@ class ReminderServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private ReminderStats stats;
+
     @InjectMocks
     private ReminderService reminderService;
 
@@ -162,7 +177,7 @@ class ReminderServiceTest {
         savedReminder.setNote("Recurring medication");
         savedReminder.setType("recurring");
         savedReminder.setTime(null);
-        savedReminder.setRecurrence(java.util.Map.of("days", List.of("Mon", "Wed", "Fri"), "times", List.of("08:00", "20:00")));
+        savedReminder.setRecurrence(RecurrenceRule.parse(List.of("Mon", "Wed", "Fri"), List.of("08:00", "20:00")));
         savedReminder.setCreatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
         when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
@@ -176,11 +191,32 @@ class ReminderServiceTest {
         assertEquals("recurring", result.type());
         assertNull(result.time());
         assertNotNull(result.recurrence());
-        assertEquals(List.of("Mon", "Wed", "Fri"), result.recurrence().get("days"));
-        assertEquals(List.of("08:00", "20:00"), result.recurrence().get("times"));
+        // Day names come back in canonical (Swedish short) form
+        assertEquals(List.of("Mån", "Ons", "Fre"), result.recurrence().days());
+        assertEquals(List.of("08:00", "20:00"), result.recurrence().times());
         verify(reminderRepository).save(any(Reminder.class));
     }
 
+    @Test
+    void addReminder_WithUnknownRecurringDay_ShouldThrowException() {
+        // Given
+        CreateReminderRequest request = new CreateReminderRequest(
+            "recurring",
+            "medicin",
+            null,
+            List.of("Mon", "Funday"),
+            List.of("08:00"),
+            "Recurring medication"
+        );
+        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> reminderService.addReminder(testUserId, request));
+        assertEquals("unknown day: Funday", exception.getMessage());
+        verify(reminderRepository, never()).save(any(Reminder.class));
+    }
+
     @Test
     void addReminder_WithNullType_ShouldDefaultToOnce() {
         // Given
@@ -258,4 +294,111 @@ class ReminderServiceTest {
         assertEquals("User not found", exception.getMessage());
         verify(reminderRepository, never()).save(any(Reminder.class));
     }
+
+    @Test
+    void getReminders_WhenMoreRowsThanLimit_ShouldReturnCursorThatResumesAfterLastItem() {
+        // Given - repository returns limit + 1 rows
+        OffsetDateTime base = OffsetDateTime.parse("2025-03-01T08:00:00Z");
+        Reminder first = onceReminder(UUID.fromString("00000000-0000-0000-0000-000000000001"), base);
+        Reminder second = onceReminder(UUID.fromString("00000000-0000-0000-0000-000000000002"), base.plusHours(1));
+        Reminder third = onceReminder(UUID.fromString("00000000-0000-0000-0000-000000000003"), base.plusHours(2));
+        when(reminderRepository.listForUser(testUserId, Limit.of(3))).thenReturn(List.of(first, second, third));
+
+        // When
+        ReminderPage page = reminderService.getReminders(testUserId, null, 2);
+
+        // Then
+        assertEquals(2, page.items().size());
+        assertEquals(second.getId(), page.items().get(1).id());
+        assertNotNull(page.nextCursor());
+
+        // When - follow the cursor
+        when(reminderRepository.listForUserAfter(testUserId, base.plusHours(1), second.getId(), Limit.of(3)))
+            .thenReturn(List.of(third));
+        ReminderPage next = reminderService.getReminders(testUserId, page.nextCursor(), 2);
+
+        // Then
+        assertEquals(List.of(third.getId()), next.items().stream().map(r -> r.id()).toList());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void getReminders_WithInvalidCursorOrLimit_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> reminderService.getReminders(testUserId, "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class,
+            () -> reminderService.getReminders(testUserId, null, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> reminderService.getReminders(testUserId, null, ReminderService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(reminderRepository);
+    }
+
+    @Test
+    void addReminders_ShouldLoadUserOnceSaveValidItemsAndReportInvalidOnes() {
+        // Given
+        OffsetDateTime at = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1);
+        List<CreateReminderRequest> requests = List.of(
+            new CreateReminderRequest("once", "meal", at, null, null, "Lunch"),
+            new CreateReminderRequest("once", "meal", null, null, null, "No time"),
+            new CreateReminderRequest("recurring", "medicin", null, List.of("Mån", "Ons"), List.of("08:00"), "Pills"));
+        when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        when(reminderRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Reminder> batch = inv.getArgument(0);
+            batch.forEach(r -> ReflectionTestUtils.setField(r, "id", UUID.randomUUID()));
+            return batch;
+        });
+
+        // When
+        BulkReminderResponse result = reminderService.addReminders(testUserId, requests);
+
+        // Then
+        assertEquals(2, result.created());
+        assertEquals(1, result.failed());
+        assertNotNull(result.results().get(0).id());
+        assertEquals("dateTime required for type=once", result.results().get(1).error());
+        assertNull(result.results().get(1).id());
+        assertNotNull(result.results().get(2).id());
+        verify(userRepository, times(1)).findById(testUserId);
+        verify(reminderRepository, never()).save(any(Reminder.class));
+        verify(events, times(2)).publishEvent(any(ReminderChangedEvent.class));
+    }
+
+    @Test
+    void addReminders_WithTooManyItems_ShouldThrowException() {
+        List<CreateReminderRequest> requests = java.util.Collections.nCopies(ReminderService.MAX_BULK_SIZE + 1,
+            new CreateReminderRequest("once", "meal", OffsetDateTime.now(ZoneOffset.UTC), null, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> reminderService.addReminders(testUserId, requests));
+        verifyNoInteractions(userRepository, reminderRepository);
+    }
+
+    @Test
+    void updateReminder_ShouldMoveStatisticsToTheNewBucket() {
+        // Given
+        UUID reminderId = UUID.randomUUID();
+        Reminder reminder = onceReminder(reminderId, OffsetDateTime.now(ZoneOffset.UTC).plusDays(1));
+        ReminderStats.Bucket before = new ReminderStats.Bucket(Category.MEAL, "once", LocalDate.of(2025, 3, 3));
+        ReminderStats.Bucket after = new ReminderStats.Bucket(Category.MEDICATION, "once", LocalDate.of(2025, 3, 3));
+        when(reminderRepository.findById(reminderId)).thenReturn(Optional.of(reminder));
+        when(reminderRepository.save(reminder)).thenReturn(reminder);
+        when(stats.bucket(reminder)).thenReturn(before, after);
+
+        // When
+        reminderService.updateReminder(testUserId, reminderId,
+            new UpdateReminderRequest(null, "medication", null, null, null, null));
+
+        // Then
+        assertEquals(Category.MEDICATION, reminder.getCategory());
+        verify(stats).changed(testUserId, before, after);
+    }
+
+    private Reminder onceReminder(UUID id, OffsetDateTime time) {
+        Reminder reminder = new Reminder();
+        ReflectionTestUtils.setField(reminder, "id", id);
+        reminder.setUser(testUser);
+        reminder.setCategory(Category.MEAL);
+        reminder.setType("once");
+        reminder.setTime(time);
+        return reminder;
+    }
 }
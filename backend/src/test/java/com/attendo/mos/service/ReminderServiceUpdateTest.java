@@ -1,6 +1,7 @@
 package com.attendo.mos.service;
 
 import com.attendo.mos.dto.Category;
+import com.attendo.mos.dto.RecurrenceRule;
 import com.attendo.mos.dto.ReminderDto;
 import com.attendo.mos.dto.UpdateReminderRequest;
 import com.attendo.mos.entity.Reminder;
@@ -13,10 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -35,6 +36,12 @@ class ReminderServiceUpdateTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Mock
+    private ReminderStats stats;
+
     @InjectMocks
     private ReminderService reminderService;
 
@@ -173,11 +180,7 @@ class ReminderServiceUpdateTest {
             reminderId, testUser, "recurring", Category.MEDICATION, "Recurring medication reminder", null
         );
         savedReminder.setCreatedAt(testReminder.getCreatedAt());
-        Map<String, Object> recurrence = Map.of(
-            "days", request.days(),
-            "times", request.times()
-        );
-        savedReminder.setRecurrence(recurrence);
+        savedReminder.setRecurrence(RecurrenceRule.parse(request.days(), request.times()));
         
         when(reminderRepository.save(any(Reminder.class))).thenReturn(savedReminder);
 
@@ -242,10 +245,7 @@ class ReminderServiceUpdateTest {
         // Arrange - existing recurring reminder
         testReminder.setType("recurring");
         testReminder.setTime(null);
-        Map<String, Object> existingRecurrence = Map.of(
-            "days", List.of("Mon", "Wed"),
-            "times", List.of("09:00")
-        );
+        RecurrenceRule existingRecurrence = RecurrenceRule.parse(List.of("Mon", "Wed"), List.of("09:00"));
         testReminder.setRecurrence(existingRecurrence);
 
         // Update only note and category
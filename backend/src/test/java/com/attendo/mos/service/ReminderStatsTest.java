@@ -0,0 +1,112 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.dto.Category;
+import com.attendo.mos.entity.Reminder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderStatsTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReminderStats stats;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final LocalDate day = LocalDate.of(2025, 3, 3);
+
+    @BeforeEach
+    void setUp() {
+        stats = new ReminderStats(jdbc, transactionManager, "Europe/Stockholm", Duration.ofHours(1));
+    }
+
+    @Test
+    void bucket_ShouldUseLocalDayOfTimeOrCreation() {
+        // Given - 23:30 UTC is already the next day in Stockholm
+        Reminder once = new Reminder();
+        once.setCategory(Category.MEDICATION);
+        once.setType("once");
+        once.setTime(OffsetDateTime.of(2025, 3, 2, 23, 30, 0, 0, ZoneOffset.UTC));
+        Reminder recurring = new Reminder();
+        recurring.setCategory(Category.MEAL);
+        recurring.setType("Recurring");
+        recurring.setCreatedAt(OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC));
+
+        // When / Then
+        assertThat(stats.bucket(once)).isEqualTo(new ReminderStats.Bucket(Category.MEDICATION, "once", day));
+        assertThat(stats.bucket(recurring)).isEqualTo(new ReminderStats.Bucket(Category.MEAL, "recurring", day));
+    }
+
+    @Test
+    void changed_ShouldMoveOneCountBetweenBucketsInOneStatement() {
+        // When
+        stats.changed(residentId, new ReminderStats.Bucket(Category.MEAL, "once", day),
+            new ReminderStats.Bucket(Category.MEDICATION, "once", day.plusDays(1)));
+
+        // Then
+        verify(jdbc).update(startsWith("insert into reminder_stats"),
+            eq(residentId), eq(new String[] { "MEAL", "MEDICATION" }), eq(new String[] { "once", "once" }),
+            eq(new String[] { "2025-03-03", "2025-03-04" }), eq(new Integer[] { -1, 1 }),
+            eq(residentId), eq(residentId));
+    }
+
+    @Test
+    void reconcile_ShouldRecountEachScopeInItsOwnTransaction() {
+        // Given - two users and one caregiver, one counter wrong in each scope
+        UUID otherResidentId = UUID.fromString("55555555-5555-5555-5555-555555555555");
+        UUID caregiverId = UUID.fromString("22222222-2222-2222-2222-222222222222");
+        when(jdbc.queryForList(startsWith("select id from app_user"), eq(UUID.class)))
+            .thenReturn(List.of(residentId, otherResidentId));
+        when(jdbc.queryForList(startsWith("select caregiver_id from user_assignments"), eq(UUID.class)))
+            .thenReturn(List.of(caregiverId));
+        when(jdbc.queryForObject(startsWith("select count(pg_advisory_xact_lock"), eq(Long.class), any(Object[].class)))
+            .thenReturn(1L);
+        when(jdbc.queryForObject(startsWith("with actual as"), eq(Integer.class), any(Object[].class)))
+            .thenReturn(1);
+
+        // When
+        int corrected = stats.reconcile();
+
+        // Then - no table lock, one short transaction per scope
+        assertThat(corrected).isEqualTo(3);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(jdbc, never()).execute(startsWith("lock table"));
+    }
+
+    @Test
+    void changed_WhenBucketIsUnchanged_ShouldNotWrite() {
+        // When - e.g. only the note was edited
+        ReminderStats.Bucket bucket = new ReminderStats.Bucket(Category.MEAL, "once", day);
+        stats.changed(residentId, bucket, bucket);
+        stats.added(residentId, List.of());
+
+        // Then
+        verifyNoInteractions(jdbc);
+    }
+}
@@ -0,0 +1,111 @@
+package com.attendo.mos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    void advanceTo_ShouldFireEntriesWithinOneTickOfDeadline() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 3, 0);
+        wheel.add(250, "a");
+        wheel.add(50, "b");
+        List<String> fired = new ArrayList<>();
+
+        // When / Then
+        wheel.advanceTo(100, fired::add);
+        assertThat(fired).containsExactly("b");
+
+        wheel.advanceTo(300, fired::add);
+        assertThat(fired).containsExactly("b", "a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advanceTo_ShouldCascadeEntriesFromHigherLevels() {
+        // Given - level 0 spans 800ms, level 1 spans 6.4s
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, 3, 0);
+        long[] deadlines = {5_000, 900, 40_000, 799, 6_399};
+        for (long deadline : deadlines) {
+            wheel.add(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        // When
+        for (long t = 0; t <= 41_000; t += TICK) {
+            long now = t;
+            wheel.advanceTo(now, deadline -> {
+                assertThat(now).isGreaterThan(deadline).isLessThanOrEqualTo(deadline + TICK);
+                fired.add(deadline);
+            });
+        }
+
+        // Then
+        assertThat(fired).containsExactly(799L, 900L, 5_000L, 6_399L, 40_000L);
+    }
+
+    @Test
+    void advanceTo_ShouldFireRandomDeadlinesInOrderWithBoundedSkew() {
+        // Given
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, 64, 3, 1_000);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = 1_000 + random.nextInt(3_600_000);
+            wheel.add(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        // When - advance in irregular steps, as a delayed ticker would
+        long now = 1_000;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5_000);
+            long current = now;
+            wheel.advanceTo(now, deadline -> {
+                assertThat(current - deadline).isLessThanOrEqualTo(5_000 + TICK);
+                fired.add(deadline);
+            });
+        }
+
+        // Then
+        assertThat(fired).hasSize(10_000);
+    }
+
+    @Test
+    void cancel_ShouldRemoveEntry() {
+        // Given
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 2, 0);
+        TimingWheel.Timeout<String> keep = wheel.add(300, "keep");
+        TimingWheel.Timeout<String> drop = wheel.add(300, "drop");
+        List<String> fired = new ArrayList<>();
+
+        // When
+        assertThat(wheel.cancel(drop)).isTrue();
+        wheel.advanceTo(1_000, fired::add);
+
+        // Then
+        assertThat(fired).containsExactly("keep");
+        assertThat(keep.isPending()).isFalse();
+        assertThat(wheel.cancel(drop)).isFalse();
+    }
+
+    @Test
+    void add_ShouldRejectDeadlinesBeyondHorizonAndFirePastOnesImmediately() {
+        // Given - 2 levels of 8 slots: horizon is 6.4s
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 2, 1_000);
+        List<String> fired = new ArrayList<>();
+
+        // When / Then
+        assertThat(wheel.add(wheel.horizon(), "too far")).isNull();
+        wheel.add(500, "late");
+        wheel.advanceTo(1_000, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+}
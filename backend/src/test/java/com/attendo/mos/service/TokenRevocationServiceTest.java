@@ -0,0 +1,85 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    private TokenRevocationService revocationService;
+
+    private final UUID revokedId = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000001");
+    private final UUID liveId = UUID.fromString("bbbbbbbb-0000-0000-0000-000000000002");
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(repository, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void isRevoked_ShouldAnswerUnrevokedTokensWithoutQuerying() {
+        // Given
+        revocationService.revoke(revokedId, Instant.now().plusSeconds(900));
+        when(repository.existsById(revokedId)).thenReturn(true);
+
+        // When / Then
+        assertThat(revocationService.isRevoked(revokedId)).isTrue();
+        assertThat(revocationService.isRevoked(liveId)).isFalse();
+        assertThat(revocationService.isRevoked(null)).isFalse();
+        verify(repository, never()).existsById(liveId);
+    }
+
+    @Test
+    void revoke_ShouldIgnoreExpiredTokens() {
+        revocationService.revoke(revokedId, Instant.now().minusSeconds(1));
+
+        assertThat(revocationService.isRevoked(revokedId)).isFalse();
+        verify(repository, never()).revoke(any(), any());
+    }
+
+    @Test
+    void rebuild_ShouldLoadLiveRowsAndDropExpiredOnes() {
+        // Given - the token was revoked by another instance
+        when(repository.findLiveTokenIds(any())).thenReturn(List.of(revokedId));
+        when(repository.existsById(revokedId)).thenReturn(true);
+
+        // When
+        revocationService.rebuild();
+
+        // Then
+        verify(repository).deleteExpired(any());
+        assertThat(revocationService.isRevoked(revokedId)).isTrue();
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegativesAndFewFalsePositives() {
+        UuidBloomFilter filter = new UuidBloomFilter(10_000, 0.01);
+        List<UUID> added = Stream.generate(UUID::randomUUID).limit(10_000).toList();
+        added.forEach(filter::put);
+
+        assertThat(added).allMatch(filter::mightContain);
+        long falsePositives = Stream.generate(UUID::randomUUID).limit(10_000)
+            .filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -0,0 +1,56 @@
+package com.attendo.mos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserDirectoryService directoryService;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        directoryService = new UserDirectoryService(jdbcTemplate, transactionManager, new ObjectMapper());
+    }
+
+    @Test
+    void getUsers_WithInvalidParameters_ShouldThrowBeforeQuerying() {
+        assertThatThrownBy(() -> directoryService.getUsers(null, null, "passwordHash", null, null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("unknown sort: passwordHash");
+        assertThatThrownBy(() -> directoryService.getUsers(null, null, "email,sideways", null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> directoryService.getUsers(null, null, null, null, UserDirectoryService.MAX_PAGE_SIZE + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> directoryService.getUsers(null, null, "createdAt", "bm90LWEtY3Vyc29y", null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("invalid cursor");
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void exportFormat_ShouldRejectUnknownFormats() {
+        assertThatThrownBy(() -> UserDirectoryService.ExportFormat.fromParam("xml"))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("unknown format: xml");
+    }
+}
@@ -0,0 +1,175 @@
+package com.attendo.mos.service;
+
+import com.attendo.mos.constants.PermissionConstants;
+import com.attendo.mos.dto.UserType;
+import com.attendo.mos.entity.UserPermission;
+import com.attendo.mos.repository.RolePermissionRepository;
+import com.attendo.mos.repository.UserPermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPermissionServiceTest {
+
+    @Mock
+    private UserPermissionRepository permissionRepository;
+
+    @Mock
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Mock
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private UserPermissionService permissionService;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID adminId = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    private final long residentRole = PermissionConstants.mask(List.of(
+        PermissionConstants.VIEW_REMINDERS, PermissionConstants.CREATE_REMINDERS));
+
+    @BeforeEach
+    void setUp() {
+        permissionService = new UserPermissionService(permissionRepository, rolePermissionRepository,
+            authorizationService, events);
+    }
+
+    private void givenResident(long effective) {
+        when(authorizationService.grantsFor(residentId))
+            .thenReturn(new AuthorizationService.Grants(UserType.RESIDENT, effective));
+    }
+
+    private void givenStoredResident(UserPermission... overrides) {
+        when(permissionRepository.lockUserType(residentId)).thenReturn(Optional.of(UserType.RESIDENT.name()));
+        when(rolePermissionRepository.findPermissionNamesByUserType(UserType.RESIDENT))
+            .thenReturn(PermissionConstants.names(residentRole));
+        when(permissionRepository.findByUserId(residentId)).thenReturn(List.of(overrides));
+    }
+
+    @Test
+    void setUserPermissions_ShouldStoreOnlyDeviationsFromRole() {
+        // Given
+        givenStoredResident();
+
+        // When
+        permissionService.setUserPermissions(residentId, List.of("VIEW_REMINDERS", "STATISTICS"), adminId);
+
+        // Then - the user's row is locked before anything is read or written
+        InOrder inOrder = inOrder(permissionRepository);
+        inOrder.verify(permissionRepository).lockUserType(residentId);
+        inOrder.verify(permissionRepository).findByUserId(residentId);
+        inOrder.verify(permissionRepository).upsertOverrides(residentId, new String[] { "STATISTICS" }, true, adminId);
+        inOrder.verify(permissionRepository).upsertOverrides(residentId, new String[] { "CREATE_REMINDERS" }, false, adminId);
+        inOrder.verify(permissionRepository).deleteOverridesExcept(residentId, new String[] { "CREATE_REMINDERS", "STATISTICS" });
+        verify(events).publishEvent(new AuthorizationChangedEvent(residentId));
+    }
+
+    @Test
+    void setUserPermissions_WhenMatchingRole_ShouldOnlyDropOverrides() {
+        // Given - the resident currently has a denial override for CREATE_REMINDERS
+        givenStoredResident(new UserPermission(null, PermissionConstants.CREATE_REMINDERS, false, null));
+
+        // When
+        permissionService.setUserPermissions(residentId, List.of("CREATE_REMINDERS", "VIEW_REMINDERS"), adminId);
+
+        // Then
+        verify(permissionRepository, never()).upsertOverrides(any(), any(), anyBoolean(), any());
+        verify(permissionRepository).deleteOverridesExcept(residentId, new String[0]);
+    }
+
+    @Test
+    void setUserPermissions_WhenUnchanged_ShouldNotWrite() {
+        // Given
+        givenStoredResident(new UserPermission(null, PermissionConstants.STATISTICS, true, null));
+
+        // When
+        permissionService.setUserPermissions(residentId, List.of("VIEW_REMINDERS", "CREATE_REMINDERS", "STATISTICS"), adminId);
+
+        // Then
+        verify(permissionRepository, never()).upsertOverrides(any(), any(), anyBoolean(), any());
+        verify(permissionRepository, never()).deleteOverridesExcept(any(), any());
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    void setUserPermissions_ShouldDecideFromStoredOverridesNotTheCache() {
+        // Given - another instance granted STATISTICS; this one's cache may still show the role only
+        givenStoredResident(new UserPermission(null, PermissionConstants.STATISTICS, true, null));
+
+        // When - setting the role's permissions must drop that override
+        permissionService.setUserPermissions(residentId, List.of("VIEW_REMINDERS", "CREATE_REMINDERS"), adminId);
+
+        // Then
+        verify(permissionRepository).deleteOverridesExcept(residentId, new String[0]);
+        verify(events).publishEvent(new AuthorizationChangedEvent(residentId));
+        verifyNoInteractions(authorizationService);
+    }
+
+    @Test
+    void setUserPermissions_WhenUserMissing_ShouldThrow() {
+        when(permissionRepository.lockUserType(residentId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> permissionService.setUserPermissions(residentId, List.of("STATISTICS"), adminId))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(permissionRepository, never()).deleteOverridesExcept(any(), any());
+    }
+
+    @Test
+    void setUserPermissions_ShouldRejectUnknownPermission() {
+        assertThatThrownBy(() -> permissionService.setUserPermissions(residentId, List.of("FLY"), adminId))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(permissionRepository);
+    }
+
+    @Test
+    void revokePermission_ShouldDenyRolePermissionAndDropGrantOverride() {
+        // Given
+        givenResident(residentRole);
+        when(authorizationService.roleMask(UserType.RESIDENT)).thenReturn(residentRole);
+
+        // When
+        permissionService.revokePermission(residentId, "CREATE_REMINDERS");
+        permissionService.revokePermission(residentId, "STATISTICS");
+
+        // Then
+        verify(permissionRepository).upsertOverrides(residentId, new String[] { "CREATE_REMINDERS" }, false, null);
+        verify(permissionRepository).deleteOverrides(residentId, new String[] { "STATISTICS" });
+    }
+
+    @Test
+    void setRolePermissions_ShouldAddAndRemoveAgainstDesiredSet() {
+        // Given
+        when(authorizationService.roleMask(UserType.RESIDENT)).thenReturn(residentRole);
+
+        // When
+        permissionService.setRolePermissions(UserType.RESIDENT, List.of("VIEW_REMINDERS", "MEAL_REQUIREMENTS"));
+
+        // Then
+        String[] desired = { "VIEW_REMINDERS", "MEAL_REQUIREMENTS" };
+        verify(rolePermissionRepository).addAll("RESIDENT", desired);
+        verify(rolePermissionRepository).deleteAllExcept("RESIDENT", desired);
+        verify(events).publishEvent(new RolePermissionsChangedEvent(UserType.RESIDENT));
+        verifyNoInteractions(permissionRepository);
+    }
+}
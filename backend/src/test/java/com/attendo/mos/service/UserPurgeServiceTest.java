@@ -0,0 +1,110 @@
+package com.attendo.mos.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgeServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    private UserPurgeService purgeService;
+
+    private final UUID residentId = UUID.fromString("44444444-4444-4444-4444-444444444444");
+    private final UUID r1 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000001");
+    private final UUID r2 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000002");
+    private final UUID r3 = UUID.fromString("aaaaaaaa-0000-0000-0000-000000000003");
+
+    @BeforeEach
+    void setUp() {
+        purgeService = new UserPurgeService(jdbc, transactionManager, events, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purgeService.shutdown();
+    }
+
+    @Test
+    void purge_ShouldDeleteInChunksAndRemoveUserLast() {
+        // Given - three reminders (a full chunk, then a partial one) and no meal requirements
+        when(jdbc.queryForList(startsWith("delete from reminder"), eq(UUID.class), any(), any()))
+            .thenReturn(List.of(r1, r2), List.of(r3));
+
+        // When
+        purgeService.purge(residentId);
+
+        // Then
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc, times(2)).queryForList(startsWith("delete from reminder"), eq(UUID.class), eq(residentId), eq(2));
+        order.verify(jdbc).update(startsWith("delete from meal_requirement"), eq(residentId), eq(2));
+        order.verify(jdbc).update("delete from app_user where id = ?", residentId);
+        order.verify(jdbc).update(startsWith("update user_purge set status = 'DONE'"), eq(residentId));
+        verify(jdbc).update(startsWith("update user_purge set status = 'RUNNING', reminders_deleted"), eq(2), eq(residentId));
+        verify(jdbc).update(startsWith("update user_purge set status = 'RUNNING', reminders_deleted"), eq(1), eq(residentId));
+        verify(events).publishEvent(new UserRemindersPurgedEvent(residentId));
+        verify(events, never()).publishEvent(any(ReminderChangedEvent.class));
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void purge_WhenAChunkFails_ShouldRecordErrorAndKeepUser() {
+        // Given
+        when(jdbc.queryForList(startsWith("delete from reminder"), eq(UUID.class), any(), any()))
+            .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        // When
+        purgeService.purge(residentId);
+
+        // Then
+        verify(jdbc).update(startsWith("update user_purge set status = 'FAILED'"), eq("connection lost"), eq(residentId));
+        verify(jdbc, never()).update(eq("delete from app_user where id = ?"), any(Object[].class));
+        verify(jdbc, never()).update(startsWith("update user_purge set status = 'DONE'"), anyString());
+    }
+
+    @Test
+    void purge_WhenAnUnexpectedErrorOccurs_ShouldRecordItAndKeepTheWorkerAlive() {
+        // Given - not a DataAccessException, e.g. a bug in a listener
+        when(jdbc.queryForList(startsWith("delete from reminder"), eq(UUID.class), any(), any()))
+            .thenReturn(List.of(r1));
+        doThrow(new IllegalStateException("listener failed"))
+            .when(events).publishEvent(any(UserRemindersPurgedEvent.class));
+
+        // When
+        purgeService.purge(residentId);
+
+        // Then
+        verify(jdbc).update(startsWith("update user_purge set status = 'FAILED'"), eq("listener failed"), eq(residentId));
+        verify(jdbc, never()).update(eq("delete from app_user where id = ?"), any(Object[].class));
+    }
+}
@@ -91,9 +91,12 @@ class UserServiceTest {
         user2.setCreatedAt(OffsetDateTime.now());
         user2.setLastLoginAt(OffsetDateTime.now());
 
-        List<User> users = List.of(testUser, user2);
+        List<UserInfoResponse> users = List.of(testUser, user2).stream()
+            .map(u -> new UserInfoResponse(u.getId(), u.getEmail(), u.getDisplayName(), u.getPhone(),
+                u.getUserType(), u.isActive(), u.getLastLoginAt(), u.getCreatedAt()))
+            .toList();
 
-        when(userRepository.findAll())
+        when(userRepository.findAllInfo())
             .thenReturn(users);
 
         // When
@@ -106,13 +109,13 @@ class UserServiceTest {
         assertThat(responses.get(1).id()).isEqualTo(user2.getId());
         assertThat(responses.get(1).email()).isEqualTo("user2@mos.test");
 
-        verify(userRepository).findAll();
+        verify(userRepository).findAllInfo();
     }
 
     @Test
     void getAllUsers_ShouldReturnEmptyListWhenNoUsers() {
         // Given
-        when(userRepository.findAll())
+        when(userRepository.findAllInfo())
             .thenReturn(List.of());
 
         // When
@@ -121,7 +124,7 @@ class UserServiceTest {
         // Then
         assertThat(responses).isEmpty();
 
-        verify(userRepository).findAll();
+        verify(userRepository).findAllInfo();
     }
 
     @Test
@@ -4,6 +4,7 @@ import { FaEdit, FaTrash } from "react-icons/fa";
 import { useAuth } from "./contexts/AuthContext";
 import { useLocation, useNavigate, Link } from "react-router-dom";
 import homeIcon from "./images/home.png";
+import { fetchAllPages } from "./fetchAllPages";
 
 // Removed old login function - now using AuthContext
 
@@ -195,16 +196,10 @@ const ReminderList = () => {
     try {
       // Use viewedPatientId when caregiver is viewing patient, otherwise use current user's ID
       const targetUserId = viewedPatientId || user.id;
-      const response = await fetch(`/api/users/${targetUserId}/reminders`, {
+      // The list is paged; follow the cursor so users with many reminders see all of them
+      const reminders = await fetchAllPages(`/api/users/${targetUserId}/reminders`, {
         headers: getAuthHeaders(),
       });
-
-      if (!response.ok) {
-        const errorText = await response.text();
-        throw new Error(`Server error: ${errorText}`);
-      }
-
-      const reminders = await response.json();
       setData(reminders);
     } catch (error) {
       console.error("Error fetching reminders:", error);
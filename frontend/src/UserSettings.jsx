@@ -2,6 +2,7 @@ import React, { useEffect, useState } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
 import { useAuth } from './contexts/AuthContext';
 import homeIcon from './images/home.png';
+import { fetchAllPages } from './fetchAllPages';
 import './UserSettings.css';
 
 export default function UserSettings() {
@@ -154,13 +155,9 @@ export default function UserSettings() {
     setLoadingUsers(true);
     setUsersError(null);
     try {
-      const res = await fetch('/api/user-management/admin/users', { headers: getAuthHeaders() });
-      if (!res.ok) {
-        const text = await res.text();
-        throw new Error(`${res.status} ${res.statusText} - ${text}`);
-      }
-  const data = await res.json();
-  setAllUsers(Array.isArray(data) ? data.map(normalizeUser) : []);
+      // The directory is paged; follow the cursor so edit and delete see every user
+      const data = await fetchAllPages('/api/user-management/admin/users', { headers: getAuthHeaders() });
+      setAllUsers(data.map(normalizeUser));
     } catch (err) {
       console.warn('Could not fetch users, showing fallback mock users', err);
       setUsersError(err.message || String(err));
@@ -1,4 +1,4 @@
-import React, { createContext, useContext, useState, useEffect } from 'react';
+import React, { createContext, useContext, useState, useEffect, useCallback } from 'react';
 
 const AuthContext = createContext();
 
@@ -13,6 +13,7 @@ export const useAuth = () => {
 export const AuthProvider = ({ children }) => {
   const [user, setUser] = useState(null);
   const [token, setToken] = useState(null);
+  const [expiresAt, setExpiresAt] = useState(null);
   const [loading, setLoading] = useState(true);
 
   // Check for existing token on app start
@@ -22,11 +23,48 @@ export const AuthProvider = ({ children }) => {
     
     if (storedToken && storedUser) {
       setToken(storedToken);
+      setExpiresAt(sessionStorage.getItem('mos_expires_at'));
       setUser(JSON.parse(storedUser));
     }
     setLoading(false);
   }, []);
 
+  const clearSession = useCallback(() => {
+    sessionStorage.removeItem('mos_token');
+    sessionStorage.removeItem('mos_refresh_token');
+    sessionStorage.removeItem('mos_expires_at');
+    sessionStorage.removeItem('mos_user');
+    setToken(null);
+    setExpiresAt(null);
+    setUser(null);
+  }, []);
+
+  // Access tokens are short-lived: swap the refresh token for a new pair shortly before expiry
+  useEffect(() => {
+    if (!token || !expiresAt) return undefined;
+    const delay = Math.max(0, new Date(expiresAt).getTime() - Date.now() - 60_000);
+    const timer = setTimeout(async () => {
+      try {
+        const response = await fetch('/api/auth/refresh', {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json' },
+          body: JSON.stringify({ refreshToken: sessionStorage.getItem('mos_refresh_token') }),
+        });
+        if (!response.ok) throw new Error('Refresh failed');
+        const data = await response.json();
+        sessionStorage.setItem('mos_token', data.token);
+        sessionStorage.setItem('mos_refresh_token', data.refreshToken);
+        sessionStorage.setItem('mos_expires_at', data.expiresAt);
+        setToken(data.token);
+        setExpiresAt(data.expiresAt);
+      } catch (error) {
+        console.error('Token refresh error:', error);
+        clearSession();
+      }
+    }, delay);
+    return () => clearTimeout(timer);
+  }, [token, expiresAt, clearSession]);
+
   const login = async (email, password) => {
     try {
       const response = await fetch('/api/auth/login', {
@@ -45,6 +83,8 @@ export const AuthProvider = ({ children }) => {
       
       // Store token and user info
       sessionStorage.setItem('mos_token', data.token);
+      sessionStorage.setItem('mos_refresh_token', data.refreshToken);
+      sessionStorage.setItem('mos_expires_at', data.expiresAt);
       sessionStorage.setItem('mos_user', JSON.stringify({
         id: data.userId,
         email: data.email,
@@ -53,6 +93,7 @@ export const AuthProvider = ({ children }) => {
       }));
       
       setToken(data.token);
+      setExpiresAt(data.expiresAt);
       setUser({
         id: data.userId,
         email: data.email,
@@ -78,10 +119,18 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
-    sessionStorage.removeItem('mos_token');
-    sessionStorage.removeItem('mos_user');
-    setToken(null);
-    setUser(null);
+    // Revoke server-side; the local session is cleared regardless of the outcome
+    if (token) {
+      fetch('/api/auth/logout', {
+        method: 'POST',
+        headers: {
+          'Authorization': `Bearer ${token}`,
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ refreshToken: sessionStorage.getItem('mos_refresh_token') }),
+      }).catch(() => {});
+    }
+    clearSession();
   };
 
   const isAuthenticated = () => {
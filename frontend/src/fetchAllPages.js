@@ -0,0 +1,20 @@
+// The backend's list endpoints return one page per request and, when more remain, the cursor
+// for the next page in the X-Next-Cursor header. Follow it until the last page and return
+// every item. The first request is sent exactly as given.
+export async function fetchAllPages(url, options) {
+  const items = [];
+  let cursor = null;
+  do {
+    const separator = url.includes('?') ? '&' : '?';
+    const pageUrl = cursor ? `${url}${separator}after=${encodeURIComponent(cursor)}` : url;
+    const res = await fetch(pageUrl, options);
+    if (!res.ok) {
+      const text = await res.text();
+      throw new Error(`${res.status} ${res.statusText} - ${text}`);
+    }
+    const page = await res.json();
+    if (Array.isArray(page)) items.push(...page);
+    cursor = res.headers?.get?.('X-Next-Cursor') || null;
+  } while (cursor);
+  return items;
+}